@@ -0,0 +1,90 @@
+package org.example.bench;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.example.FrameCodec;
+import org.example.FrameCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks d'encodage et de décodage d'une image d'écran complète :
+ * chemin historique ImageIO PNG (captureScreenshot / receiveScreenshot) et codecs FrameCodec.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CodecBenchmark {
+
+    @Param({"TEXT", "VIDEO", "STATIC"})
+    public SyntheticFrames.Content content;
+
+    @Param({"1920x1080"})
+    public String resolution;
+
+    @Param({"png", "rle", "jpeg"})
+    public String codecName;
+
+    private BufferedImage frame;
+    private BufferedImage target;
+    private FrameCodec codec;
+    private byte[] encoded;
+    private byte[] legacyPng;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] size = resolution.split("x");
+        int width = Integer.parseInt(size[0]);
+        int height = Integer.parseInt(size[1]);
+        frame = SyntheticFrames.frame(content, width, height, 0);
+        target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        codec = FrameCodecs.create(codecName);
+        encoded = codec.encode(frame, 0, 0, width, height);
+        legacyPng = legacyEncode();
+    }
+
+    // Chemin historique de SharingImpl.captureScreenshot : nouveau flux et ImageIO.write à chaque image.
+    @Benchmark
+    public byte[] legacyPngEncode() throws IOException {
+        return legacyEncode();
+    }
+
+    // Chemin historique de Client.receiveScreenshot : ImageIO.read à chaque image.
+    @Benchmark
+    public BufferedImage legacyPngDecode() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(legacyPng));
+    }
+
+    @Benchmark
+    public byte[] codecEncode() throws IOException {
+        return codec.encode(frame, 0, 0, frame.getWidth(), frame.getHeight());
+    }
+
+    @Benchmark
+    public BufferedImage codecDecode() throws IOException {
+        codec.decode(encoded, target, 0, 0, target.getWidth(), target.getHeight());
+        return target;
+    }
+
+    private byte[] legacyEncode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(frame, "png", out);
+        return out.toByteArray();
+    }
+}
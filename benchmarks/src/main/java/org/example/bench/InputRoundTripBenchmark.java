@@ -0,0 +1,93 @@
+package org.example.bench;
+
+import java.awt.Canvas;
+import java.awt.event.MouseEvent;
+import java.lang.reflect.Proxy;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.TimeUnit;
+import org.example.InputRecords;
+import org.example.SharingInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks d'aller-retour RMI du chemin souris sur un registre en boucle locale :
+ * receiveMousePosition (un appel et un MouseEvent sérialisé par événement) et receiveInputBatch.
+ * Le serveur est un SharingInterface factice sans Robot, pour tourner sans écran.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class InputRoundTripBenchmark {
+    private static final int PORT = 21099; // Port du registre de test.
+    private static final int BATCH_EVENTS = 32; // Nombre d'événements par lot.
+
+    private Registry registry;
+    private SharingInterface exported;
+    private SharingInterface server;
+    private MouseEvent event;
+    private int[] batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Implémentation factice : les appels d'entrée ne font rien, les autres ne sont pas supportés.
+        exported = (SharingInterface) Proxy.newProxyInstance(SharingInterface.class.getClassLoader(),
+                new Class<?>[]{SharingInterface.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "hashCode": return System.identityHashCode(proxy);
+                            case "equals": return proxy == args[0];
+                            default: return "InputRoundTripBenchmark.Server";
+                        }
+                    }
+                    if (method.getName().startsWith("receive")) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        registry = LocateRegistry.createRegistry(PORT);
+        registry.rebind("Server", UnicastRemoteObject.exportObject(exported, 0));
+        server = (SharingInterface) LocateRegistry.getRegistry("127.0.0.1", PORT).lookup("Server");
+        event = new MouseEvent(new Canvas(), MouseEvent.MOUSE_MOVED, 0, 0, 100, 100, 0, false);
+        batch = new int[BATCH_EVENTS * InputRecords.RECORD_SIZE];
+        for (int i = 0; i < BATCH_EVENTS; i++) {
+            batch[i * InputRecords.RECORD_SIZE] = InputRecords.MOUSE_MOVE;
+            batch[i * InputRecords.RECORD_SIZE + 1] = i;
+            batch[i * InputRecords.RECORD_SIZE + 2] = i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        registry.unbind("Server");
+        UnicastRemoteObject.unexportObject(exported, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+    }
+
+    // Un appel par déplacement de souris, avec le MouseEvent sérialisé.
+    @Benchmark
+    public void receiveMousePosition() throws Exception {
+        server.receiveMousePosition(100, 100, event);
+    }
+
+    // Un appel pour BATCH_EVENTS déplacements encodés en entiers.
+    @Benchmark
+    public void receiveInputBatch() throws Exception {
+        server.receiveInputBatch(batch);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.bench;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.geom.AffineTransform;
+import java.awt.image.AffineTransformOp;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.example.Downscaler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks des redimensionnements faits par le client à chaque image :
+ * AffineTransformOp bilinéaire de Client.receiveScreenshot et getScaledInstance(SCALE_SMOOTH) de paintComponent,
+ * comparés à la réduction par moyenne des surfaces faite une fois par le serveur (Downscaler).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ScalingBenchmark {
+
+    @Param({"TEXT", "STATIC"})
+    public SyntheticFrames.Content content;
+
+    @Param({"2560x1440"})
+    public String source;
+
+    @Param({"1366x768", "1920x1080"})
+    public String viewport;
+
+    private BufferedImage frame;
+    private BufferedImage panel;
+    private AffineTransformOp op;
+    private final Downscaler downscaler = new Downscaler();
+
+    @Setup
+    public void setUp() {
+        String[] src = source.split("x");
+        String[] dst = viewport.split("x");
+        int width = Integer.parseInt(src[0]);
+        int height = Integer.parseInt(src[1]);
+        int viewWidth = Integer.parseInt(dst[0]);
+        int viewHeight = Integer.parseInt(dst[1]);
+        frame = SyntheticFrames.frame(content, width, height, 0);
+        panel = new BufferedImage(viewWidth, viewHeight, BufferedImage.TYPE_INT_RGB);
+        double scale = Math.min((double) viewWidth / width, (double) viewHeight / height);
+        op = new AffineTransformOp(AffineTransform.getScaleInstance(scale, scale), AffineTransformOp.TYPE_BILINEAR);
+    }
+
+    // Client.receiveScreenshot : nouvelle image de destination à chaque appel.
+    @Benchmark
+    public BufferedImage affineTransformOp() {
+        return op.filter(frame, null);
+    }
+
+    // FrameBroadcaster : réduction côté serveur à la zone d'affichage déclarée, dans un tampon réutilisé.
+    @Benchmark
+    public BufferedImage areaAveraging() {
+        downscaler.scale(frame, panel);
+        return panel;
+    }
+
+    // Client.paintComponent : getScaledInstance puis dessin dans le panneau (le redimensionnement a lieu au dessin).
+    @Benchmark
+    public BufferedImage scaledInstanceSmooth() {
+        Image scaled = frame.getScaledInstance(panel.getWidth(), panel.getHeight(), Image.SCALE_SMOOTH);
+        Graphics2D g = panel.createGraphics();
+        try {
+            g.drawImage(scaled, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return panel;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.bench;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Random;
+
+/**
+ * Classe SyntheticFrames qui génère des images d'écran représentatives sans écran réel,
+ * pour lancer les benchmarks sur une machine de CI sans affichage.
+ */
+public final class SyntheticFrames {
+
+    // Types de contenu d'écran.
+    public enum Content {
+        TEXT, // Terminal ou éditeur : beaucoup de texte sur fond uni.
+        VIDEO, // Vidéo : bruit et dégradés, presque chaque pixel change.
+        STATIC // Bureau presque immobile : aplats, barre des tâches, quelques icônes.
+    }
+
+    private SyntheticFrames() {
+    }
+
+    // Génère l'image numéro index d'une séquence du type demandé ; la même graine donne la même séquence.
+    public static BufferedImage frame(Content content, int width, int height, int index) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        switch (content) {
+            case TEXT:
+                drawText(image, index);
+                break;
+            case VIDEO:
+                drawVideo(image, index);
+                break;
+            default:
+                drawDesktop(image, index);
+                break;
+        }
+        return image;
+    }
+
+    private static void drawText(BufferedImage image, int index) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(30, 30, 30));
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
+            Random random = new Random(42);
+            int lineHeight = 17;
+            for (int y = lineHeight, line = index; y < image.getHeight(); y += lineHeight, line++) {
+                g.setColor(line % 7 == 0 ? new Color(120, 200, 120) : new Color(210, 210, 210));
+                g.drawString(line + ": " + randomText(random, 40 + random.nextInt(80)), 4, y);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void drawVideo(BufferedImage image, int index) {
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Random random = new Random(index);
+        int width = image.getWidth();
+        for (int i = 0; i < pixels.length; i++) {
+            int x = i % width;
+            int y = i / width;
+            int r = (x + index * 3) & 0xFF;
+            int gr = (y + index * 2) & 0xFF;
+            int b = ((x ^ y) + index) & 0xFF;
+            int noise = random.nextInt(24);
+            pixels[i] = (Math.min(255, r + noise) << 16) | (Math.min(255, gr + noise) << 8) | Math.min(255, b + noise);
+        }
+    }
+
+    private static void drawDesktop(BufferedImage image, int index) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(0, 90, 140));
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setColor(new Color(40, 40, 40));
+            g.fillRect(0, image.getHeight() - 40, image.getWidth(), 40);
+            for (int i = 0; i < 8; i++) {
+                g.setColor(new Color(200, 200, 60 + i * 20));
+                g.fillRoundRect(20, 20 + i * 80, 48, 48, 8, 8);
+            }
+            // Seule l'horloge change d'une image à l'autre.
+            g.setColor(Color.WHITE);
+            g.drawString(String.format("12:%02d:%02d", index / 60 % 60, index % 60), image.getWidth() - 80, image.getHeight() - 15);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+}
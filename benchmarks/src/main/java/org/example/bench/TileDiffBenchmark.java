@@ -0,0 +1,71 @@
+package org.example.bench;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.example.FrameCodecs;
+import org.example.FrameDelta;
+import org.example.ParallelTileCodec;
+import org.example.TileDiffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark du chemin de capture par tuiles : comparaison avec l'image précédente et encodage des tuiles modifiées,
+ * sur une séquence d'images synthétiques, avec un ou plusieurs threads d'encodage.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TileDiffBenchmark {
+    private static final int SEQUENCE_LENGTH = 16; // Nombre d'images de la séquence rejouée.
+
+    @Param({"TEXT", "VIDEO", "STATIC"})
+    public SyntheticFrames.Content content;
+
+    @Param({"rle", "jpeg"})
+    public String codecName;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private BufferedImage[] frames;
+    private ParallelTileCodec tileCodec;
+    private TileDiffer differ;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        frames = new BufferedImage[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            frames[i] = SyntheticFrames.frame(content, 1920, 1080, i);
+        }
+        tileCodec = new ParallelTileCodec(threads);
+        differ = new TileDiffer(FrameCodecs.create(codecName), TileDiffer.DEFAULT_TILE_SIZE, tileCodec);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tileCodec.close();
+    }
+
+    @Benchmark
+    public FrameDelta diffAndEncode() throws IOException {
+        BufferedImage frame = frames[next];
+        next = (next + 1) % SEQUENCE_LENGTH;
+        return differ.diff(frame, differ.getFrameId());
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+/**
+ * Classe AdaptiveController qui ajuste la qualité d'encodage, l'échelle de capture et la fréquence d'images
+ * à partir des mesures de chaque image : temps de livraison, octets envoyés et temps de décodage du client.
+ * Le niveau descend dès que le client ne suit plus la cadence, et remonte après une période de marge soutenue.
+ * La fréquence de chaque niveau est une fraction de celle demandée par le client (au plus MAX_FPS) : les deux
+ * meilleurs niveaux la suivent entièrement, y compris au-delà de 30 images par seconde.
+ */
+public class AdaptiveController {
+    public static final int MAX_FPS = 120; // Fréquence maximale acceptée, quelle que soit la demande du client.
+
+    // Niveaux disponibles, du meilleur au plus économe : qualité, échelle, part de la fréquence demandée.
+    private static final float[] QUALITY = {0.90f, 0.75f, 0.60f, 0.50f, 0.40f, 0.30f};
+    private static final double[] SCALE = {1.0, 1.0, 1.0, 0.75, 0.5, 0.5};
+    private static final double[] FPS_RATIO = {1.0, 1.0, 2.0 / 3, 0.5, 1.0 / 3, 1.0 / 6}; // 30 : 30, 30, 20, 15, 10, 5.
+
+    private static final double SMOOTHING = 0.2; // Poids d'une nouvelle mesure dans les moyennes lissées.
+    private static final double OVERLOAD_RATIO = 1.2; // Surcharge si livraison + décodage > 120 % de la période.
+    private static final double HEADROOM_RATIO = 0.5; // Marge si livraison + décodage < 50 % de la période.
+    private static final int FRAMES_BEFORE_UPGRADE = 60; // Images avec marge avant de remonter d'un niveau.
+    private static final int FRAMES_BEFORE_DOWNGRADE = 5; // Images minimum entre deux baisses de niveau.
+
+    private final int maxFps; // Fréquence demandée par le client, bornée à MAX_FPS.
+    private int level; // Niveau courant.
+    private double roundTripNanos; // Temps de livraison lissé, hors décodage client.
+    private double decodeNanos; // Temps de décodage lissé côté client.
+    private double frameBytes; // Taille lissée d'une image.
+    private double bandwidthBps; // Débit lissé en octets par seconde.
+    private int framesSinceChange; // Images reçues depuis le dernier changement de niveau.
+    private int headroomFrames; // Images consécutives avec marge.
+    private String reason = "initial level"; // Raison du dernier changement.
+    private long changedAtMillis = System.currentTimeMillis();
+
+    public AdaptiveController(int maxFps) {
+        this.maxFps = Math.max(1, Math.min(MAX_FPS, maxFps));
+    }
+
+    // Enregistre les mesures d'une image livrée et ajuste le niveau si nécessaire.
+    public synchronized void onFrameDelivered(long sendNanos, long clientDecodeNanos, long bytes) {
+        long transferNanos = Math.max(0, sendNanos - clientDecodeNanos);
+        roundTripNanos = smooth(roundTripNanos, transferNanos);
+        decodeNanos = smooth(decodeNanos, clientDecodeNanos);
+        frameBytes = smooth(frameBytes, bytes);
+        if (transferNanos > 0) {
+            bandwidthBps = smooth(bandwidthBps, bytes * 1e9 / transferNanos);
+        }
+        framesSinceChange++;
+
+        double budget = 1e9 / getTargetFps();
+        double cost = roundTripNanos + decodeNanos;
+        if (cost > budget * OVERLOAD_RATIO && level < QUALITY.length - 1 && framesSinceChange >= FRAMES_BEFORE_DOWNGRADE) {
+            String cause = decodeNanos > roundTripNanos ? "client decode" : "network";
+            changeLevel(level + 1, String.format("%s too slow: %.1f ms per frame > %.1f ms budget",
+                    cause, cost / 1e6, budget / 1e6));
+        } else if (cost < budget * HEADROOM_RATIO) {
+            if (++headroomFrames >= FRAMES_BEFORE_UPGRADE && level > 0) {
+                changeLevel(level - 1, String.format("headroom: %.1f ms per frame < %.1f ms budget",
+                        cost / 1e6, budget / 1e6));
+            }
+        } else {
+            headroomFrames = 0;
+        }
+    }
+
+    // Enregistre une image abandonnée faute de capacité en aval.
+    public synchronized void onFrameDropped() {
+        headroomFrames = 0;
+    }
+
+    public synchronized int getLevel() {
+        return level;
+    }
+
+    public synchronized float getQuality() {
+        return QUALITY[level];
+    }
+
+    public synchronized double getScale() {
+        return SCALE[level];
+    }
+
+    public synchronized int getTargetFps() {
+        return Math.max(1, (int) Math.round(maxFps * FPS_RATIO[level]));
+    }
+
+    // Retourne un instantané sérialisable de l'état du contrôleur.
+    public synchronized ControllerState snapshot() {
+        return new ControllerState(level, getQuality(), getScale(), getTargetFps(), roundTripNanos / 1e6,
+                decodeNanos / 1e6, bandwidthBps * 8 / 1000, frameBytes, reason, changedAtMillis);
+    }
+
+    private void changeLevel(int newLevel, String why) {
+        level = newLevel;
+        reason = why;
+        changedAtMillis = System.currentTimeMillis();
+        framesSinceChange = 0;
+        headroomFrames = 0;
+    }
+
+    private static double smooth(double average, double sample) {
+        return average == 0 ? sample : average + SMOOTHING * (sample - average);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * Classe ByteArrayImageInputStream : flux d'entrée ImageIO qui lit directement un tableau d'octets.
+ * Contrairement à MemoryCacheImageInputStream, les données ne sont pas recopiées dans des blocs de cache,
+ * et le même flux est réutilisé pour chaque tuile avec setData.
+ */
+public class ByteArrayImageInputStream extends ImageInputStreamImpl {
+    private byte[] data = new byte[0]; // Données de la tuile courante.
+
+    // Place le flux au début de nouvelles données.
+    public void setData(byte[] data) {
+        this.data = data;
+        streamPos = 0;
+        flushedPos = 0;
+        bitOffset = 0;
+    }
+
+    @Override
+    public int read() {
+        bitOffset = 0;
+        if (streamPos >= data.length) {
+            return -1;
+        }
+        return data[(int) streamPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        int available = data.length - (int) streamPos;
+        if (available <= 0) {
+            return -1;
+        }
+        int count = Math.min(len, available);
+        System.arraycopy(data, (int) streamPos, b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return data.length;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import javax.imageio.stream.ImageOutputStreamImpl;
+
+/**
+ * Classe ByteBufferImageOutputStream : flux de sortie ImageIO qui écrit dans un ByteBuffer direct du FrameBufferPool.
+ * Contrairement à MemoryCacheImageOutputStream, il n'alloue pas de blocs de cache à chaque image :
+ * le même flux est réutilisé avec reset, et le tampon ne grandit que lorsqu'une image plus grande arrive.
+ */
+public class ByteBufferImageOutputStream extends ImageOutputStreamImpl {
+    private final FrameBufferPool pool; // Pool d'où viennent les tampons.
+    private ByteBuffer buffer; // Tampon courant, pris dans le pool.
+    private int length; // Nombre d'octets écrits (position maximale atteinte).
+
+    public ByteBufferImageOutputStream(FrameBufferPool pool, int initialCapacity) {
+        this.pool = pool;
+        this.buffer = pool.acquireBuffer(initialCapacity);
+    }
+
+    // Vide le flux pour une nouvelle image, en conservant le tampon.
+    public void reset() {
+        streamPos = 0;
+        flushedPos = 0;
+        bitOffset = 0;
+        length = 0;
+    }
+
+    // Copie les octets écrits dans un tableau à la taille exacte.
+    public byte[] toByteArray() {
+        byte[] data = new byte[length];
+        buffer.get(0, data, 0, length);
+        return data;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        flushBits();
+        ensureCapacity(streamPos + 1);
+        buffer.put((int) streamPos++, (byte) b);
+        length = Math.max(length, (int) streamPos);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        flushBits();
+        ensureCapacity(streamPos + len);
+        buffer.put((int) streamPos, b, off, len);
+        streamPos += len;
+        length = Math.max(length, (int) streamPos);
+    }
+
+    @Override
+    public int read() {
+        bitOffset = 0;
+        if (streamPos >= length) {
+            return -1;
+        }
+        return buffer.get((int) streamPos++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        int available = length - (int) streamPos;
+        if (available <= 0) {
+            return -1;
+        }
+        int count = Math.min(len, available);
+        buffer.get((int) streamPos, b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        pool.release(buffer);
+        buffer = null;
+    }
+
+    // Remplace le tampon par un tampon plus grand du pool, en recopiant les octets déjà écrits.
+    private void ensureCapacity(long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Encoded image too large: " + required);
+        }
+        ByteBuffer larger = pool.acquireBuffer((int) Math.max(required, (long) buffer.capacity() * 2));
+        larger.put(0, buffer, 0, length);
+        pool.release(buffer);
+        buffer = larger;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Interface CaptureSource : origine des images diffusées par le serveur.
+ * RobotCaptureSource lit l'écran réel ; SyntheticCaptureSource génère un contenu scripté sans écran,
+ * pour les machines de test et les mesures de capacité (LoadGenerator). Voir CaptureSources pour le choix.
+ */
+public interface CaptureSource {
+
+    // Capture la zone donnée, en coordonnées de l'écran ; retourne une nouvelle image que l'appelant peut garder.
+    BufferedImage capture(Rectangle bounds);
+
+    // Lit la géométrie courante de l'écran, avec le numéro de version donné.
+    ScreenGeometry detectGeometry(long version);
+}
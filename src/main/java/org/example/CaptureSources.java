@@ -0,0 +1,36 @@
+package org.example;
+
+import java.awt.AWTException;
+
+/**
+ * Classe CaptureSources : choix de la source d'images du serveur avec -Drdp.capture.
+ * "robot" (par défaut) capture l'écran réel ; "synthetic" ou "synthetic:script" génère un contenu scripté
+ * (voir SyntheticCaptureSource pour le format du script, -Drdp.capture.size pour la taille
+ * et -Drdp.capture.monitors pour le nombre d'écrans simulés).
+ */
+public final class CaptureSources {
+    public static final String ROBOT = "robot";
+    public static final String SYNTHETIC = "synthetic";
+
+    private CaptureSources() {
+    }
+
+    // Source configurée par -Drdp.capture.
+    public static CaptureSource configured() throws AWTException {
+        return create(System.getProperty("rdp.capture", ROBOT));
+    }
+
+    // Crée la source décrite par spec ("robot", "synthetic" ou "synthetic:terminal:10,scroll:10,video:10").
+    public static CaptureSource create(String spec) throws AWTException {
+        if (spec.equals(ROBOT)) {
+            return new RobotCaptureSource();
+        }
+        if (spec.equals(SYNTHETIC) || spec.startsWith(SYNTHETIC + ":")) {
+            String script = spec.length() > SYNTHETIC.length() ? spec.substring(SYNTHETIC.length() + 1) : SyntheticCaptureSource.DEFAULT_SCRIPT;
+            String[] size = System.getProperty("rdp.capture.size", "1920x1080").split("x");
+            return new SyntheticCaptureSource(Integer.parseInt(size[0]), Integer.parseInt(size[1]), script,
+                    Integer.getInteger("rdp.capture.monitors", 1));
+        }
+        throw new IllegalArgumentException("Unknown capture source: " + spec);
+    }
+}
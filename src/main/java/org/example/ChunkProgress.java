@@ -0,0 +1,58 @@
+package org.example;
+
+import java.util.BitSet;
+
+/**
+ * Classe ChunkProgress qui suit les morceaux reçus d'un fichier, dans n'importe quel ordre,
+ * et calcule la position confirmée : fin de la plus longue suite de morceaux reçus depuis le début.
+ */
+public class ChunkProgress {
+    private final long fileSize; // Taille du fichier.
+    private final int chunkSize; // Taille d'un morceau.
+    private final int chunkCount; // Nombre de morceaux du fichier.
+    private final BitSet done; // Morceaux reçus.
+
+    public ChunkProgress(long fileSize, int chunkSize) {
+        long count = (fileSize + chunkSize - 1) / chunkSize;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("File too large for chunk size " + chunkSize);
+        }
+        this.fileSize = fileSize;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) count;
+        this.done = new BitSet(chunkCount);
+    }
+
+    // Taille attendue du morceau commençant à offset ; lève une exception si offset n'est pas un début de morceau.
+    public int expectedLength(long offset) {
+        if (offset < 0 || offset >= fileSize || offset % chunkSize != 0) {
+            throw new IllegalArgumentException("Invalid chunk offset " + offset);
+        }
+        return (int) Math.min(chunkSize, fileSize - offset);
+    }
+
+    public synchronized void markDone(long offset) {
+        done.set((int) (offset / chunkSize));
+    }
+
+    public synchronized boolean isDone(long offset) {
+        return done.get((int) (offset / chunkSize));
+    }
+
+    // Position jusqu'à laquelle tous les morceaux ont été reçus.
+    public synchronized long confirmedOffset() {
+        return Math.min(fileSize, (long) done.nextClearBit(0) * chunkSize);
+    }
+
+    public synchronized boolean isComplete() {
+        return done.nextClearBit(0) >= chunkCount;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
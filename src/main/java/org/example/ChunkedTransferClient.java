@@ -0,0 +1,199 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.rmi.RemoteException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Classe ChunkedTransferClient qui envoie et reçoit des fichiers par morceaux côté client.
+ * Plusieurs morceaux sont en vol en même temps ; chaque morceau porte une somme de contrôle.
+ * Après une erreur réseau, le transfert reprend à la dernière position confirmée. Un téléchargement interrompu
+ * reprend à partir du fichier partiel déjà présent, arrondi au début d'un morceau.
+ */
+public class ChunkedTransferClient {
+    private static final int MAX_ATTEMPTS = 5; // Nombre de tentatives avant d'abandonner un transfert.
+    private static final long RETRY_DELAY_MILLIS = 1000; // Délai initial entre deux tentatives (doublé à chaque fois).
+    private static final int CHECKSUM_BUFFER_BYTES = 64 * 1024; // Tampon de lecture pour la somme de contrôle du fichier.
+
+    private final SharingInterface server; // Serveur distant.
+    private final int chunksInFlight; // Nombre maximal de morceaux en vol.
+
+    public ChunkedTransferClient(SharingInterface server, int chunksInFlight) {
+        this.server = server;
+        this.chunksInFlight = Math.max(1, chunksInFlight);
+    }
+
+    // Envoie un fichier local au serveur.
+    public void upload(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long checksum = checksum(channel);
+            for (int attempt = 1; ; attempt++) {
+                // Reprend un envoi inachevé du même contenu le cas échéant.
+                TransferInfo info = server.beginUpload(fileName, size, checksum);
+                try {
+                    ChunkProgress progress = new ChunkProgress(size, info.getChunkSize());
+                    transferChunks(progress, info.getConfirmedOffset(), offset -> {
+                        byte[] data = new byte[progress.expectedLength(offset)];
+                        readFully(channel, ByteBuffer.wrap(data), offset);
+                        server.uploadChunk(info.getTransferId(), new FileChunk(offset, data));
+                    });
+                    server.finishUpload(info.getTransferId());
+                    return;
+                } catch (RemoteException e) {
+                    retryOrThrow(attempt, e);
+                }
+            }
+        }
+    }
+
+    // Reçoit un fichier du serveur dans target ; le contenu est écrit dans un fichier partiel puis renommé.
+    // Les morceaux complets d'un fichier partiel laissé par un téléchargement interrompu ne sont pas redemandés.
+    public void download(TransferInfo info, Path target) throws IOException {
+        Path partFile = target.resolveSibling(target.getFileName() + ".part");
+        ChunkProgress progress = new ChunkProgress(info.getFileSize(), info.getChunkSize());
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long resumed = Math.min(channel.size(), info.getFileSize());
+            resumed -= resumed % info.getChunkSize(); // Le dernier morceau écrit peut être incomplet.
+            for (long offset = 0; offset < resumed; offset += info.getChunkSize()) {
+                progress.markDone(offset);
+            }
+            channel.truncate(info.getFileSize()); // Un fichier partiel plus long ne laisse pas d'octets en trop.
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    transferChunks(progress, progress.confirmedOffset(), offset -> {
+                        FileChunk chunk = server.downloadChunk(info.getTransferId(), offset);
+                        if (!chunk.isValid() || chunk.getData().length != progress.expectedLength(offset)) {
+                            throw new RemoteException("Corrupt chunk received at offset " + offset);
+                        }
+                        ByteBuffer buffer = ByteBuffer.wrap(chunk.getData());
+                        long position = offset;
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                    });
+                    channel.force(false);
+                    break;
+                } catch (RemoteException e) {
+                    retryOrThrow(attempt, e);
+                }
+            }
+        } finally {
+            try {
+                server.closeTransfer(info.getTransferId());
+            } catch (RemoteException e) {
+                System.err.println("Failed to close transfer " + info.getTransferId() + ": " + e.getMessage());
+            }
+        }
+        Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Action appliquée à un morceau.
+    @FunctionalInterface
+    private interface ChunkAction {
+        void apply(long offset) throws IOException;
+    }
+
+    // Transfère tous les morceaux non encore reçus à partir de start, avec au plus chunksInFlight morceaux en vol.
+    private void transferChunks(ChunkProgress progress, long start, ChunkAction action) throws IOException {
+        long size = progress.getFileSize();
+        int chunkSize = progress.getChunkSize();
+        ExecutorService pool = Executors.newFixedThreadPool(chunksInFlight, r -> Threads.newThread("file-transfer", r));
+        try {
+            CompletionService<Long> completion = new ExecutorCompletionService<>(pool);
+            long next = start;
+            int running = 0;
+            while (next < size || running > 0) {
+                while (running < chunksInFlight && next < size) {
+                    long offset = next;
+                    next += chunkSize;
+                    if (progress.isDone(offset)) {
+                        continue;
+                    }
+                    completion.submit(() -> {
+                        action.apply(offset);
+                        return offset;
+                    });
+                    running++;
+                }
+                if (running == 0) {
+                    break;
+                }
+                progress.markDone(completion.take().get());
+                running--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("File transfer interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("File transfer failed", e.getCause());
+        } finally {
+            // Pas d'interruption : interrompre une lecture ou écriture FileChannel fermerait le fichier.
+            pool.shutdown();
+            awaitQuietly(pool);
+        }
+    }
+
+    // Attend la fin des morceaux encore en vol après une erreur.
+    private static void awaitQuietly(ExecutorService pool) {
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Somme de contrôle CRC32C du fichier entier, envoyée au serveur pour reconnaître un envoi à reprendre.
+    private static long checksum(FileChannel channel) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_BYTES);
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer, position)) >= 0) {
+            position += read;
+            buffer.flip();
+            crc.update(buffer);
+            buffer.clear();
+        }
+        return crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private static void retryOrThrow(int attempt, RemoteException e) throws IOException {
+        if (attempt >= MAX_ATTEMPTS) {
+            throw e;
+        }
+        System.err.println("File transfer interrupted (attempt " + attempt + "), resuming: " + e.getMessage());
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS << (attempt - 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("File transfer interrupted", ie);
+        }
+    }
+}
@@ -2,11 +2,17 @@ package org.example;
 
 
 import javax.swing.*;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.geom.AffineTransform;
 import java.awt.image.*;
 import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.rmi.*;
 import java.rmi.registry.*;
 import javax.imageio.ImageIO;
@@ -18,24 +24,75 @@ import javax.imageio.ImageIO;
  */
 
 public class Client extends JFrame implements MouseListener, KeyListener, MouseMotionListener, Serializable {
+    // Mode de réception : diffusion poussée par le serveur, ou polling avec -Drdp.poll=true.
+    private static final boolean POLLING = Boolean.getBoolean("rdp.poll");
+    // Fréquence cible demandée au serveur en mode diffusion.
+    private static final int TARGET_FPS = Integer.getInteger("rdp.fps", 30);
+    // Délai sans redimensionnement avant de déclarer la zone d'affichage au serveur.
+    private static final int VIEWPORT_DELAY_MILLIS = 250;
+    // Codec préféré proposé au serveur (rle, jpeg ou png) ; les autres codecs connus suivent.
+    private static final String PREFERRED_CODEC = System.getProperty("rdp.codec", FrameCodecs.RLE);
+    // Nombre de morceaux de fichier en vol pendant un transfert.
+    private static final int CHUNKS_IN_FLIGHT = Integer.getInteger("rdp.transfer.inflight", 4);
+    // Adresse du serveur (registre RMI et transport par socket).
+    private static final String SERVER_HOST = System.getProperty("rdp.host", "100.70.34.172");
+    // Partie de l'écran du serveur à recevoir à l'ouverture (voir RegionOfInterest.parse), écran entier par défaut.
+    private static final String INITIAL_REGION = System.getProperty("rdp.region");
+
     private SharingInterface server; // Interface de communication avec le serveur.
-    private JPanel panel; // Panel pour afficher les captures d'écran.
+    private ScreenPanel panel; // Panel pour afficher les captures d'écran, redimensionnées une fois par image.
     private JMenuBar menuBar; // Barre de menu pour les options de fichier.
     private BufferedImage currentScreenshot; // Image courante de la capture d'écran reçue.
+    private long lastFrameId; // Identifiant de la dernière image appliquée, renvoyé au serveur comme acquittement.
+    private transient FrameReceiver frameReceiver; // Objet distant qui reçoit les images en mode diffusion.
+    private transient InputBatcher inputBatcher; // Envoie les événements d'entrée par lots, hors de l'EDT.
+    private final transient Transport transport; // Transport des images et des entrées.
+    private transient SocketTransportClient socketClient; // Connexion du transport par socket, null en RMI.
+    private transient SessionScope scope; // Tâches de la session (réception, entrées, transferts), fermées avec elle.
+    private String sessionId; // Identifiant de la session ouverte sur le serveur.
+    private volatile ScreenGeometry serverGeometry; // Géométrie de l'écran du serveur, en cache jusqu'à invalidation.
+    private final transient DeltaDecoder decoder = new DeltaDecoder(new ParallelTileCodec(ParallelTileCodec.configuredThreads())); // Copies, décodage parallèle des tuiles et cache de tuiles.
+    private final transient Map<Integer, CursorShape> cursorShapes = new ConcurrentHashMap<>(); // Formes de curseur reçues, par identifiant.
+    private final transient Map<Integer, BufferedImage> cursorImages = new ConcurrentHashMap<>(); // Images des formes.
+    private volatile double frameScaleX = 1.0; // Taille des images reçues rapportée à l'écran du serveur.
+    private volatile double frameScaleY = 1.0;
+    private volatile Rectangle frameRegion; // Zone de l'écran du serveur représentée par l'image courante (null : écran entier).
+    private transient Timer viewportTimer; // Regroupe les redimensionnements avant de les déclarer au serveur.
+    private final transient FrameBufferPool framePool = FrameBufferPool.shared(); // Images de décodage réutilisées.
 
-    // Constructeur du client.
+    // Constructeur du client, avec le transport RMI.
     public Client() {
+        this(Transport.RMI);
+    }
+
+    // Constructeur du client avec le transport des images et des entrées.
+    public Client(Transport transport) {
         super("Received Screenshot");
+        this.transport = transport;
         // Demande à l'utilisateur d'entrer l'ID du serveur.
         String serverId = JOptionPane.showInputDialog(null, "Enter Sender ID:", "Sender ID Input", JOptionPane.PLAIN_MESSAGE);
         if (serverId != null && !serverId.trim().isEmpty()) {
             try {
                 // Connexion au registre RMI.
                 // Obtient une référence au registre RMI en utilisant l'adresse IP et le port spécifiés.
-                Registry registry = LocateRegistry.getRegistry("100.70.34.172", 1099); // Remplacer par l'adresse IP réelle du serveur.
+                Registry registry = LocateRegistry.getRegistry(SERVER_HOST, 1099); // Adresse réglable avec -Drdp.host.
                 // Recherche et récupère l'objet distant "Server" dans le registre RMI.
                 server = (SharingInterface) registry.lookup("Server");
-                server.registerClient(serverId);
+                List<String> codecs = new ArrayList<>();
+                codecs.add(PREFERRED_CODEC);
+                codecs.addAll(FrameCodecs.SUPPORTED);
+                SessionInfo session = server.registerClient(serverId, codecs);
+                sessionId = session.getSessionId();
+                serverGeometry = session.getGeometry();
+                scope = new SessionScope("client-" + sessionId);
+                // Le serveur n'accepte les entrées sur la socket qu'après HELLO, envoyé au démarrage de la diffusion.
+                if (transport == Transport.SOCKET && !POLLING) {
+                    openSocketTransport();
+                }
+                inputBatcher = new InputBatcher(socketClient != null ? socketClient : server::receiveInputBatch, scope);
+                if (INITIAL_REGION != null) {
+                    server.setRegionOfInterest(sessionId, RegionOfInterest.parse(INITIAL_REGION));
+                }
             } catch (NotBoundException | RemoteException e) {
                 JOptionPane.showMessageDialog(this, "Could not connect to server. Please check the server IP and try again.", "Connection Error", JOptionPane.ERROR_MESSAGE);
                 e.printStackTrace();
@@ -43,17 +100,7 @@ public class Client extends JFrame implements MouseListener, KeyListener, MouseM
             }
 
             // Initialisation du panneau pour afficher les captures d'écran.
-            panel = new JPanel() {
-                @Override
-                protected void paintComponent(Graphics g) {
-                    super.paintComponent(g);
-                    if (currentScreenshot != null) {
-                        // Redimensionne l'image à la taille du panneau.
-                        Image scaledImage = currentScreenshot.getScaledInstance(getWidth(), getHeight(), Image.SCALE_SMOOTH);
-                        g.drawImage(scaledImage, 0, 0, null);
-                    }
-                }
-            };
+            panel = new ScreenPanel();
 
             setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
             getContentPane().add(panel);
@@ -74,6 +121,23 @@ public class Client extends JFrame implements MouseListener, KeyListener, MouseM
             fileMenu.add(sendFileItem);
             fileMenu.add(receiveFileItem);
             menuBar.add(fileMenu);
+            // Menu de la partie de l'écran à recevoir ; la liste des écrans est relue à chaque ouverture.
+            JMenu viewMenu = new JMenu("View");
+            viewMenu.addMenuListener(new MenuListener() {
+                @Override
+                public void menuSelected(MenuEvent e) {
+                    buildViewMenu(viewMenu);
+                }
+
+                @Override
+                public void menuDeselected(MenuEvent e) {
+                }
+
+                @Override
+                public void menuCanceled(MenuEvent e) {
+                }
+            });
+            menuBar.add(viewMenu);
             setJMenuBar(menuBar);
 
             // Configuration pour le plein écran.
@@ -93,67 +157,363 @@ public class Client extends JFrame implements MouseListener, KeyListener, MouseM
             panel.addKeyListener(this);
             panel.setFocusable(true);
 
-            // Thread pour recevoir en continu les captures d'écran du serveur.
-            new Thread(() -> {
-                while (true) {
-                    try {
-                        byte[] screenshotData = server.captureScreenshot();
-                        if (screenshotData != null) {
-                            currentScreenshot = receiveScreenshot(screenshotData);
-                            panel.repaint();
+            // La zone d'affichage est déclarée au serveur une fois le redimensionnement terminé.
+            viewportTimer = new Timer(VIEWPORT_DELAY_MILLIS,
+                    e -> Threads.start("client-viewport", this::declareViewport));
+            viewportTimer.setRepeats(false);
+            panel.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    viewportTimer.restart();
+                }
+            });
+            declareViewport();
+
+            if (POLLING) {
+                startPolling();
+            } else {
+                startStreaming();
+            }
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    // Les appels distants de fermeture ne sont pas faits sur l'EDT.
+                    Threads.start("client-close", Client.this::closeSession);
+                }
+            });
+        } else {
+            JOptionPane.showMessageDialog(this, "Sender ID cannot be empty. Exiting...", "Input Error", JOptionPane.WARNING_MESSAGE);
+            System.exit(0);
+        }
+    }
+
+    // Ouvre la connexion du transport par socket ; reste en RMI si le serveur ne la propose pas.
+    private void openSocketTransport() throws RemoteException {
+        int port = server.getStreamPort();
+        if (port < 0) {
+            System.err.println("Socket transport not enabled on the server, using RMI");
+            return;
+        }
+        try {
+            socketClient = new SocketTransportClient(SERVER_HOST, port, server, this::applyDelta,
+                    geometry -> serverGeometry = geometry, this::showCursor);
+            socketClient.start(scope);
+        } catch (IOException e) {
+            System.err.println("Socket transport unavailable, using RMI: " + e.getMessage());
+            socketClient = null;
+        }
+    }
+
+    // Démarre la réception en mode diffusion : le serveur pousse les images vers un objet distant du client,
+    // ou sur la connexion du transport par socket.
+    private void startStreaming() {
+        if (socketClient != null) {
+            try {
+                socketClient.startStreaming(sessionId, TARGET_FPS);
+                return;
+            } catch (IOException e) {
+                System.err.println("Socket streaming failed, using RMI: " + e.getMessage());
+            }
+        }
+        try {
+            frameReceiver = new FrameReceiver(this::applyDelta, geometry -> serverGeometry = geometry, this::showCursor);
+            server.startStreaming(sessionId, frameReceiver, TARGET_FPS);
+        } catch (RemoteException e) {
+            System.err.println("Streaming unavailable, falling back to polling: " + e.getMessage());
+            startPolling();
+        }
+    }
+
+    // Arrête la diffusion et retire l'objet distant du client.
+    private void stopStreaming() {
+        if (socketClient != null) {
+            try {
+                socketClient.stopStreaming();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (frameReceiver == null) {
+            return;
+        }
+        try {
+            server.stopStreaming(sessionId);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+        frameReceiver.close();
+        frameReceiver = null;
+    }
+
+    // Ferme la session : arrête la diffusion, se désinscrit du serveur, puis arrête toutes les tâches de la session.
+    private void closeSession() {
+        stopStreaming();
+        inputBatcher.close();
+        if (socketClient != null) {
+            socketClient.close();
+        }
+        try {
+            server.unregisterClient(sessionId);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+        scope.close();
+        decoder.close();
+    }
+
+    // Tâche qui reçoit en continu les captures d'écran du serveur (mode polling, conservé pour compatibilité).
+    private void startPolling() {
+        startCursorPolling();
+        scope.fork("frame-poll", () -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    FrameDelta delta = server.captureScreenshotDelta(sessionId, lastFrameId);
+                    if (delta != null) {
+                        // En mode polling, le serveur ne peut pas pousser l'invalidation : la version est comparée à chaque image.
+                        if (delta.getGeometryVersion() != serverGeometry.getVersion()) {
+                            serverGeometry = server.getScreenGeometry();
                         }
-                    } catch (RemoteException e) {
+                        applyDelta(delta);
+                    }
+                } catch (RemoteException e) {
+                    if (!scope.isClosed()) {
+                        e.printStackTrace();
+                    }
+                } catch (UncheckedIOException e) {
+                    // Image illisible (tuile corrompue, référence absente du cache) : la prochaine demande
+                    // acquitte l'image 0 et reçoit une image clé, avec un cache de tuiles réinitialisé.
+                    System.err.println(e.getMessage());
+                    lastFrameId = 0;
+                }
+            }
+        });
+    }
+
+    // Tâche qui attend les déplacements du curseur en mode polling, indépendamment des images.
+    private void startCursorPolling() {
+        scope.fork("cursor-poll", () -> {
+            long position = CursorPosition.NONE;
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    long next = server.pollCursor(sessionId, position, 1000);
+                    if (next != position) {
+                        position = next;
+                        showCursor(position);
+                    }
+                } catch (RemoteException e) {
+                    if (!scope.isClosed()) {
                         e.printStackTrace();
                     }
+                    return;
                 }
-            }).start();
+            }
+        });
+    }
+
+    // Déclare au serveur la taille du panneau en pixels physiques : les images n'ont pas besoin d'être plus grandes.
+    private void declareViewport() {
+        Dimension size = panelPixels();
+        if (size.width <= 0 || size.height <= 0) {
+            return;
+        }
+        try {
+            server.setViewport(sessionId, size.width, size.height);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Taille du panneau en pixels physiques.
+    private Dimension panelPixels() {
+        double deviceScale = 1.0;
+        GraphicsConfiguration gc = panel.getGraphicsConfiguration();
+        if (gc != null) {
+            deviceScale = gc.getDefaultTransform().getScaleX();
+        }
+        return new Dimension((int) Math.ceil(panel.getWidth() * deviceScale), (int) Math.ceil(panel.getHeight() * deviceScale));
+    }
+
+    // Remplit le menu View : écran entier, tout le bureau, chaque écran du serveur, zone qui suit le curseur,
+    // rectangle saisi. Une zone plus petite que l'écran est affichée agrandie, jusqu'à la taille du panneau.
+    private void buildViewMenu(JMenu viewMenu) {
+        viewMenu.removeAll();
+        JMenuItem screenItem = new JMenuItem("Whole Screen");
+        screenItem.addActionListener(e -> selectRegion(null));
+        viewMenu.add(screenItem);
+        ScreenGeometry geometry = serverGeometry;
+        if (geometry.getMonitors().size() > 1) {
+            JMenuItem desktopItem = new JMenuItem("All Monitors");
+            desktopItem.addActionListener(e -> selectRegion(RegionOfInterest.DESKTOP));
+            viewMenu.add(desktopItem);
+            for (MonitorInfo monitor : geometry.getMonitors()) {
+                JMenuItem monitorItem = new JMenuItem("Monitor " + monitor.getId() + " (" + monitor.getWidth() + "x" + monitor.getHeight() + ")");
+                monitorItem.addActionListener(e -> selectRegion(RegionOfInterest.monitor(monitor.getId())));
+                viewMenu.add(monitorItem);
+            }
+        }
+        viewMenu.addSeparator();
+        // La zone suivie a la taille du panneau : elle est affichée pixel pour pixel.
+        JMenuItem followItem = new JMenuItem("Follow Cursor");
+        followItem.addActionListener(e -> {
+            Dimension size = panelPixels();
+            selectRegion(RegionOfInterest.followCursor(Math.max(1, size.width), Math.max(1, size.height)));
+        });
+        viewMenu.add(followItem);
+        JMenuItem regionItem = new JMenuItem("Region...");
+        regionItem.addActionListener(e -> {
+            String spec = JOptionPane.showInputDialog(this, "Region (x,y,width,height):", "View Region", JOptionPane.PLAIN_MESSAGE);
+            if (spec == null || spec.trim().isEmpty()) {
+                return;
+            }
+            try {
+                selectRegion(RegionOfInterest.parse(spec.trim()));
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid region: " + spec, "View Region", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        viewMenu.add(regionItem);
+    }
+
+    // Demande au serveur une autre partie de l'écran ; l'appel distant n'est pas fait sur l'EDT.
+    private void selectRegion(RegionOfInterest region) {
+        Threads.start("client-region", () -> {
+            try {
+                server.setRegionOfInterest(sessionId, region);
+            } catch (RemoteException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    // Zone de l'écran du serveur représentée par l'image courante.
+    private Rectangle currentRegion() {
+        Rectangle region = frameRegion;
+        if (region != null) {
+            return region;
+        }
+        ScreenGeometry geometry = serverGeometry;
+        return new Rectangle(0, 0, geometry.getWidth(), geometry.getHeight());
+    }
+
+    // Affiche le curseur distant ; la forme est demandée au serveur une seule fois par identifiant.
+    private void showCursor(long position) {
+        int shapeId = CursorPosition.shapeId(position);
+        CursorShape shape = shapeId == CursorPosition.HIDDEN ? null : cursorShapes.get(shapeId);
+        if (shape == null && shapeId != CursorPosition.HIDDEN) {
+            try {
+                shape = server.getCursorShape(shapeId);
+            } catch (RemoteException e) {
+                e.printStackTrace();
+            }
+            if (shape != null) {
+                cursorShapes.put(shapeId, shape);
+                cursorImages.put(shapeId, shape.toImage());
+            }
+        }
+        if (shape == null) {
+            panel.setRemoteCursor(null, 0, 0, 0, 0);
         } else {
-            JOptionPane.showMessageDialog(this, "Sender ID cannot be empty. Exiting...", "Input Error", JOptionPane.WARNING_MESSAGE);
-            System.exit(0);
+            // La position est en pixels de l'écran du serveur ; l'image affichée peut ne couvrir qu'une zone, réduite.
+            Rectangle region = currentRegion();
+            panel.setRemoteCursor(cursorImages.get(shapeId), shape.getHotspotX(), shape.getHotspotY(),
+                    (int) ((CursorPosition.x(position) - region.x) * frameScaleX),
+                    (int) ((CursorPosition.y(position) - region.y) * frameScaleY));
         }
     }
 
     // Méthode pour recevoir et traiter une capture d'écran.
+    // L'image est affichée à la résolution du serveur : le redimensionnement est fait une seule fois par ScreenPanel.
     public BufferedImage receiveScreenshot(byte[] imageData) throws RemoteException {
         try (InputStream in = new ByteArrayInputStream(imageData)) {
             BufferedImage screenshot = ImageIO.read(in);
-            Dimension clientScreenSize = Toolkit.getDefaultToolkit().getScreenSize();
-            int clientScreenWidth = clientScreenSize.width;
-            int clientScreenHeight = clientScreenSize.height;
-            int serverScreenWidth = server.getScreenWidth();
-            int serverScreenHeight = server.getScreenHeight();
-            double scaleX = (double) clientScreenWidth / serverScreenWidth;
-            double scaleY = (double) clientScreenHeight / serverScreenHeight;
-            double scale = Math.min(scaleX, scaleY);
-            AffineTransform tx = AffineTransform.getScaleInstance(scale, scale);
-            AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_BILINEAR);
-            BufferedImage scaledImage = op.filter(screenshot, null);
-            return scaledImage;
+            currentScreenshot = screenshot;
+            frameScaleX = 1.0;
+            frameScaleY = 1.0;
+            frameRegion = null;
+            panel.setFrame(screenshot);
+            return screenshot;
         } catch (IOException e) {
             throw new RemoteException("Failed to process received screenshot", e);
         }
     }
 
+    // Méthode pour appliquer les tuiles modifiées directement dans l'image courante.
+    // Une image clé contient toutes les tuiles : elle est décodée sur place, et l'image n'est prise dans le pool
+    // qu'au premier affichage ou lors d'un changement de résolution du serveur.
+    // Seules les tuiles modifiées sont ensuite redessinées dans le panneau.
+    public void applyDelta(FrameDelta delta) {
+        BufferedImage target = currentScreenshot;
+        if (target == null
+                || target.getWidth() != delta.getScreenWidth() || target.getHeight() != delta.getScreenHeight()) {
+            target = framePool.acquireImage(delta.getScreenWidth(), delta.getScreenHeight());
+        }
+        try {
+            // Les régions défilées sont copiées dans l'image du client avant le décodage des tuiles.
+            decoder.apply(delta, target);
+            for (CopyRect copy : delta.getCopies()) {
+                panel.markDirty(copy.getX(), copy.getY(), copy.getWidth(), copy.getHeight());
+            }
+            for (TileUpdate tile : delta.getTiles()) {
+                panel.markDirty(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+            }
+        } catch (IOException e) {
+            // L'image courante est incomplète : on redemande une image clé.
+            lastFrameId = 0;
+            if (target != currentScreenshot) {
+                framePool.release(target);
+            }
+            throw new UncheckedIOException("Failed to decode frame " + delta.getFrameId(), e);
+        }
+        lastFrameId = delta.getFrameId();
+        // L'image représente la zone capturée par le serveur (l'écran entier si elle n'est pas indiquée).
+        ScreenGeometry geometry = serverGeometry;
+        Rectangle region = delta.getRegion() != null ? delta.getRegion() : new Rectangle(0, 0, geometry.getWidth(), geometry.getHeight());
+        frameScaleX = (double) delta.getScreenWidth() / region.width;
+        frameScaleY = (double) delta.getScreenHeight() / region.height;
+        frameRegion = region;
+        if (target != currentScreenshot) {
+            // L'ancienne image n'est rendue au pool qu'après le dessin qui l'utilise peut-être encore.
+            currentScreenshot = target;
+            panel.replaceFrame(target, framePool::release);
+        } else if (delta.isKeyFrame()) {
+            panel.setFrame(target);
+        } else {
+            panel.flushDirty();
+        }
+    }
+
     // Méthode pour envoyer la position de la souris au serveur.
+    // L'événement est seulement mis en file : l'envoi se fait par lots depuis le thread de l'InputBatcher.
     private void sendMousePosition(MouseEvent e, int eventType) {
-        try {
-            Point panelPoint = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), panel);
-            int panelWidth = panel.getWidth();
-            int panelHeight = panel.getHeight();
-            int serverScreenWidth = server.getScreenWidth();
-            int serverScreenHeight = server.getScreenHeight();
-            double xScaleFactor = (double) serverScreenWidth / panelWidth;
-            double yScaleFactor = (double) serverScreenHeight / panelHeight;
-            int scaledX = (int) (panelPoint.x * xScaleFactor);
-            int scaledY = (int) (panelPoint.y * yScaleFactor);
+        Point panelPoint = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), panel);
+        int panelWidth = panel.getWidth();
+        int panelHeight = panel.getHeight();
+        // Panneau -> pixels de l'image affichée -> pixels de l'écran du serveur, avec l'échelle des images reçues
+        // et l'origine de la zone qu'elles représentent.
+        BufferedImage frame = currentScreenshot;
+        Rectangle region = currentRegion();
+        int frameWidth = frame != null ? frame.getWidth() : region.width;
+        int frameHeight = frame != null ? frame.getHeight() : region.height;
+        double xScaleFactor = (double) frameWidth / panelWidth / frameScaleX;
+        double yScaleFactor = (double) frameHeight / panelHeight / frameScaleY;
+        int scaledX = region.x + Math.min(region.width - 1, (int) (panelPoint.x * xScaleFactor));
+        int scaledY = region.y + Math.min(region.height - 1, (int) (panelPoint.y * yScaleFactor));
 
-            server.receiveMousePosition(scaledX, scaledY, e);
-        } catch (RemoteException ex) {
-            ex.printStackTrace();
+        switch (eventType) {
+            case MouseEvent.MOUSE_PRESSED:
+                inputBatcher.mouseButton(InputRecords.MOUSE_PRESS, scaledX, scaledY, e.getButton());
+                break;
+            case MouseEvent.MOUSE_RELEASED:
+                inputBatcher.mouseButton(InputRecords.MOUSE_RELEASE, scaledX, scaledY, e.getButton());
+                break;
+            default:
+                inputBatcher.mouseMoved(scaledX, scaledY);
+                break;
         }
     }
 
     // Implémentations des méthodes de MouseListener.
+    // Le clic est déjà transmis par l'appui et le relâchement : seule la position est envoyée.
     @Override
     public void mouseClicked(MouseEvent e) {
         sendMousePosition(e, MouseEvent.MOUSE_CLICKED);
@@ -193,20 +553,12 @@ public class Client extends JFrame implements MouseListener, KeyListener, MouseM
     // Implémentations des méthodes de KeyListener.
     @Override
     public void keyPressed(KeyEvent e) {
-        try {
-            server.receiveKeyPress(e.getKeyCode(), KeyEvent.KEY_PRESSED);
-        } catch (RemoteException ex) {
-            ex.printStackTrace();
-        }
+        inputBatcher.key(InputRecords.KEY_PRESS, e.getKeyCode());
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        try {
-            server.receiveKeyPress(e.getKeyCode(), KeyEvent.KEY_RELEASED);
-        } catch (RemoteException ex) {
-            ex.printStackTrace();
-        }
+        inputBatcher.key(InputRecords.KEY_RELEASE, e.getKeyCode());
     }
 
     @Override
@@ -220,36 +572,45 @@ public class Client extends JFrame implements MouseListener, KeyListener, MouseM
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
-            try (FileInputStream fis = new FileInputStream(selectedFile)) {
-                byte[] fileData = fis.readAllBytes();
-                server.receiveFile(fileData, selectedFile.getName());
-                JOptionPane.showMessageDialog(this, "File sent successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Failed to send file: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // Le fichier est envoyé par morceaux depuis une tâche de la session, sans être chargé en mémoire.
+            scope.fork("file-upload", () -> {
+                try {
+                    new ChunkedTransferClient(server, CHUNKS_IN_FLIGHT).upload(selectedFile.toPath());
+                    showMessage("File sent successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } catch (IOException e) {
+                    showMessage("Failed to send file: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
     // Méthode pour recevoir un fichier du serveur.
     public void receiveFile() throws RemoteException {
-        SwingUtilities.invokeLater(() -> {
-            new Thread(() -> {
-                FileTransfer fileTransfer = null;
-                try {
-                    fileTransfer = server.openFileChooser();
-                } catch (RemoteException e) {
-                    e.printStackTrace();
-                }
+        // Le choix du fichier et le téléchargement sont faits dans une tâche de la session, jamais sur l'EDT.
+        scope.fork("file-download", () -> {
+            TransferInfo transfer;
+            try {
+                transfer = server.openFileChooserForDownload();
+            } catch (RemoteException e) {
+                e.printStackTrace();
+                return;
+            }
+            if (transfer == null) {
+                return; // Aucun fichier sélectionné sur le serveur.
+            }
 
-                byte[] fileData = fileTransfer.getFileData();
-                String fileName = fileTransfer.getFileName();
-                try (FileOutputStream fos = new FileOutputStream(fileName)) {
-                    fos.write(fileData);
-                    JOptionPane.showMessageDialog(null, "File received: " + fileName, "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (IOException e) {
-                    JOptionPane.showMessageDialog(null, "Failed to save file: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                }
-            }).start();
+            String fileName = transfer.getFileName();
+            try {
+                new ChunkedTransferClient(server, CHUNKS_IN_FLIGHT).download(transfer, Paths.get(fileName));
+                showMessage("File received: " + fileName, "Success", JOptionPane.INFORMATION_MESSAGE);
+            } catch (IOException e) {
+                showMessage("Failed to save file: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
         });
     }
+
+    // Affiche un message depuis n'importe quel thread.
+    private void showMessage(String message, String title, int type) {
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, message, title, type));
+    }
 }
@@ -11,7 +11,8 @@ public class ClientMain {
     // Crée une nouvelle instance de la classe Client et rend la fenêtre de l'application visible.
     // La classe Client hérite de JFrame et met en œuvre les interfaces nécessaires pour gérer
     // les événements de souris et de clavier, ainsi que pour interagir avec le serveur via RMI.
-    new Client().setVisible(true);
+    // Le transport des images et des entrées est choisi avec --transport=rmi|socket.
+    new Client(Transport.fromArgs(args)).setVisible(true);
   }
 }
 
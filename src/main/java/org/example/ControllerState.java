@@ -0,0 +1,80 @@
+package org.example;
+
+import java.io.Serializable;
+
+/**
+ * Classe ControllerState : instantané de l'état du contrôleur adaptatif, consultable via SharingInterface.
+ * Indique le niveau retenu, les mesures qui l'ont motivé et la raison du dernier changement.
+ */
+public class ControllerState implements Serializable {
+    private final int level; // Niveau courant (0 = meilleure qualité).
+    private final float quality; // Qualité d'encodage (utilisée par les codecs avec pertes).
+    private final double scale; // Facteur d'échelle de la capture.
+    private final int targetFps; // Fréquence cible en images par seconde.
+    private final double roundTripMillis; // Moyenne lissée du temps de livraison hors décodage.
+    private final double decodeMillis; // Moyenne lissée du temps de décodage côté client.
+    private final double bandwidthKbps; // Débit estimé en kilobits par seconde.
+    private final double frameBytes; // Taille moyenne lissée d'une image envoyée.
+    private final String reason; // Raison du dernier changement de niveau.
+    private final long changedAtMillis; // Date du dernier changement de niveau.
+
+    public ControllerState(int level, float quality, double scale, int targetFps, double roundTripMillis,
+                           double decodeMillis, double bandwidthKbps, double frameBytes, String reason, long changedAtMillis) {
+        this.level = level;
+        this.quality = quality;
+        this.scale = scale;
+        this.targetFps = targetFps;
+        this.roundTripMillis = roundTripMillis;
+        this.decodeMillis = decodeMillis;
+        this.bandwidthKbps = bandwidthKbps;
+        this.frameBytes = frameBytes;
+        this.reason = reason;
+        this.changedAtMillis = changedAtMillis;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public float getQuality() {
+        return quality;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    public double getRoundTripMillis() {
+        return roundTripMillis;
+    }
+
+    public double getDecodeMillis() {
+        return decodeMillis;
+    }
+
+    public double getBandwidthKbps() {
+        return bandwidthKbps;
+    }
+
+    public double getFrameBytes() {
+        return frameBytes;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getChangedAtMillis() {
+        return changedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("level %d (quality %.2f, scale %.2f, %d fps): rtt %.1f ms, decode %.1f ms, %.0f kbps, %.0f B/frame - %s",
+                level, quality, scale, targetFps, roundTripMillis, decodeMillis, bandwidthKbps, frameBytes, reason);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.Serializable;
+
+/**
+ * Classe CopyRect qui représente une région déplacée de l'écran (défilement, fenêtre déplacée).
+ * Le client copie la région source de sa propre image vers la destination au lieu de recevoir les pixels.
+ * Les copies d'une image sont appliquées dans l'ordre, avant ses tuiles ; source et destination peuvent se chevaucher.
+ */
+public class CopyRect implements Serializable {
+    public static final int BYTES = 6 * Integer.BYTES; // Taille approximative d'une copie sur le réseau.
+
+    private final int srcX; // Position de la région source.
+    private final int srcY;
+    private final int x; // Position de destination.
+    private final int y;
+    private final int width; // Taille de la région.
+    private final int height;
+
+    public CopyRect(int srcX, int srcY, int x, int y, int width, int height) {
+        this.srcX = srcX;
+        this.srcY = srcY;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getSrcX() {
+        return srcX;
+    }
+
+    public int getSrcY() {
+        return srcY;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Applique la copie à des pixels en mémoire (largeur de ligne stride), avec la même sémantique que applyTo.
+    public void apply(int[] pixels, int stride) {
+        for (int i = 0; i < height; i++) {
+            int row = y > srcY ? height - 1 - i : i; // Vers le bas : de la dernière ligne à la première.
+            System.arraycopy(pixels, (srcY + row) * stride + srcX, pixels, (y + row) * stride + x, width);
+        }
+    }
+
+    // Applique la copie à une image ; line est un tampon d'au moins width entiers.
+    public void applyTo(BufferedImage image, int[] line) {
+        boolean raster = image.getType() == BufferedImage.TYPE_INT_RGB;
+        for (int i = 0; i < height; i++) {
+            int row = y > srcY ? height - 1 - i : i;
+            if (raster) {
+                image.getRaster().getDataElements(srcX, srcY + row, width, 1, line);
+                image.getRaster().setDataElements(x, y + row, width, 1, line);
+            } else {
+                image.getRGB(srcX, srcY + row, width, 1, line, 0, width);
+                image.setRGB(x, y + row, width, 1, line, 0, width);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CopyRect[" + srcX + "," + srcY + " -> " + x + "," + y + " " + width + "x" + height + "]";
+    }
+}
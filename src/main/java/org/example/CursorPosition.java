@@ -0,0 +1,30 @@
+package org.example;
+
+/**
+ * Classe CursorPosition qui définit le format compact d'une mise à jour du curseur : un seul long
+ * contenant x et y (24 bits signés chacun, coordonnées de l'écran du serveur) et l'identifiant de forme (16 bits).
+ * Aucun objet n'est sérialisé pour une mise à jour de position.
+ */
+public final class CursorPosition {
+    public static final int HIDDEN = 0; // Identifiant de forme : curseur hors de l'écran ou inconnu.
+    public static final long NONE = pack(0, 0, HIDDEN); // Position initiale, avant toute mise à jour.
+
+    private CursorPosition() {
+    }
+
+    public static long pack(int x, int y, int shapeId) {
+        return ((long) (x & 0xFFFFFF) << 40) | ((long) (y & 0xFFFFFF) << 16) | (shapeId & 0xFFFF);
+    }
+
+    public static int x(long packed) {
+        return (int) (packed >> 40);
+    }
+
+    public static int y(long packed) {
+        return (int) (packed << 24 >> 40);
+    }
+
+    public static int shapeId(long packed) {
+        return (int) (packed & 0xFFFF);
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.Serializable;
+
+/**
+ * Classe CursorShape qui contient l'image d'une forme de curseur et son point actif.
+ * Une forme est envoyée une seule fois : le client la conserve par identifiant.
+ */
+public class CursorShape implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int id; // Identifiant de la forme.
+    private final int width;
+    private final int height;
+    private final int hotspotX; // Point actif, relatif au coin supérieur gauche de l'image.
+    private final int hotspotY;
+    private final int[] argb; // Pixels ARGB, ligne par ligne.
+
+    public CursorShape(int id, int width, int height, int hotspotX, int hotspotY, int[] argb) {
+        if (argb.length != width * height) {
+            throw new IllegalArgumentException("Cursor pixels do not match " + width + "x" + height);
+        }
+        this.id = id;
+        this.width = width;
+        this.height = height;
+        this.hotspotX = hotspotX;
+        this.hotspotY = hotspotY;
+        this.argb = argb;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getHotspotX() {
+        return hotspotX;
+    }
+
+    public int getHotspotY() {
+        return hotspotY;
+    }
+
+    // Crée l'image du curseur, avec transparence.
+    public BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, argb, 0, width);
+        return image;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example;
+
+/**
+ * Classe CursorShapes qui contient les formes de curseur connues du serveur, par identifiant.
+ * Java ne permet pas de lire l'image du curseur du système : le serveur publie une flèche standard.
+ */
+public final class CursorShapes {
+    public static final int ARROW = 1; // Flèche standard.
+
+    // Motif de la flèche : 'X' contour noir, '.' intérieur blanc, espace transparent.
+    private static final String[] ARROW_PATTERN = {
+            "X           ",
+            "XX          ",
+            "X.X         ",
+            "X..X        ",
+            "X...X       ",
+            "X....X      ",
+            "X.....X     ",
+            "X......X    ",
+            "X.......X   ",
+            "X........X  ",
+            "X.........X ",
+            "X..........X",
+            "X......XXXXX",
+            "X...X..X    ",
+            "X..XX..X    ",
+            "X.X  X..X   ",
+            "XX   X..X   ",
+            "X     X..X  ",
+            "      X..X  ",
+            "       XX   ",
+    };
+
+    private static final CursorShape ARROW_SHAPE = fromPattern(ARROW, ARROW_PATTERN, 0, 0);
+
+    private CursorShapes() {
+    }
+
+    // Retourne la forme d'identifiant donné, ou null si elle est inconnue.
+    public static CursorShape find(int id) {
+        return id == ARROW ? ARROW_SHAPE : null;
+    }
+
+    private static CursorShape fromPattern(int id, String[] pattern, int hotspotX, int hotspotY) {
+        int width = pattern[0].length();
+        int height = pattern.length;
+        int[] argb = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                char c = pattern[y].charAt(x);
+                argb[y * width + x] = c == 'X' ? 0xFF000000 : c == '.' ? 0xFFFFFFFF : 0;
+            }
+        }
+        return new CursorShape(id, width, height, hotspotX, hotspotY, argb);
+    }
+}
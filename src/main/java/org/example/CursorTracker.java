@@ -0,0 +1,85 @@
+package org.example;
+
+import java.awt.HeadlessException;
+import java.awt.MouseInfo;
+import java.awt.Point;
+import java.awt.PointerInfo;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Classe CursorTracker qui relit la position du curseur du serveur à fréquence élevée, indépendamment des images.
+ * Chaque changement est publié aux écouteurs sous forme compacte (voir CursorPosition) ;
+ * les spectateurs en polling attendent le changement suivant avec awaitChange.
+ */
+public class CursorTracker {
+    private final int periodMillis; // Période de lecture de la position.
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>(); // Prévenus à chaque changement.
+    private final Object lock = new Object(); // Réveille les spectateurs en polling.
+    private volatile long latest = CursorPosition.NONE; // Dernière position publiée.
+
+    public CursorTracker(int hz) {
+        this.periodMillis = Math.max(1, 1000 / Math.max(1, hz));
+    }
+
+    // Démarre la lecture de la position dans une tâche du scope donné.
+    public void start(SessionScope scope) {
+        scope.fork("cursor-tracker", this::trackLoop);
+    }
+
+    public long getLatest() {
+        return latest;
+    }
+
+    public void addListener(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    // Attend une position différente de last, au plus timeoutMillis ; retourne la dernière position.
+    public long awaitChange(long last, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            long remaining;
+            while (latest == last && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                lock.wait(remaining);
+            }
+            return latest;
+        }
+    }
+
+    private void trackLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long position = read();
+                if (position != latest) {
+                    synchronized (lock) {
+                        latest = position;
+                        lock.notifyAll();
+                    }
+                    for (LongConsumer listener : listeners) {
+                        listener.accept(position);
+                    }
+                }
+                Thread.sleep(periodMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Lit la position courante ; le curseur est caché s'il n'est pas disponible (pas de souris, environnement sans écran).
+    private static long read() {
+        PointerInfo info;
+        try {
+            info = MouseInfo.getPointerInfo();
+        } catch (HeadlessException e) {
+            return CursorPosition.NONE;
+        }
+        if (info == null) {
+            return CursorPosition.NONE;
+        }
+        Point location = info.getLocation();
+        return CursorPosition.pack(location.x, location.y, CursorShapes.ARROW);
+    }
+}
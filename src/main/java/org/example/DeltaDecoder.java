@@ -0,0 +1,65 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+
+/**
+ * Classe DeltaDecoder qui applique une image reçue (FrameDelta) à l'image du spectateur, dans l'ordre du serveur :
+ * copies des régions défilées, décodage des tuiles, puis résolution des références au cache de tuiles.
+ * Utilisée par Client et par les spectateurs de LoadGenerator, pour que ceux-ci décodent exactement comme un client.
+ * Non thread-safe : les images sont appliquées une à une, dans l'ordre de réception.
+ */
+public class DeltaDecoder implements AutoCloseable {
+    private final ParallelTileCodec tileCodec; // Décodage des tuiles, éventuellement en parallèle.
+    private int[] copyLine = new int[0]; // Tampon d'une ligne pour appliquer les copies.
+    private TileCache<int[]> tileCache; // Pixels des tuiles déjà reçues, synchronisé avec le serveur (null = désactivé).
+    private long tileCacheEpoch; // Époque du cache de tuiles annoncée par le serveur.
+
+    public DeltaDecoder(ParallelTileCodec tileCodec) {
+        this.tileCodec = tileCodec;
+    }
+
+    // Applique les copies puis les tuiles de l'image à target, qui doit avoir la taille de l'image.
+    // En cas d'erreur, target est incomplète : le spectateur doit redemander une image clé.
+    public void apply(FrameDelta delta, BufferedImage target) throws IOException {
+        for (CopyRect copy : delta.getCopies()) {
+            if (copyLine.length < copy.getWidth()) {
+                copyLine = new int[copy.getWidth()];
+            }
+            copy.applyTo(target, copyLine);
+        }
+        tileCodec.decode(delta, target);
+        resolveCachedTiles(delta, target);
+    }
+
+    // Met à jour le cache de tuiles dans l'ordre des tuiles, comme le serveur : les tuiles complètes y sont ajoutées
+    // une fois décodées, les références y sont lues. Une nouvelle époque vide le cache.
+    private void resolveCachedTiles(FrameDelta delta, BufferedImage target) throws IOException {
+        if (delta.getCacheEpoch() != tileCacheEpoch) {
+            tileCacheEpoch = delta.getCacheEpoch();
+            tileCache = tileCacheEpoch == 0 ? null : new TileCache<>(delta.getCacheCapacity());
+        }
+        WritableRaster raster = target.getRaster();
+        for (TileUpdate tile : delta.getTiles()) {
+            if (tile.getHash() == TileCache.NO_HASH) {
+                continue;
+            }
+            int[] pixels = tileCache == null ? null : tileCache.get(tile.getHash());
+            if (tile.isReference()) {
+                if (pixels == null) {
+                    throw new IOException("Tile " + Long.toHexString(tile.getHash()) + " is missing from the cache");
+                }
+                raster.setDataElements(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight(), pixels);
+            } else if (tileCache != null) {
+                tileCache.put(tile.getHash(),
+                        (int[]) raster.getDataElements(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight(), null));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        tileCodec.close();
+    }
+}
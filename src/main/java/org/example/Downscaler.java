@@ -0,0 +1,179 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Classe Downscaler qui réduit une image par moyenne des surfaces (box filter) : chaque pixel de destination
+ * est la moyenne des pixels source qu'il recouvre, pondérés par la fraction recouverte (en 1/256 de pixel).
+ * Les tables de poids sont calculées une fois par couple de tailles et réutilisées d'une image à l'autre ;
+ * la réduction se fait ligne par ligne dans des accumulateurs réutilisés, sans allocation par image.
+ * Contrairement à une interpolation bilinéaire, tous les pixels source contribuent : le texte fin reste lisible.
+ * Non thread-safe : une instance par thread d'encodage.
+ */
+public class Downscaler {
+    private static final int ONE = 256; // Poids d'un pixel source entièrement recouvert.
+    private static final long CHANNEL_MASK = (1L << 21) - 1; // Un canal réduit horizontalement (255 * ONE * 32 au plus).
+    public static final int MAX_RATIO = 32; // Réduction maximale par axe, pour que les canaux ne débordent pas.
+
+    private int srcWidth; // Tailles pour lesquelles les tables sont calculées.
+    private int srcHeight;
+    private int dstWidth;
+    private int dstHeight;
+    private int[] xDest; // Par colonne source : première colonne de destination recouverte.
+    private int[] xFirst; // Poids de la colonne source dans xDest ; le reste (ONE - xFirst) va à la colonne suivante.
+    private double[] xInverse; // Inverse de la somme des poids de chaque colonne de destination.
+    private int[] yStart; // Mêmes tables pour les lignes.
+    private int[] ySource;
+    private int[] yWeight;
+    private double[] yInverse;
+    private long[] rowSum = new long[0]; // Ligne source réduite horizontalement, trois canaux par long.
+    private long[] accR = new long[0]; // Ligne de destination en cours d'accumulation, par canal.
+    private long[] accG = new long[0];
+    private long[] accB = new long[0];
+    private int[] line = new int[0]; // Ligne source pour les images qui ne sont pas en TYPE_INT_RGB.
+
+    // Réduit source dans target (TYPE_INT_RGB), dont la taille ne doit pas dépasser celle de la source.
+    public void scale(BufferedImage source, BufferedImage target) {
+        int sw = source.getWidth();
+        int sh = source.getHeight();
+        int dw = target.getWidth();
+        int dh = target.getHeight();
+        if (dw > sw || dh > sh || dw * MAX_RATIO < sw || dh * MAX_RATIO < sh) {
+            throw new IllegalArgumentException("Cannot scale " + sw + "x" + sh + " to " + dw + "x" + dh);
+        }
+        prepare(sw, sh, dw, dh);
+        int[] src = directPixels(source);
+        int[] dst = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        int reduced = -1; // Ligne source déjà réduite : une ligne à cheval sur deux lignes de destination n'est réduite qu'une fois.
+        for (int dy = 0; dy < dh; dy++) {
+            Arrays.fill(accR, 0, dw, 0);
+            Arrays.fill(accG, 0, dw, 0);
+            Arrays.fill(accB, 0, dw, 0);
+            for (int k = yStart[dy]; k < yStart[dy + 1]; k++) {
+                int sy = ySource[k];
+                int wy = yWeight[k];
+                if (sy != reduced) {
+                    if (src != null) {
+                        reduceRow(src, sy * sw, sw, dw);
+                    } else {
+                        reduceRow(source.getRGB(0, sy, sw, 1, line, 0, sw), 0, sw, dw);
+                    }
+                    reduced = sy;
+                }
+                for (int dx = 0; dx < dw; dx++) {
+                    long sum = rowSum[dx];
+                    accR[dx] += (sum >>> 42 & CHANNEL_MASK) * wy;
+                    accG[dx] += (sum >>> 21 & CHANNEL_MASK) * wy;
+                    accB[dx] += (sum & CHANNEL_MASK) * wy;
+                }
+            }
+            int out = dy * dw;
+            double rowInverse = yInverse[dy];
+            for (int dx = 0; dx < dw; dx++) {
+                double inverse = xInverse[dx] * rowInverse; // Multiplication plutôt que division par pixel.
+                int r = (int) (accR[dx] * inverse + 0.5);
+                int g = (int) (accG[dx] * inverse + 0.5);
+                int b = (int) (accB[dx] * inverse + 0.5);
+                dst[out + dx] = r << 16 | g << 8 | b;
+            }
+        }
+    }
+
+    // Réduit horizontalement une ligne source dans rowSum, en un seul parcours séquentiel de la ligne.
+    // Les trois canaux sont espacés de 21 bits dans un long : une multiplication par destination recouverte.
+    private void reduceRow(int[] row, int offset, int sw, int dw) {
+        long[] sums = rowSum;
+        Arrays.fill(sums, 0, dw + 1, 0);
+        for (int sx = 0; sx < sw; sx++) {
+            int pixel = row[offset + sx];
+            long spread = (pixel & 0xFF0000L) << 26 | (pixel & 0xFF00L) << 13 | (pixel & 0xFFL);
+            int d = xDest[sx];
+            int w = xFirst[sx];
+            sums[d] += spread * w;
+            sums[d + 1] += spread * (ONE - w); // La dernière entrée, hors de l'image, est ignorée.
+        }
+    }
+
+    // Calcule les tables de poids lorsque les tailles changent.
+    private void prepare(int sw, int sh, int dw, int dh) {
+        if (sw == srcWidth && sh == srcHeight && dw == dstWidth && dh == dstHeight) {
+            return;
+        }
+        int[][] x = weights(sw, dw);
+        xInverse = inverses(x[3]);
+        xDest = new int[sw];
+        xFirst = new int[sw];
+        for (int dx = 0; dx < dw; dx++) {
+            for (int k = x[0][dx]; k < x[0][dx + 1]; k++) {
+                int sx = x[1][k];
+                // Une colonne source recouvre au plus deux colonnes de destination : la première rencontrée est retenue.
+                if (xFirst[sx] == 0) {
+                    xDest[sx] = dx;
+                    xFirst[sx] = x[2][k];
+                }
+            }
+        }
+        int[][] y = weights(sh, dh);
+        yStart = y[0];
+        ySource = y[1];
+        yWeight = y[2];
+        yInverse = inverses(y[3]);
+        if (accR.length < dw) {
+            rowSum = new long[dw + 1];
+            accR = new long[dw];
+            accG = new long[dw];
+            accB = new long[dw];
+        }
+        if (line.length < sw) {
+            line = new int[sw];
+        }
+        srcWidth = sw;
+        srcHeight = sh;
+        dstWidth = dw;
+        dstHeight = dh;
+    }
+
+    // Pour chaque pixel de destination, les pixels source recouverts et la fraction recouverte.
+    // Retourne {début par destination (n + 1 entrées), sources, poids, total par destination}.
+    private static int[][] weights(int srcSize, int dstSize) {
+        int[] start = new int[dstSize + 1];
+        int[] source = new int[srcSize + dstSize];
+        int[] weight = new int[srcSize + dstSize];
+        int[] total = new int[dstSize];
+        int n = 0;
+        for (int d = 0; d < dstSize; d++) {
+            start[d] = n;
+            long from = (long) d * srcSize * ONE / dstSize; // Bornes en 1/256 de pixel source.
+            long to = (long) (d + 1) * srcSize * ONE / dstSize;
+            for (long s = from / ONE; s * ONE < to; s++) {
+                int w = (int) (Math.min(to, (s + 1) * ONE) - Math.max(from, s * ONE));
+                if (w > 0) {
+                    source[n] = (int) s;
+                    weight[n] = w;
+                    total[d] += w;
+                    n++;
+                }
+            }
+        }
+        start[dstSize] = n;
+        return new int[][]{start, source, weight, total};
+    }
+
+    private static double[] inverses(int[] totals) {
+        double[] inverses = new double[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            inverses[i] = 1.0 / totals[i];
+        }
+        return inverses;
+    }
+
+    // Pixels de l'image sans copie lorsqu'elle est en TYPE_INT_RGB, sinon null.
+    private static int[] directPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB && image.getRaster().getDataBuffer() instanceof DataBufferInt) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        return null;
+    }
+}
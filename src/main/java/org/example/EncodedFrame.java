@@ -0,0 +1,177 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe EncodedFrame : image encodée une seule fois et partagée en lecture seule par tous les spectateurs.
+ * Contient, pour chaque position de la grille de tuiles, la dernière version encodée de la tuile
+ * et l'identifiant de l'image où elle a changé. Le delta d'un spectateur se déduit de son curseur :
+ * toutes les tuiles plus récentes que la dernière image qu'il a reçue.
+ * Une tuile recouverte par une copie (défilement) sans être réencodée n'a pas de données : un spectateur
+ * à jour de l'image précédente reçoit la copie ; pour les autres, elle est encodée à la première demande
+ * à partir de l'image capturée, puis partagée par tous les spectateurs en retard.
+ * Chaque zone capturée forme sa propre suite d'images (flux) : un curseur n'a de sens que dans le flux
+ * de l'image qui l'a produit, et un changement de flux repart d'une image clé.
+ */
+public class EncodedFrame {
+    private final long frameId; // Identifiant de l'image.
+    private final long streamId; // Flux de l'image : identifiant de la première image du flux.
+    private final long previousFrameId; // Image publiée juste avant celle-ci (0 pour la première).
+    private final long keyFrameId; // Image à partir de laquelle la grille est valide (changement de taille).
+    private final int width; // Largeur de l'image.
+    private final int height; // Hauteur de l'image.
+    private final String codec; // Codec des tuiles.
+    private final long geometryVersion; // Version de la géométrie de l'écran.
+    private final Rectangle region; // Zone de l'écran capturée par cette image.
+    private final List<CopyRect> copies; // Copies de cette image, par rapport à l'image précédente.
+    private final TileUpdate[] tiles; // Dernière version de chaque tuile de la grille (null si recouverte par une copie).
+    private final CopiedTile[] copied; // Tuiles recouvertes par une copie, encodées à la demande.
+    private final long[] versions; // Image où chaque tuile a changé pour la dernière fois.
+
+    // Tuile recouverte par une copie : ses pixels sont lus dans l'image capturée et encodés une seule fois,
+    // lorsqu'un spectateur qui n'a pas reçu la copie en a besoin.
+    private static final class CopiedTile {
+        private final BufferedImage source; // Image capturée où la copie a été détectée (jamais modifiée ensuite).
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private final String codec; // Codec de l'image.
+        private TileUpdate encoded; // Tuile encodée, null avant la première demande.
+
+        CopiedTile(BufferedImage source, int x, int y, int width, int height, String codec) {
+            this.source = source;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.codec = codec;
+        }
+
+        synchronized TileUpdate encode() throws IOException {
+            if (encoded == null) {
+                // Même hachage que TileDiffer : pixels bruts pour TYPE_INT_RGB, getRGB sinon.
+                int[] pixels = source.getType() == BufferedImage.TYPE_INT_RGB
+                        && source.getRaster().getDataBuffer() instanceof DataBufferInt
+                        ? (int[]) source.getRaster().getDataElements(x, y, width, height, null)
+                        : source.getRGB(x, y, width, height, null, 0, width);
+                byte[] data = FrameCodecs.create(codec).encode(source, x, y, width, height);
+                encoded = new TileUpdate(x, y, width, height, data, TileCache.hash(pixels, width, 0, 0, width, height));
+            }
+            return encoded;
+        }
+    }
+
+    private EncodedFrame(long frameId, long streamId, long previousFrameId, long keyFrameId, int width, int height, String codec,
+                         long geometryVersion, Rectangle region, List<CopyRect> copies, TileUpdate[] tiles,
+                         CopiedTile[] copied, long[] versions) {
+        this.frameId = frameId;
+        this.streamId = streamId;
+        this.previousFrameId = previousFrameId;
+        this.keyFrameId = keyFrameId;
+        this.width = width;
+        this.height = height;
+        this.codec = codec;
+        this.geometryVersion = geometryVersion;
+        this.region = region;
+        this.copies = copies;
+        this.tiles = tiles;
+        this.copied = copied;
+        this.versions = versions;
+    }
+
+    // Construit l'image partagée suivante du flux en appliquant un delta à l'image précédente (null pour la première).
+    // Les tableaux sont copiés : l'image précédente reste inchangée pour les spectateurs qui la lisent encore.
+    // source est l'image encodée par le delta ; elle est conservée pour les tuiles copiées et ne doit plus être modifiée.
+    public static EncodedFrame apply(EncodedFrame previous, FrameDelta delta, int tileSize, BufferedImage source) {
+        int columns = (delta.getScreenWidth() + tileSize - 1) / tileSize;
+        int rows = (delta.getScreenHeight() + tileSize - 1) / tileSize;
+        boolean reset = previous == null || delta.isKeyFrame() || previous.width != delta.getScreenWidth()
+                || previous.height != delta.getScreenHeight() || !previous.codec.equals(delta.getCodec());
+        TileUpdate[] tiles = reset ? new TileUpdate[columns * rows] : previous.tiles.clone();
+        CopiedTile[] copied = reset ? new CopiedTile[columns * rows] : previous.copied.clone();
+        long[] versions = reset ? new long[columns * rows] : previous.versions.clone();
+        // Les tuiles sous une copie changent sans données encodées ; celles réencodées ensuite en reçoivent.
+        for (CopyRect copy : delta.getCopies()) {
+            int lastRow = (copy.getY() + copy.getHeight() - 1) / tileSize;
+            int lastColumn = (copy.getX() + copy.getWidth() - 1) / tileSize;
+            for (int row = copy.getY() / tileSize; row <= lastRow; row++) {
+                for (int column = copy.getX() / tileSize; column <= lastColumn; column++) {
+                    int x = column * tileSize;
+                    int y = row * tileSize;
+                    tiles[row * columns + column] = null;
+                    int w = Math.min(tileSize, delta.getScreenWidth() - x);
+                    int h = Math.min(tileSize, delta.getScreenHeight() - y);
+                    copied[row * columns + column] = new CopiedTile(source, x, y, w, h, delta.getCodec());
+                    versions[row * columns + column] = delta.getFrameId();
+                }
+            }
+        }
+        for (TileUpdate tile : delta.getTiles()) {
+            int index = (tile.getY() / tileSize) * columns + tile.getX() / tileSize;
+            tiles[index] = tile;
+            copied[index] = null;
+            versions[index] = delta.getFrameId();
+        }
+        long keyFrameId = reset ? delta.getFrameId() : previous.keyFrameId;
+        long previousFrameId = previous == null ? 0 : previous.frameId;
+        long streamId = previous == null ? delta.getFrameId() : previous.streamId;
+        return new EncodedFrame(delta.getFrameId(), streamId, previousFrameId, keyFrameId, delta.getScreenWidth(),
+                delta.getScreenHeight(), delta.getCodec(), delta.getGeometryVersion(), delta.getRegion(), delta.getCopies(), tiles,
+                copied, versions);
+    }
+
+    // Retourne les tuiles modifiées depuis l'image cursor ; une image clé si cursor est antérieur à la grille courante.
+    // Les tuiles recouvertes par une copie que le spectateur n'a pas reçue sont encodées à ce moment
+    // (UncheckedIOException si l'encodage échoue).
+    public FrameDelta deltaSince(long cursor) {
+        boolean keyFrame = cursor < keyFrameId || cursor > frameId;
+        if (!keyFrame && !copies.isEmpty() && cursor == previousFrameId) {
+            // Spectateur à jour de l'image précédente : copies puis tuiles réencodées dans cette image.
+            List<TileUpdate> changed = new ArrayList<>();
+            for (int i = 0; i < tiles.length; i++) {
+                if (tiles[i] != null && versions[i] == frameId) {
+                    changed.add(tiles[i]);
+                }
+            }
+            return new FrameDelta(frameId, width, height, false, codec, geometryVersion, copies, changed).withRegion(region);
+        }
+        List<TileUpdate> changed = new ArrayList<>();
+        for (int i = 0; i < tiles.length; i++) {
+            if (keyFrame || versions[i] > cursor) {
+                changed.add(tileAt(i));
+            }
+        }
+        return new FrameDelta(frameId, width, height, keyFrame, codec, geometryVersion, changed).withRegion(region);
+    }
+
+    // Tuile de la position index : sa dernière version encodée, ou la tuile copiée encodée à la demande.
+    private TileUpdate tileAt(int index) {
+        if (tiles[index] != null) {
+            return tiles[index];
+        }
+        try {
+            return copied[index].encode();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode copied tile", e);
+        }
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+
+    public long getStreamId() {
+        return streamId;
+    }
+
+    public Rectangle getRegion() {
+        return region;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example;
+
+import java.io.Serializable;
+import java.util.zip.CRC32C;
+
+/**
+ * Classe FileChunk qui représente un morceau de fichier transféré avec sa position et sa somme de contrôle.
+ */
+public class FileChunk implements Serializable {
+    private final long offset; // Position du morceau dans le fichier.
+    private final byte[] data; // Contenu du morceau.
+    private final long checksum; // Somme de contrôle CRC32C du contenu.
+
+    public FileChunk(long offset, byte[] data) {
+        this.offset = offset;
+        this.data = data;
+        this.checksum = checksum(data);
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    // Indique si le contenu correspond à la somme de contrôle calculée à l'envoi.
+    public boolean isValid() {
+        return data != null && checksum(data) == checksum;
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, 0, data.length);
+        return crc.getValue();
+    }
+}
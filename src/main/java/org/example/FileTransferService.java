@@ -0,0 +1,211 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe FileTransferService qui gère côté serveur les transferts de fichiers par morceaux.
+ * Les morceaux sont lus et écrits par positions via FileChannel, sans tampon intermédiaire,
+ * si bien que la mémoire utilisée ne dépend pas de la taille du fichier.
+ * Un envoi interrompu reprend à la dernière position confirmée tant que le serveur tourne, s'il porte le même nom,
+ * la même taille et la même somme de contrôle du fichier entier ; un autre envoi vers le même fichier est refusé.
+ * Un transfert inutilisé pendant idleTimeoutMillis (client déconnecté) est fermé au début d'un nouveau transfert.
+ */
+public class FileTransferService {
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024; // Taille par défaut d'un morceau (1 Mio).
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10); // Expiration d'un transfert abandonné.
+
+    private final Path directory; // Répertoire de réception des fichiers.
+    private final int chunkSize; // Taille d'un morceau.
+    private final long idleTimeoutNanos; // Durée d'inactivité après laquelle un transfert est fermé.
+    private final Map<String, Transfer> transfers = new ConcurrentHashMap<>(); // Transferts en cours.
+
+    // État d'un transfert en cours.
+    private static class Transfer {
+        final String id;
+        final String fileName;
+        final Path target; // Fichier final (réception) ou fichier lu (envoi).
+        final Path partFile; // Fichier partiel en cours d'écriture, null pour un envoi.
+        final long fileChecksum; // Somme de contrôle CRC32C du fichier entier annoncée par le client (réception).
+        final FileChannel channel;
+        final ChunkProgress progress;
+        volatile long lastAccessNanos = System.nanoTime(); // Dernière utilisation, pour l'expiration.
+
+        Transfer(String id, String fileName, Path target, Path partFile, long fileChecksum, FileChannel channel,
+                 ChunkProgress progress) {
+            this.id = id;
+            this.fileName = fileName;
+            this.target = target;
+            this.partFile = partFile;
+            this.fileChecksum = fileChecksum;
+            this.channel = channel;
+            this.progress = progress;
+        }
+
+        boolean isUpload() {
+            return partFile != null;
+        }
+
+        TransferInfo info() {
+            return new TransferInfo(id, fileName, progress.getFileSize(), progress.getChunkSize(), progress.confirmedOffset());
+        }
+    }
+
+    public FileTransferService(Path directory, int chunkSize) {
+        this(directory, chunkSize, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    public FileTransferService(Path directory, int chunkSize, long idleTimeoutMillis) {
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
+    // Commence (ou reprend) la réception d'un fichier envoyé par le client.
+    // Un envoi inachevé du même fichier, de la même taille et de la même somme de contrôle est repris avec sa
+    // position confirmée ; un envoi d'un autre contenu vers le même fichier partiel est refusé tant que le premier
+    // n'est ni terminé ni expiré.
+    public synchronized TransferInfo beginUpload(String fileName, long fileSize, long fileChecksum) throws IOException {
+        expireIdle();
+        String safeName = Paths.get(fileName).getFileName().toString(); // Ignore tout chemin fourni par le client.
+        for (Transfer transfer : transfers.values()) {
+            if (transfer.isUpload() && transfer.fileName.equals(safeName)) {
+                if (transfer.progress.getFileSize() != fileSize || transfer.fileChecksum != fileChecksum) {
+                    throw new IOException("Another upload of " + safeName + " is in progress");
+                }
+                transfer.lastAccessNanos = System.nanoTime();
+                return transfer.info();
+            }
+        }
+        Path partFile = directory.resolve(safeName + ".part");
+        FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        Transfer transfer = new Transfer(UUID.randomUUID().toString(), safeName, directory.resolve(safeName),
+                partFile, fileChecksum, channel, new ChunkProgress(fileSize, chunkSize));
+        transfers.put(transfer.id, transfer);
+        return transfer.info();
+    }
+
+    // Vérifie et écrit un morceau reçu à sa position ; retourne la nouvelle position confirmée.
+    public long writeChunk(String transferId, FileChunk chunk) throws IOException {
+        Transfer transfer = get(transferId);
+        if (!transfer.isUpload()) {
+            throw new IOException("Transfer " + transferId + " is not an upload");
+        }
+        if (!chunk.isValid()) {
+            throw new IOException("Checksum mismatch for chunk at offset " + chunk.getOffset());
+        }
+        int expected = transfer.progress.expectedLength(chunk.getOffset());
+        if (chunk.getData().length != expected) {
+            throw new IOException("Chunk at offset " + chunk.getOffset() + " has " + chunk.getData().length
+                    + " bytes, expected " + expected);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.getData());
+        long position = chunk.getOffset();
+        while (buffer.hasRemaining()) {
+            position += transfer.channel.write(buffer, position);
+        }
+        transfer.progress.markDone(chunk.getOffset());
+        return transfer.progress.confirmedOffset();
+    }
+
+    // Termine une réception : le fichier partiel est renommé lorsque tous les morceaux sont arrivés.
+    public void finishUpload(String transferId) throws IOException {
+        Transfer transfer = get(transferId);
+        if (!transfer.progress.isComplete()) {
+            throw new IOException("Transfer " + transferId + " is incomplete: confirmed up to "
+                    + transfer.progress.confirmedOffset() + " of " + transfer.progress.getFileSize() + " bytes");
+        }
+        transfers.remove(transferId);
+        transfer.channel.force(false);
+        transfer.channel.close();
+        Files.move(transfer.partFile, transfer.target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Ouvre un fichier du serveur pour l'envoyer au client par morceaux.
+    public TransferInfo beginDownload(Path file) throws IOException {
+        expireIdle();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        Transfer transfer = new Transfer(UUID.randomUUID().toString(), file.getFileName().toString(), file, null,
+                0, channel, new ChunkProgress(channel.size(), chunkSize));
+        transfers.put(transfer.id, transfer);
+        return transfer.info();
+    }
+
+    // Lit le morceau commençant à offset directement dans le tableau envoyé au client.
+    public FileChunk readChunk(String transferId, long offset) throws IOException {
+        Transfer transfer = get(transferId);
+        byte[] data = new byte[transfer.progress.expectedLength(offset)];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = transfer.channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file " + transfer.fileName + " at " + position);
+            }
+            position += read;
+        }
+        return new FileChunk(offset, data);
+    }
+
+    // Retourne l'état d'un transfert, notamment sa position confirmée.
+    public TransferInfo getTransfer(String transferId) throws IOException {
+        return get(transferId).info();
+    }
+
+    // Abandonne un transfert et libère le fichier ; le fichier partiel d'une réception est supprimé.
+    public void close(String transferId) throws IOException {
+        Transfer transfer = transfers.remove(transferId);
+        if (transfer != null) {
+            transfer.channel.close();
+            if (transfer.isUpload()) {
+                Files.deleteIfExists(transfer.partFile);
+            }
+        }
+    }
+
+    // Ferme tous les transferts à l'arrêt du serveur ; les fichiers partiels sont laissés en place.
+    public void closeAll() {
+        for (Transfer transfer : transfers.values()) {
+            transfers.remove(transfer.id);
+            try {
+                transfer.channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Ferme les transferts inutilisés depuis plus de idleTimeoutNanos, abandonnés par un client déconnecté.
+    private void expireIdle() {
+        long now = System.nanoTime();
+        for (Transfer transfer : transfers.values()) {
+            if (now - transfer.lastAccessNanos > idleTimeoutNanos) {
+                try {
+                    close(transfer.id);
+                } catch (IOException e) {
+                    System.err.println("Failed to close idle transfer " + transfer.id + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Transfer get(String transferId) throws IOException {
+        Transfer transfer = transfers.get(transferId);
+        if (transfer == null) {
+            throw new IOException("Unknown transfer " + transferId);
+        }
+        transfer.lastAccessNanos = System.nanoTime();
+        return transfer;
+    }
+}
@@ -0,0 +1,396 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Classe FrameBroadcaster qui capture et encode l'écran une seule fois par image pour tous les spectateurs
+ * d'une même zone (voir RegionOfInterest). Les sessions actives sont regroupées par zone résolue ; chaque zone
+ * est capturée et encodée une fois, dans son propre flux (TileDiffer et suite d'EncodedFrame), et n'est remise
+ * qu'aux sessions qui l'ont demandée. La zone accompagne l'image jusqu'au delta publié pour que les clients
+ * convertissent leurs coordonnées. Une session qui change de zone passe dans un autre flux et repart d'une image clé.
+ * Capture et encodage tournent dans deux étages reliés par une file bornée ; l'image encodée est publiée
+ * en lecture seule (EncodedFrame) puis remise à la file d'envoi de chaque session en diffusion.
+ * Les spectateurs en polling lisent la dernière image publiée de leur flux.
+ * La fréquence de capture est la plus élevée demandée par les sessions actives ; dans chaque flux, qualité et
+ * échelle suivent le contrôleur du spectateur le mieux servi, les plus lents sautant seulement leurs propres images.
+ * L'image est réduite avant l'encodage à la plus grande zone d'affichage déclarée par les spectateurs du flux,
+ * une seule fois pour tous, par moyenne des surfaces (Downscaler).
+ */
+public class FrameBroadcaster {
+    private static final long IDLE_PARK_NANOS = 50_000_000L; // Attente lorsqu'aucune session n'est active.
+
+    private final Function<Rectangle, BufferedImage> capture; // Capture une zone de l'écran.
+    private final Function<ViewerSession, Rectangle> region; // Zone demandée par une session (null : celle de la capture).
+    private final TileDiffer differ; // Réglages des flux : chacun encode avec un TileDiffer créé par differ.sibling().
+    private final SessionRegistry sessions; // Sessions des spectateurs.
+    private final boolean adaptive; // Active l'ajustement automatique de la qualité et de l'échelle.
+    private final SpscQueue<List<Captured>> captured = new SpscQueue<>(1); // Capture -> encodage, une image par zone.
+    private final List<RegionStream> streams = new CopyOnWriteArrayList<>(); // Flux en cours ; ajouts sous son verrou.
+    private final Map<ViewerSession, RegionStream> assigned = new ConcurrentHashMap<>(); // Flux de chaque session active.
+    private final Metrics metrics; // Mesures du pipeline partagé.
+    private final StageTimer captureTimer;
+    private final StageTimer encodeTimer;
+    private final Histogram frameBytes; // Taille des images publiées.
+    private final Object frameLock = new Object(); // Prévient les spectateurs en polling d'une nouvelle image.
+    private final List<Consumer<EncodedFrame>> listeners = new CopyOnWriteArrayList<>(); // Reçoivent chaque image publiée.
+    private final FrameBufferPool framePool = FrameBufferPool.shared(); // Images réduites réutilisées.
+    private final Downscaler downscaler = new Downscaler(); // Réduction utilisée par l'étage d'encodage.
+    private Thread capturer; // Étage de capture.
+    private Thread encoder; // Étage d'encodage.
+    private volatile boolean running;
+
+    // Image capturée, zone de l'écran qu'elle représente et sessions qui l'ont demandée.
+    private static class Captured {
+        final BufferedImage image;
+        final Rectangle bounds;
+        final List<ViewerSession> sessions;
+
+        Captured(BufferedImage image, Rectangle bounds, List<ViewerSession> sessions) {
+            this.image = image;
+            this.bounds = bounds;
+            this.sessions = sessions;
+        }
+    }
+
+    // Flux d'une zone : encodeur, dernière image publiée et tampon de réduction (étage d'encodage).
+    private static class RegionStream {
+        final TileDiffer differ;
+        volatile EncodedFrame latest; // Dernière image publiée, lue par les spectateurs en polling.
+        BufferedImage scaled; // Image réduite réutilisée lorsque l'échelle est inférieure à 1.
+
+        RegionStream(TileDiffer differ) {
+            this.differ = differ;
+        }
+    }
+
+    public FrameBroadcaster(Supplier<BufferedImage> capture, TileDiffer differ, SessionRegistry sessions) {
+        this(capture, differ, sessions, new Metrics("broadcaster"));
+    }
+
+    public FrameBroadcaster(Supplier<BufferedImage> capture, TileDiffer differ, SessionRegistry sessions, Metrics metrics) {
+        this(bounds -> capture.get(), session -> null, differ, sessions, metrics);
+    }
+
+    // Capture, à chaque image, chacune des zones données par region pour les sessions actives.
+    public FrameBroadcaster(Function<Rectangle, BufferedImage> capture, Function<ViewerSession, Rectangle> region,
+                            TileDiffer differ, SessionRegistry sessions, Metrics metrics) {
+        this.capture = capture;
+        this.region = region;
+        this.differ = differ;
+        this.sessions = sessions;
+        this.metrics = metrics;
+        this.adaptive = !"false".equals(System.getProperty("rdp.adaptive"));
+        LongAdder dropped = metrics.counter(Metrics.FRAMES_DROPPED);
+        this.captureTimer = new StageTimer("capture", metrics.histogram(Metrics.CAPTURE, Histogram.NANOS), dropped);
+        this.encodeTimer = new StageTimer("encode", metrics.histogram(Metrics.ENCODE, Histogram.NANOS), dropped);
+        this.frameBytes = metrics.histogram(Metrics.FRAME_BYTES, Histogram.BYTES);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        capturer = daemon(this::captureLoop, "frame-capture");
+        encoder = daemon(this::encodeLoop, "frame-encode");
+        capturer.start();
+        encoder.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (capturer != null) {
+            capturer.interrupt();
+            encoder.interrupt();
+        }
+    }
+
+    public String getCodecName() {
+        return differ.getCodec().getName();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Change le codec des tuiles de tous les flux.
+    public void setCodec(String name) {
+        synchronized (streams) {
+            differ.setCodec(FrameCodecs.create(name));
+            for (RegionStream stream : streams) {
+                stream.differ.setCodec(FrameCodecs.create(name));
+            }
+        }
+    }
+
+    public void setGeometryVersion(long version) {
+        synchronized (streams) {
+            differ.setGeometryVersion(version);
+            for (RegionStream stream : streams) {
+                stream.differ.setGeometryVersion(version);
+            }
+        }
+    }
+
+    // Mesures des étages partagés (capture et encodage).
+    public List<StageTiming> getStageTimings() {
+        return List.of(captureTimer.snapshot(), encodeTimer.snapshot());
+    }
+
+    // Ajoute un écouteur appelé par l'étage d'encodage à chaque image publiée ; il ne doit pas bloquer.
+    public void addListener(Consumer<EncodedFrame> listener) {
+        listeners.add(listener);
+    }
+
+    // Mode polling : retourne les tuiles du flux de la session modifiées depuis l'image acquittée, en attendant
+    // au plus une période qu'une image plus récente soit publiée pour éviter une boucle d'appels sans pause.
+    public FrameDelta deltaSince(ViewerSession session, long ackedFrameId, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        EncodedFrame frame;
+        synchronized (frameLock) {
+            frame = latest(session);
+            while ((frame == null || frame.getFrameId() == ackedFrameId) && running) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                frameLock.wait(remaining);
+                frame = latest(session);
+            }
+        }
+        return frame == null ? null : session.pollDelta(frame, ackedFrameId);
+    }
+
+    // Dernière image publiée du flux de la session, null si elle n'en a pas encore.
+    private EncodedFrame latest(ViewerSession session) {
+        RegionStream stream = assigned.get(session);
+        return stream == null ? null : stream.latest;
+    }
+
+    // Fréquence de capture : la plus élevée parmi les sessions actives, 0 si aucune.
+    private int demandedFps() {
+        int fps = 0;
+        for (ViewerSession session : sessions.all()) {
+            if (session.isActive()) {
+                fps = Math.max(fps, session.currentFps());
+            }
+        }
+        return fps;
+    }
+
+    // Échelle nécessaire au spectateur du flux qui affiche la plus grande image, au plus 1.
+    // Une session qui n'a pas déclaré sa zone d'affichage reçoit la résolution native.
+    private static double viewportScale(List<ViewerSession> viewers, int width, int height) {
+        double factor = 0;
+        for (ViewerSession session : viewers) {
+            int viewWidth = session.getViewportWidth();
+            int viewHeight = session.getViewportHeight();
+            if (viewWidth <= 0 || viewHeight <= 0) {
+                return 1.0;
+            }
+            factor = Math.max(factor, Math.max((double) viewWidth / width, (double) viewHeight / height));
+        }
+        return factor == 0 ? 1.0 : Math.min(1.0, factor);
+    }
+
+    // Contrôleur du spectateur en diffusion du flux le mieux servi (niveau le plus bas), ou null.
+    private static AdaptiveController leadingController(List<ViewerSession> viewers) {
+        AdaptiveController best = null;
+        for (ViewerSession session : viewers) {
+            if (session.isStreaming()) {
+                AdaptiveController controller = session.getController();
+                if (best == null || controller.getLevel() < best.getLevel()) {
+                    best = controller;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Étage de capture : cadencé à la fréquence demandée, abandonne l'image si l'encodage n'a pas repris la précédente.
+    private void captureLoop() {
+        long next = System.nanoTime();
+        while (running) {
+            int fps = demandedFps();
+            if (fps == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                next = System.nanoTime();
+                continue;
+            }
+            try {
+                List<Captured> frames = new ArrayList<>();
+                for (Map.Entry<Rectangle, List<ViewerSession>> group : groupByRegion().entrySet()) {
+                    long start = System.nanoTime();
+                    frames.add(new Captured(capture.apply(group.getKey()), group.getKey(), group.getValue()));
+                    captureTimer.record(start);
+                }
+                if (!captured.offer(frames)) {
+                    captureTimer.drop();
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            next += 1_000_000_000L / fps;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                next = System.nanoTime(); // En retard : on ne rattrape pas les périodes manquées.
+            }
+        }
+    }
+
+    // Regroupe les sessions actives par zone résolue : une capture par zone distincte (étage de capture).
+    private Map<Rectangle, List<ViewerSession>> groupByRegion() {
+        Map<Rectangle, List<ViewerSession>> groups = new LinkedHashMap<>();
+        for (ViewerSession session : sessions.all()) {
+            if (session.isActive()) {
+                groups.computeIfAbsent(region.apply(session), bounds -> new ArrayList<>()).add(session);
+            }
+        }
+        return groups;
+    }
+
+    // Étage d'encodage : un seul encodage par zone et par image, publié pour les sessions de cette zone.
+    private void encodeLoop() {
+        try {
+            while (running) {
+                List<Captured> frames = captured.take();
+                Set<RegionStream> used = new HashSet<>();
+                Set<ViewerSession> viewers = new HashSet<>();
+                for (Captured next : frames) {
+                    RegionStream stream = streamFor(next.sessions, used);
+                    used.add(stream);
+                    for (ViewerSession session : next.sessions) {
+                        assigned.put(session, stream);
+                        viewers.add(session);
+                    }
+                    encode(stream, next);
+                }
+                // Zones qui ne sont plus demandées : leur flux et les sessions inactives sont oubliés.
+                assigned.keySet().retainAll(viewers);
+                for (RegionStream stream : streams) {
+                    if (!used.contains(stream)) {
+                        streams.remove(stream);
+                        framePool.release(stream.scaled);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Flux d'un groupe de sessions : celui d'une de ses sessions s'il n'est pas déjà pris par un autre groupe,
+    // pour qu'une zone qui se déplace continue de produire des deltas ; sinon un nouveau flux.
+    private RegionStream streamFor(List<ViewerSession> viewers, Set<RegionStream> used) {
+        for (ViewerSession session : viewers) {
+            RegionStream stream = assigned.get(session);
+            if (stream != null && !used.contains(stream)) {
+                return stream;
+            }
+        }
+        synchronized (streams) { // Un nouveau flux reprend le codec et la géométrie courants.
+            RegionStream stream = new RegionStream(differ.sibling());
+            streams.add(stream);
+            return stream;
+        }
+    }
+
+    // Encode l'image capturée d'une zone dans son flux et la publie pour les sessions qui l'ont demandée.
+    private void encode(RegionStream stream, Captured next) {
+        BufferedImage frame = next.image;
+        Rectangle bounds = next.bounds != null ? next.bounds : new Rectangle(0, 0, frame.getWidth(), frame.getHeight());
+        long start = System.nanoTime();
+        AdaptiveController controller = adaptive ? leadingController(next.sessions) : null;
+        double factor = viewportScale(next.sessions, frame.getWidth(), frame.getHeight());
+        if (controller != null) {
+            applyQuality(stream.differ, controller.getQuality());
+            factor *= controller.getScale();
+        }
+        frame = scale(stream, frame, factor);
+        FrameDelta delta;
+        try {
+            delta = stream.differ.diff(frame, stream.differ.getFrameId()).withRegion(bounds);
+        } catch (IOException e) {
+            System.err.println("Failed to encode frame: " + e.getMessage());
+            encodeTimer.drop();
+            return;
+        }
+        encodeTimer.record(start);
+        // Une image sans changement n'est pas publiée : les spectateurs possèdent déjà son contenu.
+        // Elle l'est si la zone capturée s'est déplacée, pour que les clients mettent à jour leurs coordonnées.
+        EncodedFrame previous = stream.latest;
+        if (!delta.isEmpty() || (previous != null && !bounds.equals(previous.getRegion()))) {
+            frameBytes.record(delta.getByteSize());
+            // Les tuiles copiées sont encodées plus tard depuis l'image : le tampon réduit réutilisé est copié.
+            BufferedImage source = frame == stream.scaled && !delta.getCopies().isEmpty() ? copyOf(frame) : frame;
+            publish(stream, EncodedFrame.apply(previous, delta, stream.differ.getTileSize(), source), next.sessions);
+        }
+    }
+
+    private void publish(RegionStream stream, EncodedFrame frame, List<ViewerSession> viewers) {
+        synchronized (frameLock) {
+            stream.latest = frame;
+            frameLock.notifyAll();
+        }
+        for (ViewerSession session : viewers) {
+            session.offer(frame);
+        }
+        for (Consumer<EncodedFrame> listener : listeners) {
+            listener.accept(frame);
+        }
+    }
+
+    // Applique la qualité du contrôleur lorsque le codec du flux est avec pertes.
+    private static void applyQuality(TileDiffer differ, float quality) {
+        FrameCodec codec = differ.getCodec();
+        if (codec instanceof JpegCodec) {
+            ((JpegCodec) codec).setQuality(quality);
+        }
+    }
+
+    // Réduit l'image capturée dans le tampon réutilisé du flux ; un changement de taille produit une image clé.
+    private BufferedImage scale(RegionStream stream, BufferedImage frame, double factor) {
+        if (factor >= 1.0) {
+            return frame;
+        }
+        int minWidth = (frame.getWidth() + Downscaler.MAX_RATIO - 1) / Downscaler.MAX_RATIO;
+        int minHeight = (frame.getHeight() + Downscaler.MAX_RATIO - 1) / Downscaler.MAX_RATIO;
+        int w = Math.max(minWidth, (int) (frame.getWidth() * factor));
+        int h = Math.max(minHeight, (int) (frame.getHeight() * factor));
+        if (stream.scaled == null || stream.scaled.getWidth() != w || stream.scaled.getHeight() != h) {
+            framePool.release(stream.scaled);
+            stream.scaled = framePool.acquireImage(w, h);
+        }
+        downscaler.scale(frame, stream.scaled);
+        return stream.scaled;
+    }
+
+    private static BufferedImage copyOf(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        copy.getRaster().setDataElements(0, 0, image.getRaster());
+        return copy;
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
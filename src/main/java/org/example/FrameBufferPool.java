@@ -0,0 +1,140 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classe FrameBufferPool qui réutilise les tampons d'images : images TYPE_INT_RGB par taille
+ * et ByteBuffer directs (hors du tas) par classe de capacité en puissance de deux.
+ * Les tampons sont pris avec acquire et rendus avec release ; au-delà de la limite d'octets inactifs,
+ * un tampon rendu est abandonné au ramasse-miettes.
+ * Un pool partagé par processus est utilisé par le serveur (capture, encodage) et par le client (décodage).
+ */
+public class FrameBufferPool {
+    private static final int MIN_BUFFER_CAPACITY = 4 * 1024; // Plus petite classe de capacité des ByteBuffer.
+    // Pool partagé du processus ; limite réglable avec -Drdp.pool.maxBytes.
+    private static final FrameBufferPool SHARED = new FrameBufferPool(Long.getLong("rdp.pool.maxBytes", 256L * 1024 * 1024));
+
+    private final long maxIdleBytes; // Nombre maximal d'octets conservés inactifs dans le pool.
+    private final Map<Long, ArrayDeque<BufferedImage>> images = new HashMap<>(); // Images libres, par taille.
+    private final Map<Integer, ArrayDeque<ByteBuffer>> buffers = new HashMap<>(); // ByteBuffer libres, par capacité.
+    private long idleBytes; // Octets conservés dans le pool, prêts à être réutilisés.
+    private long inUseBytes; // Octets pris et pas encore rendus.
+    private long hits; // Demandes servies par un tampon réutilisé.
+    private long misses; // Demandes qui ont dû allouer.
+
+    public FrameBufferPool(long maxIdleBytes) {
+        this.maxIdleBytes = maxIdleBytes;
+    }
+
+    public static FrameBufferPool shared() {
+        return SHARED;
+    }
+
+    // Prend une image TYPE_INT_RGB de la taille donnée ; son contenu précédent n'est pas effacé.
+    public synchronized BufferedImage acquireImage(int width, int height) {
+        long bytes = imageBytes(width, height);
+        ArrayDeque<BufferedImage> free = images.get(sizeKey(width, height));
+        BufferedImage image = free == null ? null : free.poll();
+        if (image != null) {
+            hits++;
+            idleBytes -= bytes;
+        } else {
+            misses++;
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        inUseBytes += bytes;
+        return image;
+    }
+
+    // Rend une image obtenue par acquireImage.
+    public synchronized void release(BufferedImage image) {
+        if (image == null || image.getType() != BufferedImage.TYPE_INT_RGB) {
+            return;
+        }
+        long bytes = imageBytes(image.getWidth(), image.getHeight());
+        inUseBytes = Math.max(0, inUseBytes - bytes);
+        if (idleBytes + bytes <= maxIdleBytes) {
+            images.computeIfAbsent(sizeKey(image.getWidth(), image.getHeight()), key -> new ArrayDeque<>()).push(image);
+            idleBytes += bytes;
+        }
+    }
+
+    // Prend un ByteBuffer direct d'au moins minCapacity octets, vidé (position 0, limite = capacité).
+    public synchronized ByteBuffer acquireBuffer(int minCapacity) {
+        int capacity = capacityClass(minCapacity);
+        ArrayDeque<ByteBuffer> free = buffers.get(capacity);
+        ByteBuffer buffer = free == null ? null : free.poll();
+        if (buffer != null) {
+            hits++;
+            idleBytes -= capacity;
+            buffer.clear();
+        } else {
+            misses++;
+            buffer = ByteBuffer.allocateDirect(capacity);
+        }
+        inUseBytes += capacity;
+        return buffer;
+    }
+
+    // Rend un ByteBuffer obtenu par acquireBuffer.
+    public synchronized void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || Integer.bitCount(buffer.capacity()) != 1) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        inUseBytes = Math.max(0, inUseBytes - capacity);
+        if (idleBytes + capacity <= maxIdleBytes) {
+            buffers.computeIfAbsent(capacity, key -> new ArrayDeque<>()).push(buffer);
+            idleBytes += capacity;
+        }
+    }
+
+    // Proportion des demandes servies sans allocation, entre 0 et 1.
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // Octets actuellement détenus par le pool : tampons inactifs et tampons pris.
+    public synchronized long getBytesHeld() {
+        return idleBytes + inUseBytes;
+    }
+
+    public synchronized long getIdleBytes() {
+        return idleBytes;
+    }
+
+    public synchronized long getInUseBytes() {
+        return inUseBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("FrameBufferPool[hitRate=%.1f%%, held=%d KiB, idle=%d KiB]",
+                getHitRate() * 100, getBytesHeld() / 1024, idleBytes / 1024);
+    }
+
+    private static long sizeKey(int width, int height) {
+        return ((long) width << 32) | height;
+    }
+
+    private static long imageBytes(int width, int height) {
+        return (long) width * height * Integer.BYTES;
+    }
+
+    // Arrondit une capacité à la puissance de deux supérieure.
+    private static int capacityClass(int minCapacity) {
+        if (minCapacity <= MIN_BUFFER_CAPACITY) {
+            return MIN_BUFFER_CAPACITY;
+        }
+        int capacity = Integer.highestOneBit(minCapacity - 1) << 1;
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer too large: " + minCapacity);
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Interface FrameCallback exportée par le client pour recevoir les images poussées par le serveur.
+ * Le serveur n'envoie pas de nouvelle image tant que l'appel précédent n'est pas terminé.
+ */
+public interface FrameCallback extends Remote {
+
+    // Méthode appelée par le serveur pour livrer les tuiles modifiées d'une nouvelle image.
+    // Le retour de l'appel vaut acquittement de l'image ; retourne le temps de décodage côté client en nanosecondes.
+    long onFrame(FrameDelta delta) throws RemoteException;
+
+    // Méthode appelée par le serveur lorsque sa résolution ou la disposition de ses écrans change.
+    // Remplace la géométrie conservée par le client.
+    void geometryChanged(ScreenGeometry geometry) throws RemoteException;
+
+    // Méthode appelée par le serveur à chaque déplacement du curseur, indépendamment des images.
+    // Les coordonnées sont celles de l'écran du serveur ; la forme est récupérée une fois avec getCursorShape.
+    void cursorMoved(int x, int y, int shapeId) throws RemoteException;
+}
@@ -0,0 +1,22 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Interface FrameCodec qui encode et décode une région d'image pour le transfert entre serveur et client.
+ * Le client et le serveur s'accordent sur un codec lors de registerClient.
+ * Une instance réutilise ses tampons et ses lecteurs/écrivains d'une image à l'autre ;
+ * elle ne doit donc être utilisée que par un seul thread à la fois.
+ */
+public interface FrameCodec {
+
+    // Nom du codec, échangé lors de la négociation (par exemple "rle", "jpeg", "png").
+    String getName();
+
+    // Encode la région (x, y, width, height) de l'image source et retourne les octets à transmettre.
+    byte[] encode(BufferedImage source, int x, int y, int width, int height) throws IOException;
+
+    // Décode les octets reçus et écrit les pixels dans la région (x, y, width, height) de l'image cible.
+    void decode(byte[] data, BufferedImage target, int x, int y, int width, int height) throws IOException;
+}
@@ -0,0 +1,44 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Classe FrameCodecs qui crée les codecs connus par leur nom et choisit le codec commun au client et au serveur.
+ */
+public final class FrameCodecs {
+    public static final String RLE = "rle"; // Pixels bruts compressés par plages, pour le réseau local.
+    public static final String JPEG = "jpeg"; // Compression avec pertes à qualité réglable, pour le WAN.
+    public static final String PNG = "png"; // Compression sans perte historique, pour compatibilité.
+
+    // Codecs supportés, par ordre de préférence du serveur.
+    public static final List<String> SUPPORTED = List.of(RLE, JPEG, PNG);
+
+    private FrameCodecs() {
+    }
+
+    // Crée une nouvelle instance du codec demandé.
+    public static FrameCodec create(String name) {
+        switch (name) {
+            case RLE:
+                return new RleCodec();
+            case JPEG:
+                return new JpegCodec(Float.parseFloat(System.getProperty("rdp.jpeg.quality", "0.75")));
+            case PNG:
+                return new PngCodec();
+            default:
+                throw new IllegalArgumentException("Unknown frame codec: " + name);
+        }
+    }
+
+    // Retourne le premier codec proposé par le client que le serveur supporte, ou PNG par défaut.
+    public static String negotiate(List<String> offered) {
+        if (offered != null) {
+            for (String name : offered) {
+                if (SUPPORTED.contains(name)) {
+                    return name;
+                }
+            }
+        }
+        return PNG;
+    }
+}
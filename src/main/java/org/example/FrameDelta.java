@@ -0,0 +1,124 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Classe FrameDelta qui regroupe les tuiles modifiées depuis la dernière image acquittée par le client.
+ * Une image clé (keyFrame) contient toutes les tuiles de l'écran et remplace entièrement l'image du client.
+ * Les copies (régions défilées) sont appliquées à l'image du client avant les tuiles.
+ * Les tuiles peuvent être des références au cache du client (TileCache) ; cacheEpoch change lorsque
+ * le serveur réinitialise sa copie du cache, et le client vide alors le sien.
+ * La zone capturée (region) est en coordonnées de l'écran du serveur : avec la taille de l'image, elle donne
+ * l'origine et l'échelle à utiliser pour convertir les coordonnées de la souris et du curseur.
+ */
+public class FrameDelta implements Serializable {
+    private final long frameId; // Identifiant de l'image, à renvoyer par le client comme acquittement.
+    private final int screenWidth; // Largeur de l'écran du serveur.
+    private final int screenHeight; // Hauteur de l'écran du serveur.
+    private final boolean keyFrame; // Indique si toutes les tuiles sont présentes.
+    private final String codec; // Nom du codec utilisé pour encoder les tuiles.
+    private final long geometryVersion; // Version de la géométrie de l'écran du serveur au moment de la capture.
+    private final List<CopyRect> copies; // Régions déplacées, appliquées avant les tuiles.
+    private final List<TileUpdate> tiles; // Tuiles modifiées.
+    private final long cacheEpoch; // Époque du cache de tuiles de la session (0 = pas de références).
+    private final int cacheCapacity; // Capacité du cache de tuiles que le client doit utiliser.
+    private final Rectangle region; // Zone de l'écran du serveur capturée, null si inconnue (écran entier).
+
+    public FrameDelta(long frameId, int screenWidth, int screenHeight, boolean keyFrame, String codec,
+                      long geometryVersion, List<TileUpdate> tiles) {
+        this(frameId, screenWidth, screenHeight, keyFrame, codec, geometryVersion, List.of(), tiles);
+    }
+
+    public FrameDelta(long frameId, int screenWidth, int screenHeight, boolean keyFrame, String codec,
+                      long geometryVersion, List<CopyRect> copies, List<TileUpdate> tiles) {
+        this(frameId, screenWidth, screenHeight, keyFrame, codec, geometryVersion, copies, tiles, 0, 0, null);
+    }
+
+    private FrameDelta(long frameId, int screenWidth, int screenHeight, boolean keyFrame, String codec,
+                       long geometryVersion, List<CopyRect> copies, List<TileUpdate> tiles,
+                       long cacheEpoch, int cacheCapacity, Rectangle region) {
+        this.frameId = frameId;
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.keyFrame = keyFrame;
+        this.codec = codec;
+        this.geometryVersion = geometryVersion;
+        this.copies = copies;
+        this.tiles = tiles;
+        this.cacheEpoch = cacheEpoch;
+        this.cacheCapacity = cacheCapacity;
+        this.region = region;
+    }
+
+    // Retourne la même image avec d'autres tuiles (références au cache du client) et l'époque de son cache.
+    public FrameDelta withCachedTiles(List<TileUpdate> tiles, long cacheEpoch, int cacheCapacity) {
+        return new FrameDelta(frameId, screenWidth, screenHeight, keyFrame, codec, geometryVersion, copies, tiles,
+                cacheEpoch, cacheCapacity, region);
+    }
+
+    // Retourne la même image avec la zone de l'écran du serveur qu'elle représente.
+    public FrameDelta withRegion(Rectangle region) {
+        return new FrameDelta(frameId, screenWidth, screenHeight, keyFrame, codec, geometryVersion, copies, tiles,
+                cacheEpoch, cacheCapacity, region);
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
+    public int getScreenHeight() {
+        return screenHeight;
+    }
+
+    public boolean isKeyFrame() {
+        return keyFrame;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public long getGeometryVersion() {
+        return geometryVersion;
+    }
+
+    public List<CopyRect> getCopies() {
+        return copies;
+    }
+
+    public List<TileUpdate> getTiles() {
+        return tiles;
+    }
+
+    public long getCacheEpoch() {
+        return cacheEpoch;
+    }
+
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    public Rectangle getRegion() {
+        return region;
+    }
+
+    // Retourne le nombre d'octets de données encodées transportés par les tuiles et les copies.
+    public long getByteSize() {
+        long size = (long) copies.size() * CopyRect.BYTES;
+        for (TileUpdate tile : tiles) {
+            size += tile.getByteSize();
+        }
+        return size;
+    }
+
+    // Indique si rien n'a changé depuis l'image acquittée.
+    public boolean isEmpty() {
+        return tiles.isEmpty() && copies.isEmpty();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Classe FrameReceiver qui exporte un FrameCallback côté client et transmet chaque image reçue à un consommateur,
+ * ainsi que chaque nouvelle géométrie de l'écran du serveur et chaque position du curseur (voir CursorPosition).
+ */
+public class FrameReceiver extends UnicastRemoteObject implements FrameCallback {
+    private final transient Consumer<FrameDelta> consumer; // Traitement appliqué à chaque image reçue.
+    private final transient Consumer<ScreenGeometry> geometryListener; // Traitement d'un changement de géométrie.
+    private final transient LongConsumer cursorListener; // Traitement d'une position du curseur.
+
+    public FrameReceiver(Consumer<FrameDelta> consumer, Consumer<ScreenGeometry> geometryListener,
+                         LongConsumer cursorListener) throws RemoteException {
+        super();
+        this.consumer = consumer;
+        this.geometryListener = geometryListener;
+        this.cursorListener = cursorListener;
+    }
+
+    @Override
+    public long onFrame(FrameDelta delta) throws RemoteException {
+        long start = System.nanoTime();
+        consumer.accept(delta);
+        return System.nanoTime() - start;
+    }
+
+    @Override
+    public void geometryChanged(ScreenGeometry geometry) throws RemoteException {
+        geometryListener.accept(geometry);
+    }
+
+    @Override
+    public void cursorMoved(int x, int y, int shapeId) throws RemoteException {
+        cursorListener.accept(CursorPosition.pack(x, y, shapeId));
+    }
+
+    // Retire l'objet du runtime RMI pour que le serveur ne puisse plus l'appeler.
+    public void close() {
+        try {
+            UnicastRemoteObject.unexportObject(this, true);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Classe GeometryWatcher qui conserve la géométrie de l'écran du serveur et la relit périodiquement.
+ * Les appels distants lisent la valeur en cache ; les écouteurs sont prévenus lorsque la géométrie change.
+ */
+public class GeometryWatcher {
+    private static final long CHECK_PERIOD_MILLIS = 2000; // Période de vérification de la géométrie.
+
+    private final List<Consumer<ScreenGeometry>> listeners = new CopyOnWriteArrayList<>(); // Prévenus à chaque changement.
+    private final LongFunction<ScreenGeometry> detector; // Lit la géométrie avec le numéro de version donné.
+    private final ScheduledExecutorService scheduler;
+    private volatile ScreenGeometry current; // Géométrie en cache.
+
+    public GeometryWatcher() {
+        this(ScreenGeometry::detect);
+    }
+
+    public GeometryWatcher(LongFunction<ScreenGeometry> detector) {
+        this.detector = detector;
+        current = detector.apply(1);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "geometry-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, CHECK_PERIOD_MILLIS, CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public ScreenGeometry getGeometry() {
+        return current;
+    }
+
+    public void addListener(Consumer<ScreenGeometry> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ScreenGeometry> listener) {
+        listeners.remove(listener);
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    // Relit la géométrie et prévient les écouteurs si la résolution ou la disposition a changé.
+    private void check() {
+        try {
+            ScreenGeometry detected = detector.apply(current.getVersion());
+            if (detected.sameLayout(current)) {
+                return;
+            }
+            current = detected.withVersion(current.getVersion() + 1);
+            for (Consumer<ScreenGeometry> listener : listeners) {
+                listener.accept(current);
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
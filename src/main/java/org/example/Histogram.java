@@ -0,0 +1,98 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe Histogram qui enregistre une distribution de valeurs (durées en nanosecondes, tailles en octets)
+ * sans verrou, à la manière d'un histogramme HDR : chaque puissance de deux est découpée en SUB_BUCKETS
+ * intervalles égaux, soit une précision relative d'environ 3 % de 1 ns à plusieurs siècles.
+ * Un enregistrement coûte quelques incréments atomiques et n'alloue rien.
+ */
+public class Histogram {
+    public static final String NANOS = "ns"; // Unité des durées.
+    public static final String BYTES = "B"; // Unité des tailles.
+
+    static final int SUB_BITS = 5; // 32 intervalles par puissance de deux.
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = (63 - SUB_BITS) * SUB_BUCKETS + 2 * SUB_BUCKETS; // Couvre tout long positif.
+
+    private final String name; // Nom de la mesure.
+    private final String unit; // Unité des valeurs.
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // Nombre de valeurs par intervalle.
+    private final LongAdder count = new LongAdder(); // Nombre total de valeurs.
+    private final LongAdder sum = new LongAdder(); // Somme des valeurs, pour la moyenne.
+    private final AtomicLong max = new AtomicLong(); // Valeur maximale observée.
+
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    // Enregistre une valeur ; les valeurs négatives (horloge non monotone) sont comptées comme 0.
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    // Enregistre la durée écoulée depuis startNanos.
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    // Retourne un instantané sérialisable ; les enregistrements concurrents peuvent y figurer ou non.
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        int last = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            if (copy[i] != 0) {
+                last = i;
+            }
+        }
+        long[] trimmed = new long[last + 1];
+        System.arraycopy(copy, 0, trimmed, 0, trimmed.length);
+        return new HistogramSnapshot(name, unit, trimmed, count.sum(), sum.sum(), max.get());
+    }
+
+    // Indice de l'intervalle contenant v : exact sous 2 * SUB_BUCKETS, puis SUB_BITS bits significatifs.
+    static int bucketOf(long v) {
+        if (v < 2 * SUB_BUCKETS) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return shift * SUB_BUCKETS + (int) (v >>> shift);
+    }
+
+    // Plus petite valeur de l'intervalle.
+    static long lowerBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket - shift * SUB_BUCKETS) << shift;
+    }
+
+    // Largeur de l'intervalle.
+    static long width(int bucket) {
+        return bucket < 2 * SUB_BUCKETS ? 1 : 1L << (bucket / SUB_BUCKETS - 1);
+    }
+}
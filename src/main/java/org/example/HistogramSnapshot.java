@@ -0,0 +1,78 @@
+package org.example;
+
+import java.io.Serializable;
+
+/**
+ * Classe HistogramSnapshot : instantané d'un Histogram, envoyé au client via RMI.
+ * Les centiles sont calculés à partir des intervalles, au milieu de l'intervalle qui les contient.
+ */
+public class HistogramSnapshot implements Serializable {
+    private final String name; // Nom de la mesure.
+    private final String unit; // Unité des valeurs (Histogram.NANOS ou Histogram.BYTES).
+    private final long[] counts; // Nombre de valeurs par intervalle, sans les intervalles vides de fin.
+    private final long count; // Nombre total de valeurs.
+    private final long sum; // Somme des valeurs.
+    private final long max; // Valeur maximale.
+
+    public HistogramSnapshot(String name, String unit, long[] counts, long count, long sum, long max) {
+        this.name = name;
+        this.unit = unit;
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Valeur sous laquelle se trouvent percentile % des valeurs (0 à 100), bornée par le maximum observé.
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Histogram.lowerBound(i) + Histogram.width(i) / 2);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d, p50 %s, p90 %s, p99 %s, max %s", name, count,
+                format(getPercentile(50)), format(getPercentile(90)), format(getPercentile(99)), format(max));
+    }
+
+    private String format(long value) {
+        if (Histogram.NANOS.equals(unit)) {
+            return String.format("%.1f us", value / 1000.0);
+        }
+        return value + " " + unit;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+
+/**
+ * Classe ImageIOCodec, base des codecs qui s'appuient sur un format ImageIO (JPEG, PNG).
+ * L'écrivain, le lecteur et les flux sont créés une fois et réutilisés ; le tampon de sortie (ByteBuffer direct)
+ * et les images de décodage viennent du FrameBufferPool partagé.
+ */
+public abstract class ImageIOCodec implements FrameCodec {
+    private final ImageWriter writer; // Écrivain ImageIO réutilisé.
+    private final ImageReader reader; // Lecteur ImageIO réutilisé.
+    private final ImageReadParam readParam; // Paramètres de lecture (image de destination réutilisée).
+    private final FrameBufferPool pool = FrameBufferPool.shared(); // Pool des tampons et des images de décodage.
+    private final ByteBufferImageOutputStream output = new ByteBufferImageOutputStream(pool, 64 * 1024); // Flux de sortie réutilisé.
+    private final ByteArrayImageInputStream input = new ByteArrayImageInputStream(); // Flux d'entrée réutilisé.
+
+    protected ImageIOCodec(String format) {
+        writer = first(ImageIO.getImageWritersByFormatName(format), format);
+        reader = first(ImageIO.getImageReadersByFormatName(format), format);
+        readParam = reader.getDefaultReadParam();
+    }
+
+    // Paramètres d'écriture propres au format, ou null pour les paramètres par défaut.
+    protected abstract ImageWriteParam writeParam();
+
+    protected ImageWriter writer() {
+        return writer;
+    }
+
+    @Override
+    public byte[] encode(BufferedImage source, int x, int y, int width, int height) throws IOException {
+        BufferedImage region = x == 0 && y == 0 && width == source.getWidth() && height == source.getHeight()
+                ? source : source.getSubimage(x, y, width, height);
+        output.reset();
+        try {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(region, null, null), writeParam());
+        } finally {
+            writer.setOutput(null);
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public void decode(byte[] data, BufferedImage target, int x, int y, int width, int height) throws IOException {
+        BufferedImage tile = pool.acquireImage(width, height);
+        try {
+            input.setData(data);
+            reader.setInput(input, true, true);
+            readParam.setDestination(tile);
+            reader.read(0, readParam);
+            target.getRaster().setRect(x, y, tile.getRaster());
+        } finally {
+            reader.setInput(null);
+            readParam.setDestination(null);
+            pool.release(tile);
+        }
+    }
+
+    private static <T> T first(Iterator<T> candidates, String format) {
+        if (!candidates.hasNext()) {
+            throw new IllegalStateException("No ImageIO support for " + format);
+        }
+        return candidates.next();
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe InputBatcher qui met en file les événements d'entrée du client et les envoie par lots
+ * depuis un thread dédié, hors du thread Swing (EDT).
+ * Les déplacements de souris consécutifs sont fusionnés : seule la dernière position est envoyée.
+ * Pendant qu'un lot est en cours d'envoi, les nouveaux événements s'accumulent dans le lot suivant.
+ */
+public class InputBatcher {
+    private final InputSink sink; // Destination des lots.
+    private final Object lock = new Object();
+    private int[] pending = new int[InputRecords.RECORD_SIZE * 64]; // Événements en attente.
+    private int size; // Nombre d'entiers utilisés dans pending.
+    private int lastRecord = -1; // Index du dernier événement en attente, pour la fusion des déplacements.
+    private long coalesced; // Nombre de déplacements fusionnés.
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    public InputBatcher(InputSink sink) {
+        this.sink = sink;
+        this.flusher = Threads.start("input-batcher", this::flushLoop);
+    }
+
+    // Le thread d'envoi appartient au scope de la session : il s'arrête avec lui.
+    public InputBatcher(InputSink sink, SessionScope scope) {
+        this.sink = sink;
+        this.flusher = scope.fork("input-batcher", this::flushLoop);
+    }
+
+    // Ajoute un déplacement de souris, fusionné avec le précédent s'il s'agit aussi d'un déplacement.
+    public void mouseMoved(int x, int y) {
+        synchronized (lock) {
+            if (lastRecord >= 0 && pending[lastRecord] == InputRecords.MOUSE_MOVE) {
+                pending[lastRecord + 1] = x;
+                pending[lastRecord + 2] = y;
+                coalesced++;
+                return;
+            }
+            append(InputRecords.MOUSE_MOVE, x, y, 0);
+        }
+    }
+
+    // Ajoute un événement de bouton (MOUSE_PRESS ou MOUSE_RELEASE).
+    public void mouseButton(int type, int x, int y, int button) {
+        synchronized (lock) {
+            append(type, x, y, button);
+        }
+    }
+
+    // Ajoute un événement de touche (KEY_PRESS ou KEY_RELEASE).
+    public void key(int type, int keyCode) {
+        synchronized (lock) {
+            append(type, keyCode, 0, 0);
+        }
+    }
+
+    public long getCoalescedMoves() {
+        synchronized (lock) {
+            return coalesced;
+        }
+    }
+
+    // Arrête le thread d'envoi ; les événements encore en attente sont abandonnés.
+    public void close() {
+        running = false;
+        flusher.interrupt();
+    }
+
+    private void append(int type, int a, int b, int c) {
+        if (size + InputRecords.RECORD_SIZE > pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        lastRecord = size;
+        pending[size++] = type;
+        pending[size++] = a;
+        pending[size++] = b;
+        pending[size++] = c;
+        lock.notifyAll();
+    }
+
+    // Attend des événements, puis envoie tout ce qui est en attente en un seul lot.
+    private void flushLoop() {
+        while (running) {
+            int[] batch;
+            synchronized (lock) {
+                while (size == 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                batch = Arrays.copyOf(pending, size);
+                size = 0;
+                lastRecord = -1;
+            }
+            try {
+                sink.sendBatch(batch);
+            } catch (IOException e) {
+                System.err.println("Failed to send input batch: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example;
+
+/**
+ * Classe InputRecords qui définit le format compact des événements d'entrée envoyés par lots.
+ * Chaque événement occupe RECORD_SIZE entiers consécutifs : type, x (ou code de touche), y, bouton.
+ * Aucun objet AWT n'est sérialisé.
+ */
+public final class InputRecords {
+    public static final int RECORD_SIZE = 4; // Nombre d'entiers par événement.
+
+    public static final int MOUSE_MOVE = 1; // Déplacement de la souris vers (x, y).
+    public static final int MOUSE_PRESS = 2; // Appui du bouton en (x, y).
+    public static final int MOUSE_RELEASE = 3; // Relâchement du bouton en (x, y).
+    public static final int KEY_PRESS = 4; // Appui de la touche dont le code est dans le champ x.
+    public static final int KEY_RELEASE = 5; // Relâchement de la touche dont le code est dans le champ x.
+
+    private InputRecords() {
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Interface InputSink : destination d'un lot d'événements d'entrée encodés au format InputRecords.
+ */
+@FunctionalInterface
+public interface InputSink {
+
+    // Envoie un lot d'événements ; bloque jusqu'à ce que le lot soit accepté.
+    void sendBatch(int[] events) throws IOException;
+}
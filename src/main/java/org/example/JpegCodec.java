@@ -0,0 +1,36 @@
+package org.example;
+
+import javax.imageio.ImageWriteParam;
+
+/**
+ * Classe JpegCodec : compression JPEG avec pertes dont la qualité est réglable, pour les liaisons WAN.
+ */
+public class JpegCodec extends ImageIOCodec {
+    private final ImageWriteParam param; // Paramètres d'écriture réutilisés (qualité).
+
+    public JpegCodec(float quality) {
+        super("jpeg");
+        param = writer().getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        setQuality(quality);
+    }
+
+    @Override
+    public String getName() {
+        return FrameCodecs.JPEG;
+    }
+
+    // Règle la qualité de compression entre 0 (taille minimale) et 1 (qualité maximale).
+    public void setQuality(float quality) {
+        param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+    }
+
+    public float getQuality() {
+        return param.getCompressionQuality();
+    }
+
+    @Override
+    protected ImageWriteParam writeParam() {
+        return param;
+    }
+}
@@ -0,0 +1,268 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.rmi.NotBoundException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe LoadGenerator : outil de mesure de capacité d'un serveur sans écran ni utilisateurs réels.
+ * Démarre un SharingImpl sur une source synthétique (SyntheticCaptureSource) derrière un registre RMI local,
+ * puis ajoute des spectateurs sans interface qui suivent le protocole du Client (enregistrement, zone d'affichage,
+ * diffusion par RMI ou par socket). Pour chaque palier du nombre de spectateurs, affiche la fréquence soutenue,
+ * les percentiles de latence (publication de l'image -> réception par le spectateur), le débit, le CPU et le tas.
+ * Les spectateurs tournent dans la même JVM que le serveur : le CPU mesuré inclut leur réception (et leur
+ * décodage avec --decode).
+ *
+ * Chaque palier dure par défaut un tour du script, pour que tous les paliers voient le même contenu.
+ *
+ * Options : --viewers=1,2,4,8 --seconds=<un tour du script> --fps=30 --size=1920x1080 --script=terminal:10,scroll:10,video:10
+ *           --codec=rle --viewport=1366x768 --decode --transport=rmi|socket --port=1099
+ *           --region=<zone demandée par chaque spectateur, voir RegionOfInterest.parse> --monitors=1
+ */
+public class LoadGenerator {
+    private static final String SERVER_ID = "load"; // Identifiant du serveur simulé.
+    private static final long WARMUP_MILLIS = 2000; // Attente après l'ajout de spectateurs, avant la mesure.
+
+    private final Map<Long, Long> published = new ConcurrentHashMap<>(); // Heure de publication par image.
+    private volatile Histogram latency = new Histogram("latency", Histogram.NANOS); // Latence du palier en cours.
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        new LoadGenerator().run(new Options(args));
+        System.exit(0); // Les objets exportés par RMI empêchent la JVM de s'arrêter seule.
+    }
+
+    private void run(Options options) throws Exception {
+        SyntheticCaptureSource source = new SyntheticCaptureSource(options.width, options.height, options.script, options.monitors);
+        int seconds = options.seconds > 0 ? options.seconds : (int) Math.ceil(source.getCycleNanos() / 1e9);
+        SharingImpl server = new SharingImpl(SERVER_ID, source);
+        Registry registry = LocateRegistry.createRegistry(options.port);
+        registry.rebind("Server", server);
+        if (options.transport == Transport.SOCKET) {
+            server.startSocketTransport(InetAddress.getLoopbackAddress(), 0);
+        }
+        server.addFrameListener(frame -> {
+            published.put(frame.getFrameId(), System.nanoTime());
+            published.remove(frame.getFrameId() - 1000);
+        });
+        SharingInterface remote = (SharingInterface) LocateRegistry.getRegistry("localhost", options.port).lookup("Server");
+
+        System.out.printf("%dx%d, script %s, %d s per step, %d fps requested, codec %s, transport %s%s%s%n", options.width,
+                options.height, options.script, seconds, options.fps, options.codec, options.transport,
+                options.region == null ? "" : ", region " + options.region, options.decode ? ", decoding" : "");
+        System.out.printf("%7s %8s %8s %9s %8s %8s %8s %8s %6s %9s %7s%n", "viewers", "fps avg", "fps min", "Mbit/s",
+                "p50 ms", "p99 ms", "max ms", "enc ms", "cpu %", "heap MiB", "gc ms");
+        List<Viewer> viewers = new ArrayList<>();
+        try {
+            for (int count : options.viewers) {
+                while (viewers.size() < count) {
+                    viewers.add(new Viewer(remote, options));
+                }
+                Thread.sleep(WARMUP_MILLIS);
+                measure(remote, viewers, seconds);
+            }
+        } finally {
+            for (Viewer viewer : viewers) {
+                viewer.close();
+            }
+        }
+    }
+
+    // Mesure un palier et affiche une ligne du tableau.
+    private void measure(SharingInterface remote, List<Viewer> viewers, int seconds) throws Exception {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] frames = new long[viewers.size()];
+        long bytes = 0;
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = viewers.get(i).frames.sum();
+            bytes -= viewers.get(i).bytes.sum();
+        }
+        latency = new Histogram("latency", Histogram.NANOS);
+        long gcMillis = gcMillis();
+        long cpu = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        double cpuShare = (os.getProcessCpuTime() - cpu) / 1e9 / elapsed / Runtime.getRuntime().availableProcessors();
+        double total = 0;
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < frames.length; i++) {
+            double fps = (viewers.get(i).frames.sum() - frames[i]) / elapsed;
+            total += fps;
+            min = Math.min(min, fps);
+            bytes += viewers.get(i).bytes.sum();
+        }
+        HistogramSnapshot snapshot = latency.snapshot();
+        HistogramSnapshot encode = remote.getSessionStats(viewers.get(0).sessionId).getHistogram(Metrics.ENCODE);
+        System.out.printf("%7d %8.1f %8.1f %9.1f %8.1f %8.1f %8.1f %8.1f %6.0f %9d %7d%n", viewers.size(),
+                total / frames.length, min, bytes * 8 / elapsed / 1e6,
+                snapshot.getPercentile(50) / 1e6, snapshot.getPercentile(99) / 1e6, snapshot.getMax() / 1e6,
+                encode == null ? 0 : encode.getPercentile(50) / 1e6, cpuShare * 100,
+                memory.getHeapMemoryUsage().getUsed() / (1024 * 1024), gcMillis() - gcMillis);
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Options de la ligne de commande.
+    private static class Options {
+        int[] viewers = {1, 2, 4, 8};
+        int seconds; // 0 : un tour du script.
+        int fps = 30;
+        int width = 1920;
+        int height = 1080;
+        String script = SyntheticCaptureSource.DEFAULT_SCRIPT;
+        String codec = FrameCodecs.RLE;
+        int viewportWidth; // 0 : résolution native.
+        int viewportHeight;
+        boolean decode;
+        Transport transport;
+        int port = 1099;
+        RegionOfInterest region; // null : écran entier.
+        int monitors = 1;
+
+        Options(String[] args) {
+            transport = Transport.fromArgs(args);
+            for (String arg : args) {
+                String value = arg.substring(arg.indexOf('=') + 1);
+                if (arg.startsWith("--viewers=")) {
+                    String[] counts = value.split(",");
+                    viewers = new int[counts.length];
+                    for (int i = 0; i < counts.length; i++) {
+                        viewers[i] = Integer.parseInt(counts[i].trim());
+                    }
+                } else if (arg.startsWith("--seconds=")) {
+                    seconds = Integer.parseInt(value);
+                } else if (arg.startsWith("--fps=")) {
+                    fps = Integer.parseInt(value);
+                } else if (arg.startsWith("--size=")) {
+                    width = Integer.parseInt(value.split("x")[0]);
+                    height = Integer.parseInt(value.split("x")[1]);
+                } else if (arg.startsWith("--script=")) {
+                    script = value;
+                } else if (arg.startsWith("--codec=")) {
+                    codec = value;
+                } else if (arg.startsWith("--viewport=")) {
+                    viewportWidth = Integer.parseInt(value.split("x")[0]);
+                    viewportHeight = Integer.parseInt(value.split("x")[1]);
+                } else if (arg.equals("--decode")) {
+                    decode = true;
+                } else if (arg.startsWith("--region=")) {
+                    region = RegionOfInterest.parse(value);
+                } else if (arg.startsWith("--monitors=")) {
+                    monitors = Integer.parseInt(value);
+                } else if (arg.startsWith("--port=")) {
+                    port = Integer.parseInt(value);
+                } else if (!arg.startsWith("--transport=")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spectateur sans interface : ouvre une session comme Client, reçoit les images et mesure leur latence.
+     */
+    private class Viewer {
+        final SharingInterface remote;
+        final String sessionId;
+        final boolean decode;
+        final LongAdder frames = new LongAdder(); // Images reçues.
+        final LongAdder bytes = new LongAdder(); // Octets des images reçues.
+        final SessionScope scope;
+        FrameReceiver receiver; // Diffusion par RMI.
+        SocketTransportClient socket; // Diffusion par socket.
+        DeltaDecoder decoder; // Application des images avec --decode, comme Client.
+        BufferedImage image; // Image décodée.
+
+        Viewer(SharingInterface remote, Options options) throws IOException, NotBoundException {
+            this.remote = remote;
+            this.decode = options.decode;
+            List<String> codecs = new ArrayList<>();
+            codecs.add(options.codec);
+            codecs.addAll(FrameCodecs.SUPPORTED);
+            SessionInfo session = remote.registerClient(SERVER_ID, codecs);
+            sessionId = session.getSessionId();
+            scope = new SessionScope("viewer-" + sessionId);
+            if (decode) {
+                decoder = new DeltaDecoder(new ParallelTileCodec(1));
+            }
+            if (options.viewportWidth > 0) {
+                remote.setViewport(sessionId, options.viewportWidth, options.viewportHeight);
+            }
+            if (options.region != null) {
+                remote.setRegionOfInterest(sessionId, options.region);
+            }
+            if (options.transport == Transport.SOCKET) {
+                socket = new SocketTransportClient(InetAddress.getLoopbackAddress().getHostAddress(), remote.getStreamPort(), remote, this::onFrame,
+                        geometry -> { }, position -> { });
+                socket.start(scope);
+                socket.startStreaming(sessionId, options.fps);
+            } else {
+                receiver = new FrameReceiver(this::onFrame, geometry -> { }, position -> { });
+                remote.startStreaming(sessionId, receiver, options.fps);
+            }
+        }
+
+        // Traitement d'une image reçue : latence depuis sa publication, débit, décodage éventuel.
+        void onFrame(FrameDelta delta) {
+            Long publishedNanos = published.get(delta.getFrameId());
+            if (publishedNanos != null) {
+                latency.recordSince(publishedNanos);
+            }
+            frames.increment();
+            bytes.add(delta.getByteSize());
+            if (decode) {
+                if (image == null || image.getWidth() != delta.getScreenWidth() || image.getHeight() != delta.getScreenHeight()) {
+                    image = new BufferedImage(delta.getScreenWidth(), delta.getScreenHeight(), BufferedImage.TYPE_INT_RGB);
+                }
+                try {
+                    decoder.apply(delta, image);
+                } catch (IOException e) {
+                    // Comme Client : l'échec est remonté au serveur, qui envoie ensuite une image clé.
+                    throw new UncheckedIOException("Failed to decode frame " + delta.getFrameId(), e);
+                }
+            }
+        }
+
+        void close() {
+            try {
+                if (socket != null) {
+                    socket.stopStreaming();
+                    socket.close();
+                } else {
+                    remote.stopStreaming(sessionId);
+                    receiver.close();
+                }
+                remote.unregisterClient(sessionId);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            scope.close();
+            if (decoder != null) {
+                decoder.close();
+            }
+        }
+    }
+}
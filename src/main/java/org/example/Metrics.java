@@ -0,0 +1,192 @@
+package org.example;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Classe Metrics qui regroupe les mesures d'un périmètre (le serveur, ou une session) : histogrammes,
+ * compteurs sans verrou et jauges lues au moment de l'instantané.
+ * Les mesures sont créées à la première demande puis réutilisées ; les chemins chauds gardent la référence
+ * obtenue et n'accèdent plus à la table.
+ * Le périmètre peut être publié comme MBean JMX : chaque compteur devient un attribut, chaque histogramme
+ * les attributs nom.count, nom.p50, nom.p99 et nom.max.
+ */
+public class Metrics implements DynamicMBean {
+    // Mesures du pipeline partagé.
+    public static final String CAPTURE = "capture"; // Durée d'une capture d'écran.
+    public static final String ENCODE = "encode"; // Durée du calcul et de l'encodage des tuiles.
+    public static final String FRAME_BYTES = "frame.bytes"; // Taille d'une image encodée, ou envoyée à la session.
+    public static final String FRAMES_DROPPED = "frames.dropped"; // Images abandonnées.
+    public static final String INPUT_APPLY = "input.apply"; // Délai entre la réception d'un lot d'entrées et son application.
+    public static final String INPUT_EVENTS = "input.events"; // Événements d'entrée rejoués.
+    public static final String TRANSFER_CHUNK = "transfer.chunk"; // Durée de lecture ou d'écriture d'un morceau de fichier.
+    public static final String TRANSFER_BYTES = "transfer.bytes"; // Octets de fichiers transférés.
+    public static final String RECORD_WRITE = "record.write"; // Durée d'écriture d'un événement dans l'enregistrement.
+    public static final String RECORD_BYTES = "record.bytes"; // Octets écrits dans l'enregistrement.
+    public static final String RECORD_DROPPED = "record.dropped"; // Événements non enregistrés (file pleine).
+    // Mesures propres à une session.
+    public static final String RMI_FRAME = "rmi.frame"; // Durée de l'appel distant qui livre une image.
+    public static final String RMI_CURSOR = "rmi.cursor"; // Durée de l'appel distant qui livre le curseur.
+    public static final String CLIENT_DECODE = "client.decode"; // Durée de décodage reportée par le client.
+    public static final String FRAMES_SENT = "frames.sent"; // Images livrées.
+    public static final String TILE_CACHE_HITS = "tileCache.hits"; // Tuiles remplacées par une référence au cache du client.
+    public static final String TILE_CACHE_MISSES = "tileCache.misses"; // Tuiles envoyées en entier.
+    public static final String TILE_CACHE_SAVED = "tileCache.bytesSaved"; // Octets évités grâce aux références.
+
+    private final String scope; // Nom du périmètre ("server" ou identifiant de session).
+    private final long createdMillis = System.currentTimeMillis();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private ObjectName registeredName; // Nom JMX, ou null si non publié.
+
+    public Metrics(String scope) {
+        this.scope = scope;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    // Retourne l'histogramme du nom donné, créé au premier appel.
+    public Histogram histogram(String name, String unit) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(n, unit));
+    }
+
+    // Retourne le compteur du nom donné, créé au premier appel.
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    // Déclare une valeur lue à chaque instantané (taille d'un pool, nombre de sessions...).
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // Retourne un instantané sérialisable, complété par les mesures d'un autre périmètre (ou null).
+    public SessionStats snapshot(Metrics shared) {
+        Map<String, HistogramSnapshot> h = new TreeMap<>();
+        Map<String, Long> c = new TreeMap<>();
+        if (shared != null) {
+            shared.collect(h, c);
+        }
+        collect(h, c);
+        return new SessionStats(scope, System.currentTimeMillis() - createdMillis, h, c);
+    }
+
+    private void collect(Map<String, HistogramSnapshot> h, Map<String, Long> c) {
+        for (Histogram histogram : histograms.values()) {
+            h.put(histogram.getName(), histogram.snapshot());
+        }
+        counters.forEach((name, adder) -> c.put(name, adder.sum()));
+        gauges.forEach((name, value) -> c.put(name, value.getAsLong()));
+    }
+
+    // Publie le périmètre dans le serveur MBean de la plateforme sous org.example:type=<type>,name=<scope>.
+    // Si le nom est déjà pris par une autre instance, celle-ci reste publiée et unregister n'y touche pas.
+    public synchronized void register(String type) {
+        if (registeredName != null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName("org.example:type=" + type + ",name=" + ObjectName.quote(scope));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (InstanceAlreadyExistsException e) {
+            System.err.println("Metrics " + scope + " already registered with JMX by another instance");
+        } catch (JMException e) {
+            System.err.println("Failed to register metrics " + scope + " with JMX: " + e.getMessage());
+        }
+    }
+
+    public synchronized void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            System.err.println("Failed to unregister metrics " + scope + ": " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    // Attributs JMX, calculés à partir d'un instantané.
+
+    @Override
+    public Object getAttribute(String attribute) {
+        Map<String, Long> values = attributes();
+        Long value = values.get(attribute);
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown attribute " + attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Map<String, Long> values = attributes();
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            Long value = values.get(name);
+            if (value != null) {
+                list.add(new Attribute(name, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) {
+        throw new UnsupportedOperationException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("No operations");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> infos = new ArrayList<>();
+        for (String name : attributes().keySet()) {
+            infos.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+        }
+        return new MBeanInfo(getClass().getName(), "Metrics of " + scope, infos.toArray(new MBeanAttributeInfo[0]),
+                null, null, null);
+    }
+
+    private Map<String, Long> attributes() {
+        Map<String, Long> values = new TreeMap<>();
+        SessionStats stats = snapshot(null);
+        values.putAll(stats.getCounters());
+        for (HistogramSnapshot h : stats.getHistograms().values()) {
+            values.put(h.getName() + ".count", h.getCount());
+            values.put(h.getName() + ".p50", h.getPercentile(50));
+            values.put(h.getName() + ".p99", h.getPercentile(99));
+            values.put(h.getName() + ".max", h.getMax());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Classe MonitorInfo qui décrit un écran du serveur : position dans le bureau virtuel, taille et échelle DPI.
+ */
+public class MonitorInfo implements Serializable {
+    private final String id; // Identifiant du périphérique graphique.
+    private final int x; // Position horizontale dans le bureau virtuel.
+    private final int y; // Position verticale dans le bureau virtuel.
+    private final int width; // Largeur en pixels.
+    private final int height; // Hauteur en pixels.
+    private final double scale; // Facteur d'échelle DPI (1.0 = 96 DPI).
+
+    public MonitorInfo(String id, int x, int y, int width, int height, double scale) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MonitorInfo)) {
+            return false;
+        }
+        MonitorInfo other = (MonitorInfo) o;
+        return x == other.x && y == other.y && width == other.width && height == other.height
+                && Double.compare(scale, other.scale) == 0 && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, x, y, width, height, scale);
+    }
+}
@@ -0,0 +1,207 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Classe MotionDetector qui détecte les régions défilées verticalement entre deux images.
+ * L'écran est découpé en bandes verticales (de la largeur d'une tuile) ; chaque ligne d'une bande est résumée
+ * par un hachage. Pour chaque bande, le décalage le plus fréquent entre les lignes modifiées et les lignes de
+ * l'image précédente est retenu, puis les blocs de lignes qui correspondent sont vérifiés pixel par pixel
+ * et transformés en copies (CopyRect). Les bandes voisines avec le même bloc sont fusionnées.
+ * Les copies sont retournées dans l'ordre où elles doivent être appliquées : vers le bas, de la plus basse à la
+ * plus haute, pour qu'aucune copie n'écrase la source d'une copie suivante de la même bande.
+ * Les hachages de l'image courante sont conservés pour la comparaison suivante.
+ */
+public class MotionDetector {
+    public static final int DEFAULT_MAX_SHIFT = 512; // Décalage vertical maximal recherché, en lignes.
+    private static final int MIN_RUN_ROWS = 16; // Hauteur minimale d'un bloc copié.
+    private static final int MIN_VOTES = 8; // Nombre minimal de lignes déplacées pour retenir un décalage.
+    private static final int UNIFORM = 0; // Hachage réservé aux lignes d'une seule couleur (ambiguës).
+
+    private final int bandWidth; // Largeur d'une bande en pixels.
+    private final int maxShift; // Décalage maximal recherché.
+    private final int[] votes; // Votes par décalage, indexés par dy + maxShift.
+    private int width; // Taille des images comparées.
+    private int height;
+    private int[] previousHashes; // Hachages de l'image précédente, par bande puis par ligne (null = inconnus).
+    private int[] currentHashes; // Hachages de l'image courante.
+    private int[] tableKeys = new int[0]; // Table de hachage ouverte : hachage -> ligne de l'image précédente.
+    private int[] tableRows = new int[0];
+
+    public MotionDetector(int bandWidth) {
+        this(bandWidth, DEFAULT_MAX_SHIFT);
+    }
+
+    public MotionDetector(int bandWidth, int maxShift) {
+        this.bandWidth = bandWidth;
+        this.maxShift = maxShift;
+        this.votes = new int[2 * maxShift + 1];
+    }
+
+    // Enregistre l'image courante sans chercher de déplacement (image clé).
+    public void update(int[] current, int w, int h) {
+        resize(w, h);
+        hashAll(current, previousHashes);
+    }
+
+    // Retourne les copies qui transforment previous en une image plus proche de current.
+    // previous doit être l'image passée à l'appel précédent : ses hachages sont réutilisés.
+    public List<CopyRect> detect(int[] previous, int[] current, int w, int h) {
+        if (w != width || h != height || previousHashes == null) {
+            resize(w, h);
+            hashAll(previous, previousHashes);
+        }
+        hashAll(current, currentHashes);
+        List<CopyRect> copies = new ArrayList<>();
+        int bands = (w + bandWidth - 1) / bandWidth;
+        for (int band = 0; band < bands; band++) {
+            int x0 = band * bandWidth;
+            int bw = Math.min(bandWidth, w - x0);
+            int dy = dominantShift(band * h);
+            if (dy != 0) {
+                addRuns(copies, previous, current, band * h, x0, bw, dy);
+            }
+        }
+        // Deux copies qui partagent des colonnes ont le même décalage (une seule valeur par bande) : les trier
+        // par cette clé suffit, l'ordre relatif des copies de colonnes disjointes est sans effet.
+        copies.sort(Comparator.comparingInt(copy -> copy.getY() > copy.getSrcY() ? -copy.getY() : copy.getY()));
+        int[] swap = previousHashes;
+        previousHashes = currentHashes;
+        currentHashes = swap;
+        return copies;
+    }
+
+    // Décalage vertical le plus fréquent des lignes modifiées de la bande, ou 0.
+    private int dominantShift(int base) {
+        int capacity = tableKeys.length;
+        Arrays.fill(tableKeys, UNIFORM);
+        for (int y = 0; y < height; y++) {
+            int hash = previousHashes[base + y];
+            if (hash != UNIFORM) {
+                int slot = hash & (capacity - 1);
+                while (tableKeys[slot] != UNIFORM && tableKeys[slot] != hash) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                // Une ligne présente plusieurs fois ne vote pas : son décalage serait ambigu.
+                tableRows[slot] = tableKeys[slot] == hash ? -1 : y;
+                tableKeys[slot] = hash;
+            }
+        }
+        int best = 0;
+        int bestVotes = 0;
+        for (int y = 0; y < height; y++) {
+            int hash = currentHashes[base + y];
+            if (hash == UNIFORM || hash == previousHashes[base + y]) {
+                continue;
+            }
+            int slot = hash & (capacity - 1);
+            while (tableKeys[slot] != UNIFORM && tableKeys[slot] != hash) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (tableKeys[slot] != hash || tableRows[slot] < 0) {
+                continue;
+            }
+            int dy = y - tableRows[slot];
+            if (dy != 0 && Math.abs(dy) <= maxShift) {
+                int count = ++votes[dy + maxShift];
+                if (count > bestVotes) {
+                    bestVotes = count;
+                    best = dy;
+                }
+            }
+        }
+        Arrays.fill(votes, 0);
+        return bestVotes >= MIN_VOTES ? best : 0;
+    }
+
+    // Ajoute les blocs de lignes décalées de dy, vérifiés pixel par pixel.
+    private void addRuns(List<CopyRect> copies, int[] previous, int[] current, int base, int x0, int bw, int dy) {
+        int from = Math.max(0, dy);
+        int to = Math.min(height, height + dy);
+        int runStart = -1;
+        int moved = 0;
+        for (int y = from; y <= to; y++) {
+            boolean match = y < to && currentHashes[base + y] == previousHashes[base + y - dy]
+                    && rowEquals(current, y, previous, y - dy, x0, bw);
+            if (match) {
+                if (runStart < 0) {
+                    runStart = y;
+                    moved = 0;
+                }
+                if (currentHashes[base + y] != previousHashes[base + y]) {
+                    moved++;
+                }
+            } else if (runStart >= 0) {
+                // Un bloc qui ne contient que des lignes inchangées ne vaut pas une copie.
+                if (y - runStart >= MIN_RUN_ROWS && moved * 2 >= MIN_RUN_ROWS) {
+                    add(copies, new CopyRect(x0, runStart - dy, x0, runStart, bw, y - runStart));
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    // Fusionne la copie avec celle de la bande voisine lorsqu'elles ont la même hauteur et le même décalage.
+    private static void add(List<CopyRect> copies, CopyRect copy) {
+        for (int i = 0; i < copies.size(); i++) {
+            CopyRect other = copies.get(i);
+            if (other.getX() + other.getWidth() == copy.getX() && other.getY() == copy.getY()
+                    && other.getSrcY() == copy.getSrcY() && other.getHeight() == copy.getHeight()) {
+                copies.set(i, new CopyRect(other.getSrcX(), other.getSrcY(), other.getX(), other.getY(),
+                        other.getWidth() + copy.getWidth(), other.getHeight()));
+                return;
+            }
+        }
+        copies.add(copy);
+    }
+
+    private boolean rowEquals(int[] a, int ya, int[] b, int yb, int x0, int bw) {
+        int from = ya * width + x0;
+        int other = yb * width + x0;
+        return Arrays.mismatch(a, from, from + bw, b, other, other + bw) < 0;
+    }
+
+    // Calcule le hachage de chaque ligne de chaque bande.
+    private void hashAll(int[] pixels, int[] hashes) {
+        int bands = (width + bandWidth - 1) / bandWidth;
+        for (int band = 0; band < bands; band++) {
+            int x0 = band * bandWidth;
+            int bw = Math.min(bandWidth, width - x0);
+            for (int y = 0; y < height; y++) {
+                hashes[band * height + y] = hashRow(pixels, y * width + x0, bw);
+            }
+        }
+    }
+
+    private static int hashRow(int[] pixels, int from, int length) {
+        int first = pixels[from];
+        int hash = 1;
+        boolean uniform = true;
+        for (int i = from; i < from + length; i++) {
+            int pixel = pixels[i];
+            hash = 31 * hash + pixel;
+            uniform &= pixel == first;
+        }
+        if (uniform) {
+            return UNIFORM;
+        }
+        return hash == UNIFORM ? 1 : hash;
+    }
+
+    private void resize(int w, int h) {
+        if (w == width && h == height && previousHashes != null) {
+            return;
+        }
+        width = w;
+        height = h;
+        int size = ((w + bandWidth - 1) / bandWidth) * h;
+        previousHashes = new int[size];
+        currentHashes = new int[size];
+        int capacity = Integer.highestOneBit(Math.max(16, h * 2) - 1) << 1;
+        tableKeys = new int[capacity];
+        tableRows = new int[capacity];
+    }
+}
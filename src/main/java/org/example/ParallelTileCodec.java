@@ -0,0 +1,153 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe ParallelTileCodec qui encode et décode les tuiles indépendantes d'une image en parallèle
+ * sur un ForkJoinPool dédié. Les codecs ne sont pas partagés entre threads : chaque thread du pool
+ * possède ses propres instances, réglées comme le codec de référence (qualité JPEG).
+ * Avec un seul thread, tout est fait dans le thread appelant, sans pool.
+ */
+public class ParallelTileCodec implements AutoCloseable {
+    private static final int TILES_PER_TASK = 4; // En dessous, une tâche n'est plus découpée.
+
+    private final int threads; // Nombre de threads du pool.
+    private final ForkJoinPool pool; // Pool dédié, ou null avec un seul thread.
+    private final ThreadLocal<Map<String, FrameCodec>> codecs = ThreadLocal.withInitial(HashMap::new); // Codecs par thread.
+
+    public ParallelTileCodec(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+        this.pool = threads == 1 ? null : new ForkJoinPool(threads, ParallelTileCodec::newWorker, null, false);
+    }
+
+    // Nombre de threads configuré avec -Drdp.codec.threads, par défaut le nombre de cœurs.
+    public static int configuredThreads() {
+        return Math.max(1, Integer.getInteger("rdp.codec.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    // Encode les régions données de l'image, dans l'ordre, avec des codecs réglés comme le codec de référence.
+    public TileUpdate[] encode(BufferedImage frame, List<Rectangle> regions, FrameCodec reference) throws IOException {
+        TileUpdate[] tiles = new TileUpdate[regions.size()];
+        run(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                encodeRange(frame, regions, reference, tiles, 0, regions.size());
+            }
+        });
+        return tiles;
+    }
+
+    // Décode toutes les tuiles d'une image dans l'image cible ; les tuiles couvrent des régions disjointes.
+    // Les références au cache de tuiles sont ignorées : elles sont résolues par l'appelant.
+    public void decode(FrameDelta delta, BufferedImage target) throws IOException {
+        TileUpdate[] tiles = delta.getTiles().toArray(new TileUpdate[0]);
+        run(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                decodeRange(delta.getCodec(), tiles, target, 0, tiles.length);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private void run(RecursiveAction task) throws IOException {
+        try {
+            if (pool == null) {
+                task.invoke();
+            } else {
+                pool.invoke(task);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void encodeRange(BufferedImage frame, List<Rectangle> regions, FrameCodec reference,
+                             TileUpdate[] tiles, int from, int to) {
+        if (to - from > TILES_PER_TASK && pool != null) {
+            int middle = (from + to) >>> 1;
+            RecursiveAction.invokeAll(
+                    action(() -> encodeRange(frame, regions, reference, tiles, from, middle)),
+                    action(() -> encodeRange(frame, regions, reference, tiles, middle, to)));
+            return;
+        }
+        FrameCodec codec = pool == null ? reference : codecLike(reference);
+        try {
+            for (int i = from; i < to; i++) {
+                Rectangle r = regions.get(i);
+                tiles[i] = new TileUpdate(r.x, r.y, r.width, r.height, codec.encode(frame, r.x, r.y, r.width, r.height));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void decodeRange(String codecName, TileUpdate[] tiles, BufferedImage target, int from, int to) {
+        if (to - from > TILES_PER_TASK && pool != null) {
+            int middle = (from + to) >>> 1;
+            RecursiveAction.invokeAll(
+                    action(() -> decodeRange(codecName, tiles, target, from, middle)),
+                    action(() -> decodeRange(codecName, tiles, target, middle, to)));
+            return;
+        }
+        FrameCodec codec = codecs.get().computeIfAbsent(codecName, FrameCodecs::create);
+        try {
+            for (int i = from; i < to; i++) {
+                TileUpdate tile = tiles[i];
+                if (tile.isReference()) {
+                    continue; // Résolue dans le cache du client après le décodage.
+                }
+                codec.decode(tile.getData(), target, tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Retourne le codec de ce thread pour le format du codec de référence, avec les mêmes réglages.
+    private FrameCodec codecLike(FrameCodec reference) {
+        FrameCodec codec = codecs.get().computeIfAbsent(reference.getName(), FrameCodecs::create);
+        if (reference instanceof JpegCodec && codec instanceof JpegCodec) {
+            ((JpegCodec) codec).setQuality(((JpegCodec) reference).getQuality());
+        }
+        return codec;
+    }
+
+    private static RecursiveAction action(Runnable body) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                body.run();
+            }
+        };
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("tile-codec-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example;
+
+import javax.imageio.ImageWriteParam;
+
+/**
+ * Classe PngCodec : compression PNG sans perte, format historique conservé pour compatibilité.
+ */
+public class PngCodec extends ImageIOCodec {
+
+    public PngCodec() {
+        super("png");
+    }
+
+    @Override
+    public String getName() {
+        return FrameCodecs.PNG;
+    }
+
+    @Override
+    protected ImageWriteParam writeParam() {
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example;
+
+/**
+ * Classe RecordedEvent : événement lu dans un enregistrement de session (voir RecordingReader).
+ * Selon le type (constantes de WireProtocol), contient une image, un lot d'entrées ou une position du curseur.
+ */
+public class RecordedEvent {
+    private final long timestampNanos; // Temps écoulé depuis le début de l'enregistrement.
+    private final byte type; // WireProtocol.FRAME, INPUT ou CURSOR.
+    private final FrameDelta frame; // Image, pour FRAME.
+    private final int[] inputEvents; // Événements au format InputRecords, pour INPUT.
+    private final long cursor; // Position au format CursorPosition, pour CURSOR.
+
+    public RecordedEvent(long timestampNanos, byte type, FrameDelta frame, int[] inputEvents, long cursor) {
+        this.timestampNanos = timestampNanos;
+        this.type = type;
+        this.frame = frame;
+        this.inputEvents = inputEvents;
+        this.cursor = cursor;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public FrameDelta getFrame() {
+        return frame;
+    }
+
+    public int[] getInputEvents() {
+        return inputEvents;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+}
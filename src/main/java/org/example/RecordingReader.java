@@ -0,0 +1,142 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe RecordingReader qui relit un enregistrement écrit par SessionRecorder.
+ * L'index des images clés est chargé en mémoire ; seek s'y positionne par recherche dichotomique,
+ * puis next lit les événements dans l'ordre à partir des segments projetés en mémoire (lecture seule).
+ * La lecture commence toujours sur une image clé : le lecteur peut afficher l'image sans rien lire avant.
+ */
+public class RecordingReader implements AutoCloseable {
+    private final Path directory; // Répertoire de l'enregistrement.
+    private final List<MappedByteBuffer> segments = new ArrayList<>(); // Segments projetés, par numéro.
+    private final long[] keyFrameTimes; // Horodatage de chaque image clé, croissant.
+    private final int[] keyFrameSegments; // Segment de chaque image clé.
+    private final int[] keyFrameOffsets; // Position de chaque image clé dans son segment.
+    private final long startMillis; // Début de l'enregistrement.
+    private int segment; // Position de lecture.
+    private int offset = SessionRecorder.SEGMENT_HEADER_BYTES;
+
+    public RecordingReader(Path directory) throws IOException {
+        this.directory = directory;
+        for (int i = 0; Files.exists(directory.resolve(SessionRecorder.segmentName(i))); i++) {
+            segments.add(map(directory.resolve(SessionRecorder.segmentName(i))));
+        }
+        if (segments.isEmpty()) {
+            throw new IOException("No recording in " + directory);
+        }
+        startMillis = segments.get(0).getLong(8);
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(SessionRecorder.INDEX_FILE)));
+        checkHeader(index, SessionRecorder.INDEX_FILE);
+        // Une entrée incomplète (arrêt brutal du serveur) est ignorée.
+        int count = (index.limit() - SessionRecorder.INDEX_HEADER_BYTES) / SessionRecorder.INDEX_ENTRY_BYTES;
+        keyFrameTimes = new long[count];
+        keyFrameSegments = new int[count];
+        keyFrameOffsets = new int[count];
+        index.position(SessionRecorder.INDEX_HEADER_BYTES);
+        for (int i = 0; i < count; i++) {
+            keyFrameTimes[i] = index.getLong();
+            keyFrameSegments[i] = index.getInt();
+            keyFrameOffsets[i] = index.getInt();
+        }
+        seek(0);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Heure de début de l'enregistrement (ms depuis l'époque).
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public int getKeyFrameCount() {
+        return keyFrameTimes.length;
+    }
+
+    // Se positionne sur la dernière image clé antérieure ou égale à timestampNanos (la première s'il n'y en a pas).
+    // Retourne l'horodatage de l'image clé retenue, ou -1 si l'enregistrement n'en contient aucune.
+    public long seek(long timestampNanos) {
+        if (keyFrameTimes.length == 0) {
+            segment = 0;
+            offset = SessionRecorder.SEGMENT_HEADER_BYTES;
+            return -1;
+        }
+        int low = 0;
+        int high = keyFrameTimes.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (keyFrameTimes[middle] <= timestampNanos) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        segment = keyFrameSegments[low];
+        offset = keyFrameOffsets[low];
+        return keyFrameTimes[low];
+    }
+
+    // Lit l'événement suivant ; retourne null à la fin de l'enregistrement.
+    public RecordedEvent next() throws IOException {
+        while (segment < segments.size()) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int header = SessionRecorder.RECORD_HEADER_BYTES;
+            if (offset + header + WireProtocol.HEADER_BYTES <= buffer.limit() && buffer.getInt(offset + header) != 0) {
+                long timestamp = buffer.getLong(offset);
+                int length = WireProtocol.checkLength(buffer.getInt(offset + header));
+                if (offset + header + 4 + length > buffer.limit()) {
+                    throw new IOException("Truncated record in " + SessionRecorder.segmentName(segment) + " at " + offset);
+                }
+                ByteBuffer message = buffer.duplicate();
+                message.position(offset + header + 4).limit(offset + header + 4 + length);
+                message = message.slice();
+                offset += header + 4 + length;
+                byte type = message.get();
+                switch (type) {
+                    case WireProtocol.FRAME:
+                        return new RecordedEvent(timestamp, type, WireProtocol.readFrame(message), null, 0);
+                    case WireProtocol.INPUT:
+                        return new RecordedEvent(timestamp, type, null, WireProtocol.readInput(message), 0);
+                    case WireProtocol.CURSOR:
+                        return new RecordedEvent(timestamp, type, null, null, message.getLong());
+                    default:
+                        throw new IOException("Unknown record type " + type);
+                }
+            }
+            // Fin du segment : longueur nulle ou fin du fichier.
+            segment++;
+            offset = SessionRecorder.SEGMENT_HEADER_BYTES;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        segments.clear(); // Les projections sont libérées par le ramasse-miettes.
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, file.getFileName().toString());
+            return buffer;
+        }
+    }
+
+    private static void checkHeader(ByteBuffer buffer, String name) throws IOException {
+        if (buffer.limit() < 8 || buffer.getInt(0) != SessionRecorder.MAGIC || buffer.getInt(4) != SessionRecorder.VERSION) {
+            throw new IOException(name + " is not a session recording");
+        }
+    }
+}
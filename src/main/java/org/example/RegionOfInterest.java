@@ -0,0 +1,160 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.io.Serializable;
+
+/**
+ * Classe RegionOfInterest qui décrit la partie de l'écran du serveur qu'une session veut recevoir :
+ * l'écran entier, tout le bureau virtuel (tous les écrans), un rectangle, un écran donné,
+ * ou une zone de taille fixe centrée sur le curseur qui suit la fenêtre où l'utilisateur travaille.
+ * Cette dernière se déplace par pas d'une tuile : les petits mouvements du curseur ne la déplacent pas,
+ * et un déplacement reste un défilement de tuiles entières, transmis comme copie.
+ * La zone est résolue à chaque capture avec la géométrie et la position du curseur courantes,
+ * puis limitée au bureau du serveur.
+ */
+public class RegionOfInterest implements Serializable {
+    public enum Kind { SCREEN, DESKTOP, RECTANGLE, MONITOR, FOLLOW_CURSOR }
+
+    public static final RegionOfInterest SCREEN = new RegionOfInterest(Kind.SCREEN, null, 0, 0, 0, 0);
+    public static final RegionOfInterest DESKTOP = new RegionOfInterest(Kind.DESKTOP, null, 0, 0, 0, 0);
+    public static final int FOLLOW_STEP = TileDiffer.DEFAULT_TILE_SIZE; // Pas de déplacement de FOLLOW_CURSOR.
+
+    private final Kind kind; // Type de zone.
+    private final String monitorId; // Identifiant de l'écran, pour MONITOR.
+    private final int x; // Position du rectangle, pour RECTANGLE.
+    private final int y;
+    private final int width; // Taille du rectangle (RECTANGLE) ou de la zone suivie (FOLLOW_CURSOR).
+    private final int height;
+
+    private RegionOfInterest(Kind kind, String monitorId, int x, int y, int width, int height) {
+        this.kind = kind;
+        this.monitorId = monitorId;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    // Rectangle fixe, en coordonnées du bureau du serveur.
+    public static RegionOfInterest rectangle(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Empty region: " + width + "x" + height);
+        }
+        return new RegionOfInterest(Kind.RECTANGLE, null, x, y, width, height);
+    }
+
+    // Écran identifié comme dans ScreenGeometry.getMonitors().
+    public static RegionOfInterest monitor(String monitorId) {
+        return new RegionOfInterest(Kind.MONITOR, monitorId, 0, 0, 0, 0);
+    }
+
+    // Zone de la taille donnée centrée sur le curseur, qui se déplace avec lui.
+    public static RegionOfInterest followCursor(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Empty region: " + width + "x" + height);
+        }
+        return new RegionOfInterest(Kind.FOLLOW_CURSOR, null, 0, 0, width, height);
+    }
+
+    // Lit une zone au format de -Drdp.region : "screen", "desktop", "monitor:<id>", "follow:WxH" ou "x,y,w,h".
+    public static RegionOfInterest parse(String spec) {
+        if (spec.equals("screen")) {
+            return SCREEN;
+        }
+        if (spec.equals("desktop")) {
+            return DESKTOP;
+        }
+        if (spec.startsWith("monitor:")) {
+            return monitor(spec.substring("monitor:".length()));
+        }
+        if (spec.startsWith("follow:")) {
+            String[] size = spec.substring("follow:".length()).split("x");
+            return followCursor(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+        }
+        String[] bounds = spec.split(",");
+        if (bounds.length != 4) {
+            throw new IllegalArgumentException("Unknown region: " + spec);
+        }
+        return rectangle(Integer.parseInt(bounds[0].trim()), Integer.parseInt(bounds[1].trim()),
+                Integer.parseInt(bounds[2].trim()), Integer.parseInt(bounds[3].trim()));
+    }
+
+    // Calcule la zone à capturer pour la géométrie et la position du curseur (format CursorPosition) données.
+    // Le résultat est limité au bureau ; une zone vide (écran débranché, rectangle hors du bureau) donne l'écran entier.
+    public Rectangle resolve(ScreenGeometry geometry, long cursor) {
+        Rectangle screen = new Rectangle(0, 0, geometry.getWidth(), geometry.getHeight());
+        Rectangle desktop = desktopBounds(geometry);
+        Rectangle bounds;
+        switch (kind) {
+            case DESKTOP:
+                bounds = desktop;
+                break;
+            case RECTANGLE:
+                bounds = new Rectangle(x, y, width, height);
+                break;
+            case MONITOR:
+                bounds = null;
+                for (MonitorInfo monitor : geometry.getMonitors()) {
+                    if (monitor.getId().equals(monitorId)) {
+                        bounds = new Rectangle(monitor.getX(), monitor.getY(), monitor.getWidth(), monitor.getHeight());
+                    }
+                }
+                break;
+            case FOLLOW_CURSOR:
+                // Position centrée sur le curseur arrondie au pas le plus proche, à partir du coin du bureau.
+                // La zone reste entière dans le bureau : près d'un bord, elle cesse de se déplacer.
+                int w = Math.min(width, desktop.width);
+                int h = Math.min(height, desktop.height);
+                int left = desktop.x + step(CursorPosition.x(cursor) - w / 2 - desktop.x);
+                int top = desktop.y + step(CursorPosition.y(cursor) - h / 2 - desktop.y);
+                left = Math.max(desktop.x, Math.min(left, desktop.x + desktop.width - w));
+                top = Math.max(desktop.y, Math.min(top, desktop.y + desktop.height - h));
+                bounds = new Rectangle(left, top, w, h);
+                break;
+            default:
+                bounds = screen;
+                break;
+        }
+        if (bounds == null) {
+            return screen;
+        }
+        bounds = bounds.intersection(desktop);
+        return bounds.isEmpty() ? screen : bounds;
+    }
+
+    // Arrondit une position au multiple de FOLLOW_STEP le plus proche.
+    private static int step(int offset) {
+        return Math.floorDiv(offset + FOLLOW_STEP / 2, FOLLOW_STEP) * FOLLOW_STEP;
+    }
+
+    // Rectangle englobant tous les écrans du serveur, ou l'écran principal si la disposition est inconnue.
+    public static Rectangle desktopBounds(ScreenGeometry geometry) {
+        Rectangle desktop = new Rectangle(0, 0, geometry.getWidth(), geometry.getHeight());
+        for (MonitorInfo monitor : geometry.getMonitors()) {
+            desktop = desktop.union(new Rectangle(monitor.getX(), monitor.getY(), monitor.getWidth(), monitor.getHeight()));
+        }
+        return desktop;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getMonitorId() {
+        return monitorId;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case RECTANGLE:
+                return x + "," + y + "," + width + "," + height;
+            case MONITOR:
+                return "monitor:" + monitorId;
+            case FOLLOW_CURSOR:
+                return "follow:" + width + "x" + height;
+            default:
+                return kind.name().toLowerCase();
+        }
+    }
+}
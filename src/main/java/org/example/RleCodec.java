@@ -0,0 +1,118 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe RleCodec : pixels RGB bruts compressés par plages de pixels identiques.
+ * Très peu coûteux en CPU, adapté au réseau local et aux contenus d'écran (aplats, texte).
+ * Format : suite de (longueur de plage en varint, rouge, vert, bleu).
+ */
+public class RleCodec implements FrameCodec {
+    private int[] pixels = new int[0]; // Tampon de pixels réutilisé pour l'encodage et le décodage.
+    private byte[] out = new byte[16 * 1024]; // Tampon de sortie réutilisé.
+
+    @Override
+    public String getName() {
+        return FrameCodecs.RLE;
+    }
+
+    @Override
+    public byte[] encode(BufferedImage source, int x, int y, int width, int height) {
+        int[] data = readPixels(source, x, y, width, height);
+        int count = width * height;
+        int pos = 0;
+        int i = 0;
+        while (i < count) {
+            int pixel = data[i];
+            int run = 1;
+            while (i + run < count && data[i + run] == pixel) {
+                run++;
+            }
+            ensureCapacity(pos + 8);
+            pos = writeVarInt(run, pos);
+            out[pos++] = (byte) (pixel >> 16);
+            out[pos++] = (byte) (pixel >> 8);
+            out[pos++] = (byte) pixel;
+            i += run;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    @Override
+    public void decode(byte[] data, BufferedImage target, int x, int y, int width, int height) throws IOException {
+        int count = width * height;
+        int[] decoded = buffer(count);
+        int pos = 0;
+        int i = 0;
+        try {
+            while (i < count) {
+                int run = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (shift > 28) {
+                        throw new IOException("Corrupt RLE tile: run length longer than 5 bytes");
+                    }
+                    b = data[pos++];
+                    run |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int pixel = 0xFF000000 | (data[pos] & 0xFF) << 16 | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF);
+                pos += 3;
+                // Une plage vide, ou négative après débordement du varint, est aussi rejetée.
+                if (run <= 0 || run > count - i) {
+                    throw new IOException("Corrupt RLE tile: run of " + run + " pixels at pixel " + i + " of " + count);
+                }
+                Arrays.fill(decoded, i, i + run, pixel);
+                i += run;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated RLE tile", e);
+        }
+        writePixels(target, x, y, width, height, decoded);
+    }
+
+    // Lit les pixels d'une région, directement depuis le raster lorsque l'image est en TYPE_INT_RGB.
+    private int[] readPixels(BufferedImage source, int x, int y, int width, int height) {
+        int[] data = buffer(width * height);
+        if (source.getRaster().getDataBuffer() instanceof DataBufferInt && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            source.getRaster().getDataElements(x, y, width, height, data);
+            return data;
+        }
+        return source.getRGB(x, y, width, height, data, 0, width);
+    }
+
+    // Écrit les pixels dans une région de l'image cible.
+    static void writePixels(BufferedImage target, int x, int y, int width, int height, int[] data) {
+        if (target.getType() == BufferedImage.TYPE_INT_RGB) {
+            target.getRaster().setDataElements(x, y, width, height, data);
+        } else {
+            target.setRGB(x, y, width, height, data, 0, width);
+        }
+    }
+
+    private int[] buffer(int size) {
+        if (pixels.length < size) {
+            pixels = new int[size];
+        }
+        return pixels;
+    }
+
+    private void ensureCapacity(int size) {
+        if (out.length < size) {
+            out = Arrays.copyOf(out, Math.max(size, out.length * 2));
+        }
+    }
+
+    private int writeVarInt(int value, int pos) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import java.awt.AWTException;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Robot;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Classe RobotCaptureSource qui capture l'écran réel du serveur avec Robot.createScreenCapture.
+ * Nécessite un affichage : lève AWTException (ou HeadlessException) sur une machine sans écran.
+ * Sur un serveur à plusieurs écrans, une zone qui en couvre plusieurs est capturée écran par écran en parallèle,
+ * avec un Robot par écran (createScreenCapture est synchronisé : un seul Robot capturerait les écrans l'un après
+ * l'autre), puis les parties sont assemblées dans une seule image.
+ */
+public class RobotCaptureSource implements CaptureSource {
+    private final Robot robot; // Robot dédié à la capture, distinct de celui qui rejoue les entrées.
+    private final Map<GraphicsDevice, Robot> deviceRobots = new ConcurrentHashMap<>(); // Robot de chaque écran.
+    private final ExecutorService captureThreads = Executors.newCachedThreadPool(
+            task -> Threads.newThread("screen-capture", task)); // Capture des écrans autres que le premier.
+
+    public RobotCaptureSource() throws AWTException {
+        this.robot = new Robot();
+    }
+
+    @Override
+    public BufferedImage capture(Rectangle bounds) {
+        List<GraphicsDevice> devices = new ArrayList<>();
+        List<Rectangle> parts = new ArrayList<>();
+        for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+            Rectangle part = device.getDefaultConfiguration().getBounds().intersection(bounds);
+            if (!part.isEmpty()) {
+                devices.add(device);
+                parts.add(part);
+            }
+        }
+        if (parts.size() <= 1) {
+            return robot.createScreenCapture(bounds);
+        }
+        // Le premier écran est capturé dans le thread appelant, les autres en parallèle.
+        List<CompletableFuture<BufferedImage>> others = new ArrayList<>();
+        for (int i = 1; i < parts.size(); i++) {
+            Robot deviceRobot = robotFor(devices.get(i));
+            Rectangle part = parts.get(i);
+            others.add(CompletableFuture.supplyAsync(() -> deviceRobot.createScreenCapture(part), captureThreads));
+        }
+        BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_RGB);
+        draw(image, bounds, parts.get(0), robotFor(devices.get(0)).createScreenCapture(parts.get(0)));
+        try {
+            for (int i = 1; i < parts.size(); i++) {
+                draw(image, bounds, parts.get(i), others.get(i - 1).join());
+            }
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Screen capture failed", e.getCause());
+        }
+        return image;
+    }
+
+    @Override
+    public ScreenGeometry detectGeometry(long version) {
+        return ScreenGeometry.detect(version);
+    }
+
+    // Robot propre à un écran, créé à sa première capture.
+    private Robot robotFor(GraphicsDevice device) {
+        return deviceRobots.computeIfAbsent(device, d -> {
+            try {
+                return new Robot(d);
+            } catch (AWTException e) {
+                throw new IllegalStateException("Cannot capture screen " + d.getIDstring(), e);
+            }
+        });
+    }
+
+    // Copie la capture d'un écran à sa place dans l'image de la zone ; les espaces entre écrans restent noirs.
+    // Les deux images sont en TYPE_INT_RGB : la copie se fait ligne par ligne, sans conversion de couleur.
+    private static void draw(BufferedImage image, Rectangle bounds, Rectangle part, BufferedImage capture) {
+        image.getRaster().setDataElements(part.x - bounds.x, part.y - bounds.y, capture.getRaster());
+    }
+}
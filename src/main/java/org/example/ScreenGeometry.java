@@ -0,0 +1,82 @@
+package org.example;
+
+import java.awt.Dimension;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe ScreenGeometry qui décrit la géométrie de l'écran du serveur : taille de l'écran capturé,
+ * disposition des écrans et échelle DPI.
+ * Envoyée une fois à l'enregistrement puis conservée par le client ; le numéro de version change
+ * lorsque la résolution ou la disposition des écrans du serveur change.
+ */
+public class ScreenGeometry implements Serializable {
+    private final long version; // Version de la géométrie, incrémentée à chaque changement.
+    private final int width; // Largeur de l'écran capturé.
+    private final int height; // Hauteur de l'écran capturé.
+    private final double scale; // Échelle DPI de l'écran principal.
+    private final List<MonitorInfo> monitors; // Écrans du serveur.
+
+    public ScreenGeometry(long version, int width, int height, double scale, List<MonitorInfo> monitors) {
+        this.version = version;
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+        this.monitors = monitors;
+    }
+
+    // Lit la géométrie courante des écrans locaux.
+    public static ScreenGeometry detect(long version) {
+        Dimension size = Toolkit.getDefaultToolkit().getScreenSize();
+        GraphicsEnvironment environment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+        List<MonitorInfo> monitors = new ArrayList<>();
+        double scale = 1.0;
+        for (GraphicsDevice device : environment.getScreenDevices()) {
+            GraphicsConfiguration configuration = device.getDefaultConfiguration();
+            Rectangle bounds = configuration.getBounds();
+            double deviceScale = configuration.getDefaultTransform().getScaleX();
+            monitors.add(new MonitorInfo(device.getIDstring(), bounds.x, bounds.y, bounds.width, bounds.height, deviceScale));
+            if (device == environment.getDefaultScreenDevice()) {
+                scale = deviceScale;
+            }
+        }
+        return new ScreenGeometry(version, size.width, size.height, scale, List.copyOf(monitors));
+    }
+
+    // Indique si la géométrie décrit la même résolution et la même disposition, indépendamment de la version.
+    public boolean sameLayout(ScreenGeometry other) {
+        return other != null && width == other.width && height == other.height
+                && Double.compare(scale, other.scale) == 0 && monitors.equals(other.monitors);
+    }
+
+    // Retourne une copie de la géométrie avec un autre numéro de version.
+    public ScreenGeometry withVersion(long newVersion) {
+        return new ScreenGeometry(newVersion, width, height, scale, monitors);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public List<MonitorInfo> getMonitors() {
+        return monitors;
+    }
+}
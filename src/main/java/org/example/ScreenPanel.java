@@ -0,0 +1,228 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Classe ScreenPanel qui affiche l'écran distant à la taille du panneau.
+ * L'image reçue reste à la résolution du serveur ; elle est redimensionnée une seule fois par image dans un
+ * tampon VolatileImage compatible avec l'écran, et seules les régions modifiées sont redessinées.
+ * Un redimensionnement de la fenêtre provoque un seul recalcul complet du tampon.
+ * Le curseur distant est dessiné par-dessus le tampon, sans le modifier : le déplacer ne redessine que
+ * son ancienne et sa nouvelle position.
+ */
+public class ScreenPanel extends JPanel {
+    private static final int MAX_PENDING_REGIONS = 64; // Au-delà, les régions en attente sont fusionnées.
+    private static final int EDGE_MARGIN = 1; // Marge en pixels autour d'une région, pour l'arrondi et l'interpolation.
+
+    private final Object lock = new Object(); // Protège frame, pendingRegions, fullRedraw et le curseur.
+    private BufferedImage frame; // Image à la résolution du serveur, mise à jour hors de l'EDT.
+    private final List<Rectangle> pendingRegions = new ArrayList<>(); // Régions modifiées, en coordonnées du serveur.
+    private boolean fullRedraw = true; // Le tampon doit être entièrement recalculé.
+    private VolatileImage backBuffer; // Tampon à la taille du panneau, utilisé seulement sur l'EDT.
+    private BufferedImage cursorImage; // Image du curseur distant, ou null s'il est caché.
+    private int cursorX; // Position du point actif du curseur, en coordonnées du serveur.
+    private int cursorY;
+    private int cursorHotspotX; // Point actif relatif à l'image du curseur.
+    private int cursorHotspotY;
+
+    // Constructeur du panneau.
+    public ScreenPanel() {
+        setOpaque(true);
+        setBackground(Color.BLACK);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                synchronized (lock) {
+                    fullRedraw = true;
+                    pendingRegions.clear();
+                }
+                repaint();
+            }
+        });
+    }
+
+    // Remplace l'image affichée (image clé ou changement de résolution) : le tampon sera entièrement recalculé.
+    public void setFrame(BufferedImage image) {
+        synchronized (lock) {
+            frame = image;
+            fullRedraw = true;
+            pendingRegions.clear();
+        }
+        repaint();
+    }
+
+    // Remplace l'image affichée et rend l'ancienne à release une fois qu'aucun dessin ne peut plus la lire.
+    // Le dessin a lieu sur l'EDT : la restitution y est faite après le dessin éventuellement en cours,
+    // et les dessins suivants lisent déjà la nouvelle image.
+    public void replaceFrame(BufferedImage image, Consumer<BufferedImage> release) {
+        BufferedImage previous;
+        synchronized (lock) {
+            previous = frame;
+        }
+        setFrame(image);
+        if (previous != null && previous != image) {
+            SwingUtilities.invokeLater(() -> release.accept(previous));
+        }
+    }
+
+    // Signale une région modifiée de l'image courante, en coordonnées du serveur. Appelable depuis n'importe quel thread.
+    public void markDirty(int x, int y, int width, int height) {
+        synchronized (lock) {
+            if (fullRedraw) {
+                return;
+            }
+            if (pendingRegions.size() >= MAX_PENDING_REGIONS) {
+                Rectangle union = new Rectangle(x, y, width, height);
+                for (Rectangle region : pendingRegions) {
+                    union.add(region);
+                }
+                pendingRegions.clear();
+                pendingRegions.add(union);
+            } else {
+                pendingRegions.add(new Rectangle(x, y, width, height));
+            }
+        }
+    }
+
+    // Place le curseur distant ; image null pour le cacher. Appelable depuis n'importe quel thread.
+    public void setRemoteCursor(BufferedImage image, int hotspotX, int hotspotY, int x, int y) {
+        Rectangle before;
+        Rectangle after;
+        synchronized (lock) {
+            before = cursorBounds(getWidth(), getHeight());
+            cursorImage = image;
+            cursorHotspotX = hotspotX;
+            cursorHotspotY = hotspotY;
+            cursorX = x;
+            cursorY = y;
+            after = cursorBounds(getWidth(), getHeight());
+        }
+        if (before != null) {
+            repaint(before);
+        }
+        if (after != null) {
+            repaint(after);
+        }
+    }
+
+    // Demande le rafraîchissement des régions signalées depuis le dernier appel.
+    public void flushDirty() {
+        int panelWidth = getWidth();
+        int panelHeight = getHeight();
+        Rectangle bounds = null;
+        synchronized (lock) {
+            if (frame == null || fullRedraw) {
+                bounds = new Rectangle(0, 0, panelWidth, panelHeight);
+            } else {
+                for (Rectangle region : pendingRegions) {
+                    Rectangle scaled = toPanel(region, frame, panelWidth, panelHeight);
+                    if (bounds == null) {
+                        bounds = scaled;
+                    } else {
+                        bounds.add(scaled);
+                    }
+                }
+            }
+        }
+        if (bounds != null) {
+            repaint(bounds);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        BufferedImage source;
+        List<Rectangle> regions;
+        boolean full;
+        BufferedImage cursor;
+        Rectangle cursorArea;
+        synchronized (lock) {
+            cursor = cursorImage;
+            cursorArea = cursorBounds(getWidth(), getHeight());
+            source = frame;
+            full = fullRedraw;
+            regions = new ArrayList<>(pendingRegions);
+            pendingRegions.clear();
+            fullRedraw = false;
+        }
+        int width = getWidth();
+        int height = getHeight();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (source == null || width <= 0 || height <= 0 || gc == null) {
+            super.paintComponent(g);
+            return;
+        }
+        do {
+            if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+                if (backBuffer != null) {
+                    backBuffer.flush();
+                }
+                backBuffer = gc.createCompatibleVolatileImage(width, height);
+                full = true;
+            }
+            int status = backBuffer.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                backBuffer.flush();
+                backBuffer = gc.createCompatibleVolatileImage(width, height);
+                full = true;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                full = true;
+            }
+            render(source, full ? null : regions, width, height);
+            g.drawImage(backBuffer, 0, 0, null);
+            if (cursorArea != null) {
+                g.drawImage(cursor, cursorArea.x, cursorArea.y, null);
+            }
+            // Si le contenu a été perdu entre-temps, tout est redessiné au tour suivant.
+            full = true;
+        } while (backBuffer.contentsLost());
+    }
+
+    // Zone du curseur dans le panneau, ou null s'il est caché. Appelée avec lock.
+    private Rectangle cursorBounds(int width, int height) {
+        if (cursorImage == null || frame == null || width <= 0 || height <= 0) {
+            return null;
+        }
+        int x = (int) ((long) cursorX * width / frame.getWidth()) - cursorHotspotX;
+        int y = (int) ((long) cursorY * height / frame.getHeight()) - cursorHotspotY;
+        return new Rectangle(x, y, cursorImage.getWidth(), cursorImage.getHeight());
+    }
+
+    // Redimensionne l'image source dans le tampon : entièrement, ou seulement dans les régions données.
+    // Chaque région est dessinée avec un clip sur l'image entière, pour que l'interpolation ne crée pas de joints.
+    private void render(BufferedImage source, List<Rectangle> regions, int width, int height) {
+        Graphics2D g = backBuffer.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            if (regions == null) {
+                g.drawImage(source, 0, 0, width, height, null);
+                return;
+            }
+            for (Rectangle region : regions) {
+                g.setClip(toPanel(region, source, width, height));
+                g.drawImage(source, 0, 0, width, height, null);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Convertit une région en coordonnées du serveur en région du panneau, élargie pour couvrir l'arrondi.
+    private static Rectangle toPanel(Rectangle region, BufferedImage source, int width, int height) {
+        double scaleX = (double) width / source.getWidth();
+        double scaleY = (double) height / source.getHeight();
+        int x0 = (int) Math.floor(region.x * scaleX) - EDGE_MARGIN;
+        int y0 = (int) Math.floor(region.y * scaleY) - EDGE_MARGIN;
+        int x1 = (int) Math.ceil((region.x + region.width) * scaleX) + EDGE_MARGIN;
+        int y1 = (int) Math.ceil((region.y + region.height) * scaleY) + EDGE_MARGIN;
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+}
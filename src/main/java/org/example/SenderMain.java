@@ -32,6 +32,13 @@ public class SenderMain {
                 // Lie l'instance du serveur au registre sous le nom "Server".
                 registry.rebind("Server", server);
 
+                // Avec --transport=socket, les images et les entrées passent par une connexion TCP dédiée.
+                if (Transport.fromArgs(args) == Transport.SOCKET) {
+                    SocketTransportServer transport = server.startSocketTransport(SocketTransportServer.configuredPort());
+                    System.out.println("Socket transport listening on " + transport.getAddress().getHostAddress()
+                            + ":" + transport.getPort());
+                }
+
                 // Obtient l'adresse IP locale du serveur.
                 InetAddress ipAddress = InetAddress.getLocalHost();
                 String serverIpAddress = ipAddress.getHostAddress();
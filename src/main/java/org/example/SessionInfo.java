@@ -0,0 +1,31 @@
+package org.example;
+
+import java.io.Serializable;
+
+/**
+ * Classe SessionInfo retournée au client lors de l'enregistrement : identifiant de session, codec retenu
+ * et géométrie de l'écran du serveur.
+ */
+public class SessionInfo implements Serializable {
+    private final String sessionId; // Identifiant de la session, à rappeler pour chaque appel propre au spectateur.
+    private final String codec; // Codec négocié pour les tuiles.
+    private final ScreenGeometry geometry; // Géométrie de l'écran du serveur, à conserver côté client.
+
+    public SessionInfo(String sessionId, String codec, ScreenGeometry geometry) {
+        this.sessionId = sessionId;
+        this.codec = codec;
+        this.geometry = geometry;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public ScreenGeometry getGeometry() {
+        return geometry;
+    }
+}
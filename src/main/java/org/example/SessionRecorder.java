@@ -0,0 +1,294 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Classe SessionRecorder qui enregistre les images déjà encodées, les positions du curseur et les entrées
+ * dans un journal en ajout seul, découpé en segments écrits par projection mémoire (MappedByteBuffer).
+ * Chaque enregistrement est un horodatage (nanosecondes depuis le début) suivi d'un message WireProtocol.
+ * Une image clé est écrite à intervalle régulier et son emplacement est ajouté à un index compact
+ * (horodatage, segment, position) : RecordingReader s'y positionne sans parcourir l'enregistrement.
+ * L'image clé est reconstituée par l'enregistreur à partir des tuiles de l'image publiée (EncodedFrame.deltaSince),
+ * sans rien demander au pipeline partagé par les spectateurs.
+ * Lorsque plusieurs zones sont diffusées, un seul flux est enregistré ; l'enregistrement passe à un autre flux,
+ * par une image clé, lorsque le sien n'a rien publié pendant un intervalle d'images clés.
+ * Les appels venant du pipeline ne font que mettre l'événement en file ; l'écriture a lieu dans une tâche dédiée
+ * et, si elle prend du retard, les événements en excès sont abandonnés plutôt que de ralentir la diffusion.
+ * Les fichiers ne sont manipulés que par la tâche d'écriture, qui les ferme en s'arrêtant.
+ */
+public class SessionRecorder implements AutoCloseable {
+    public static final int MAGIC = 0x52445052; // "RDPR", en tête de chaque segment et de l'index.
+    public static final int VERSION = 2; // Version du format (2 : zone capturée dans l'en-tête des images).
+    public static final int SEGMENT_HEADER_BYTES = 16; // Magique, version, début de l'enregistrement (ms).
+    public static final int RECORD_HEADER_BYTES = 8; // Horodatage précédant chaque message.
+    public static final int INDEX_HEADER_BYTES = 8; // Magique, version.
+    public static final int INDEX_ENTRY_BYTES = 16; // Horodatage, segment, position d'une image clé.
+    public static final String INDEX_FILE = "index.ridx";
+    private static final int QUEUE_CAPACITY = 1024; // Événements en attente d'écriture.
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5); // Attente de la fin de l'écriture.
+    private static final Entry STOP = new Entry((byte) 0, 0, null, null, 0); // Dernier événement : arrête l'écriture.
+
+    private final Path directory; // Répertoire de l'enregistrement.
+    private final long segmentBytes; // Taille d'un segment, réglable avec -Drdp.record.segmentMiB.
+    private final long keyFrameNanos; // Intervalle entre deux images clés, réglable avec -Drdp.record.keyFrameSeconds.
+    private final long startNanos = System.nanoTime(); // Origine des horodatages.
+    private final long startMillis = System.currentTimeMillis(); // Début de l'enregistrement, écrit dans les segments.
+    // Événements à écrire ; la tâche d'écriture attend dans take lorsque la file est vide.
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final FileChannel index; // Index des images clés.
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+    private final Histogram writeTime; // Durée d'écriture d'un événement.
+    private final LongAdder writtenBytes;
+    private final LongAdder dropped;
+    private MappedByteBuffer segment; // Segment en cours d'écriture (tâche d'écriture uniquement).
+    private FileChannel segmentChannel;
+    private int segmentIndex = -1;
+    private long lastFrameId; // Dernière image enregistrée (0 : la suivante sera une image clé).
+    private long lastKeyFrameNanos;
+    private long lastStreamId; // Flux enregistré (voir EncodedFrame.getStreamId).
+    private long lastFrameNanos; // Heure de la dernière image enregistrée.
+    private Thread writer;
+    private volatile boolean closed;
+    private volatile boolean failed; // Une écriture a échoué : les événements suivants sont ignorés.
+
+    // Événement en attente d'écriture.
+    private static class Entry {
+        final byte type;
+        final long nanos;
+        final EncodedFrame frame;
+        final int[] events;
+        final long cursor;
+
+        Entry(byte type, long nanos, EncodedFrame frame, int[] events, long cursor) {
+            this.type = type;
+            this.nanos = nanos;
+            this.frame = frame;
+            this.events = events;
+            this.cursor = cursor;
+        }
+    }
+
+    public SessionRecorder(Path directory, Metrics metrics) throws IOException {
+        this(directory, metrics, TimeUnit.SECONDS.toNanos(Long.getLong("rdp.record.keyFrameSeconds", 10)));
+    }
+
+    // Enregistreur avec un intervalle explicite entre deux images clés.
+    public SessionRecorder(Path directory, Metrics metrics, long keyFrameNanos) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = Long.getLong("rdp.record.segmentMiB", 64) * 1024 * 1024;
+        this.keyFrameNanos = keyFrameNanos;
+        this.writeTime = metrics.histogram(Metrics.RECORD_WRITE, Histogram.NANOS);
+        this.writtenBytes = metrics.counter(Metrics.RECORD_BYTES);
+        this.dropped = metrics.counter(Metrics.RECORD_DROPPED);
+        // CREATE_NEW : un enregistrement existant n'est jamais écrasé.
+        this.index = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        index.write(header);
+    }
+
+    // Nom du fichier d'un segment.
+    public static String segmentName(int segment) {
+        return String.format("segment-%06d.rlog", segment);
+    }
+
+    // Démarre la tâche d'écriture dans le scope donné.
+    public void start(SessionScope scope) {
+        writer = scope.fork("session-recorder", this::writeLoop);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Met en file une image publiée (étage d'encodage).
+    public void recordFrame(EncodedFrame frame) {
+        offer(new Entry(WireProtocol.FRAME, System.nanoTime(), frame, null, 0));
+    }
+
+    // Met en file un lot d'entrées reçu d'un client.
+    public void recordInput(int[] events) {
+        offer(new Entry(WireProtocol.INPUT, System.nanoTime(), null, events, 0));
+    }
+
+    // Met en file une position du curseur (voir CursorPosition).
+    public void recordCursor(long position) {
+        offer(new Entry(WireProtocol.CURSOR, System.nanoTime(), null, null, position));
+    }
+
+    private void offer(Entry entry) {
+        if (closed || failed || !queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    // Termine l'écriture des événements en file ; la tâche d'écriture ferme ensuite les fichiers.
+    // Sans tâche d'écriture démarrée, les fichiers sont fermés ici.
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (writer == null) {
+            finish();
+            return;
+        }
+        try {
+            // STOP suit les événements déjà en file ; la file se vide pendant l'attente si elle est pleine.
+            long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+            while (writer.isAlive() && !queue.offer(STOP, 100, TimeUnit.MILLISECONDS)) {
+                if (System.currentTimeMillis() > deadline) {
+                    break;
+                }
+            }
+            writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            System.err.println("Session recorder still writing after " + CLOSE_TIMEOUT_MILLIS
+                    + " ms; the recording is closed when the writer stops");
+        }
+    }
+
+    // Tâche d'écriture : écrit les événements jusqu'à STOP (ou l'interruption du scope), puis ferme les fichiers.
+    private void writeLoop() {
+        try {
+            while (true) {
+                Entry entry = queue.take();
+                if (entry == STOP) {
+                    break;
+                }
+                long start = System.nanoTime();
+                switch (entry.type) {
+                    case WireProtocol.FRAME:
+                        writeFrame(entry);
+                        break;
+                    case WireProtocol.INPUT:
+                        append(entry.nanos, WireProtocol.inputSize(entry.events),
+                                buffer -> WireProtocol.writeInput(buffer, entry.events));
+                        break;
+                    default:
+                        append(entry.nanos, WireProtocol.HEADER_BYTES + 8,
+                                buffer -> WireProtocol.writeCursor(buffer, entry.cursor));
+                        break;
+                }
+                writeTime.recordSince(start);
+            }
+        } catch (IOException e) {
+            System.err.println("Session recording stopped: " + e.getMessage());
+            failed = true;
+            queue.clear();
+        } catch (InterruptedException e) {
+            // Arrêt du scope : les événements encore en file sont abandonnés.
+            failed = true;
+            queue.clear();
+        } finally {
+            // Un canal de fichier utilisé par un thread interrompu serait fermé : l'interruption est rétablie après.
+            boolean interrupted = Thread.interrupted();
+            finish();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Écrit le dernier segment et l'index sur disque puis les ferme.
+    private void finish() {
+        try {
+            finishSegment();
+            index.force(true);
+            index.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Écrit le delta depuis la dernière image enregistrée, ou une image clé lorsque l'intervalle est écoulé.
+    private void writeFrame(Entry entry) throws IOException {
+        EncodedFrame frame = entry.frame;
+        boolean otherStream = frame.getStreamId() != lastStreamId;
+        if (lastFrameId != 0 && otherStream && entry.nanos - lastFrameNanos < keyFrameNanos) {
+            return; // Image d'une autre zone, alors que le flux enregistré est toujours actif.
+        }
+        FrameDelta delta;
+        try {
+            if (lastFrameId == 0 || otherStream || entry.nanos - lastKeyFrameNanos >= keyFrameNanos) {
+                // Image clé reconstituée à partir des tuiles déjà encodées ; seules les tuiles recouvertes par une copie
+                // et jamais demandées par un spectateur sont encodées à ce moment.
+                delta = frame.deltaSince(0);
+            } else {
+                delta = frame.deltaSince(lastFrameId);
+            }
+        } catch (UncheckedIOException e) {
+            // L'image suivante reprendra depuis lastFrameId et contiendra aussi les tuiles de celle-ci.
+            System.err.println("Frame " + frame.getFrameId() + " not recorded: " + e.getMessage());
+            return;
+        }
+        int offset = append(entry.nanos, WireProtocol.frameSize(delta), buffer -> WireProtocol.writeFrame(buffer, delta));
+        if (delta.isKeyFrame()) {
+            indexEntry.clear();
+            indexEntry.putLong(entry.nanos - startNanos).putInt(segmentIndex).putInt(offset).flip();
+            index.write(indexEntry);
+            lastKeyFrameNanos = entry.nanos;
+        }
+        lastFrameId = frame.getFrameId();
+        lastStreamId = frame.getStreamId();
+        lastFrameNanos = entry.nanos;
+    }
+
+    // Ajoute un enregistrement au segment courant, ou à un nouveau segment s'il ne tient pas.
+    // Retourne la position de l'enregistrement dans son segment.
+    private int append(long nanos, int messageSize, Consumer<ByteBuffer> message) throws IOException {
+        int size = RECORD_HEADER_BYTES + messageSize;
+        if (segment == null || segment.remaining() < size + RECORD_HEADER_BYTES + 4) {
+            openSegment(size);
+        }
+        int offset = segment.position();
+        segment.putLong(nanos - startNanos);
+        message.accept(segment);
+        writtenBytes.add(size);
+        return offset;
+    }
+
+    // Ouvre le segment suivant, assez grand pour un enregistrement de minBytes octets.
+    private void openSegment(int minBytes) throws IOException {
+        finishSegment();
+        segmentIndex++;
+        long size = Math.max(segmentBytes, SEGMENT_HEADER_BYTES + minBytes + RECORD_HEADER_BYTES + 4);
+        segmentChannel = FileChannel.open(directory.resolve(segmentName(segmentIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segment.putInt(MAGIC).putInt(VERSION).putLong(startMillis);
+    }
+
+    // Écrit le segment courant sur disque et réduit le fichier à sa partie utilisée.
+    // La fin d'un segment est marquée par une longueur de message nulle (le fichier projeté est rempli de zéros).
+    private void finishSegment() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        segment.force();
+        long used = Math.min(segment.capacity(), segment.position() + RECORD_HEADER_BYTES + 4);
+        segment = null;
+        try {
+            segmentChannel.truncate(used);
+        } catch (IOException e) {
+            // Certains systèmes refusent de réduire un fichier projeté : il garde alors sa taille.
+        }
+        segmentChannel.close();
+    }
+}
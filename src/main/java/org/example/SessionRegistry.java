@@ -0,0 +1,41 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classe SessionRegistry qui conserve les sessions des spectateurs connectés, indexées par identifiant.
+ */
+public class SessionRegistry {
+    private final Map<String, ViewerSession> sessions = new ConcurrentHashMap<>(); // Sessions ouvertes.
+
+    // Ouvre une nouvelle session pour un client.
+    public ViewerSession open(String clientHost) {
+        ViewerSession session = new ViewerSession(UUID.randomUUID().toString(), clientHost);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // Retourne la session, ou null si elle n'existe pas.
+    public ViewerSession find(String sessionId) {
+        return sessionId == null ? null : sessions.get(sessionId);
+    }
+
+    // Ferme une session, arrête sa diffusion et attend la fin de ses tâches.
+    public void close(String sessionId) {
+        ViewerSession session = sessions.remove(sessionId);
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    public Collection<ViewerSession> all() {
+        return sessions.values();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
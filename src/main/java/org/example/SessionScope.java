@@ -0,0 +1,103 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe SessionScope qui possède les tâches d'une session (images, entrées, transferts de fichiers).
+ * Chaque tâche tourne dans son propre thread (virtuel lorsque disponible, voir Threads).
+ * La fermeture du scope refuse les nouvelles tâches, interrompt celles en cours et attend leur fin :
+ * aucune tâche d'une session ne survit à sa fermeture.
+ */
+public class SessionScope implements AutoCloseable {
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000; // Attente maximale de la fin des tâches à la fermeture.
+
+    private final String name; // Nom du scope, préfixe des noms de threads.
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet(); // Threads des tâches en cours.
+    private boolean closed; // Protégé par this.
+
+    public SessionScope(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Démarre une tâche dans le scope.
+    public Thread fork(String taskName, Runnable task) {
+        Thread thread = newTask(taskName, task);
+        thread.start();
+        return thread;
+    }
+
+    // Crée une tâche du scope sans la démarrer : l'appelant peut publier le thread (par exemple dans un champ
+    // que la tâche relit) avant d'appeler start.
+    public synchronized Thread newTask(String taskName, Runnable task) {
+        if (closed) {
+            throw new IllegalStateException("Scope " + name + " is closed");
+        }
+        Thread thread = Threads.newThread(name + "/" + taskName, () -> {
+            try {
+                task.run();
+            } finally {
+                running.remove(Thread.currentThread());
+            }
+        });
+        running.add(thread);
+        return thread;
+    }
+
+    // Démarre une tâche qui produit un résultat.
+    public <T> Future<T> submit(String taskName, Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        fork(taskName, future);
+        return future;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public int getRunningTasks() {
+        return running.size();
+    }
+
+    // Ferme le scope : interrompt les tâches en cours et attend leur fin. Peut être appelée depuis une tâche du scope.
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        Thread self = Thread.currentThread();
+        List<Thread> tasks = new ArrayList<>(running);
+        tasks.remove(self);
+        for (Thread task : tasks) {
+            task.interrupt();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        try {
+            for (Thread task : tasks) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining > 0) {
+                    task.join(remaining);
+                }
+                if (task.isAlive()) {
+                    System.err.println("Scope " + name + ": task " + task.getName() + " did not stop within "
+                            + CLOSE_TIMEOUT_MILLIS + " ms");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Classe SessionStats : instantané des mesures d'une session et du pipeline partagé, envoyé au client via RMI.
+ * Contient les histogrammes (durées, tailles) et les compteurs par nom (voir les constantes de Metrics).
+ */
+public class SessionStats implements Serializable {
+    private final String scope; // Identifiant de la session.
+    private final long uptimeMillis; // Durée depuis l'ouverture de la session.
+    private final Map<String, HistogramSnapshot> histograms; // Histogrammes par nom.
+    private final Map<String, Long> counters; // Compteurs et jauges par nom.
+
+    public SessionStats(String scope, long uptimeMillis, Map<String, HistogramSnapshot> histograms, Map<String, Long> counters) {
+        this.scope = scope;
+        this.uptimeMillis = uptimeMillis;
+        this.histograms = histograms;
+        this.counters = counters;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public long getUptimeMillis() {
+        return uptimeMillis;
+    }
+
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    // Retourne l'histogramme du nom donné, ou null.
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    // Retourne la valeur du compteur, 0 s'il n'existe pas.
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    // Débit moyen d'un compteur d'octets depuis l'ouverture, en octets par seconde.
+    public double getRate(String counter) {
+        return uptimeMillis == 0 ? 0 : getCounter(counter) * 1000.0 / uptimeMillis;
+    }
+
+    // Proportion des tuiles envoyées comme références au cache du client, entre 0 et 1.
+    public double getTileCacheHitRate() {
+        long hits = getCounter(Metrics.TILE_CACHE_HITS);
+        long total = hits + getCounter(Metrics.TILE_CACHE_MISSES);
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Session " + scope + " (" + uptimeMillis / 1000 + " s)");
+        for (HistogramSnapshot h : histograms.values()) {
+            sb.append("\n  ").append(h);
+        }
+        counters.forEach((name, value) -> sb.append("\n  ").append(name).append(": ").append(value));
+        return sb.toString();
+    }
+}
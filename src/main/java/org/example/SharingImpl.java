@@ -2,91 +2,290 @@ package org.example;
 
 import java.awt.*;
 import java.io.*;
+import java.net.InetAddress;
+import java.rmi.server.RemoteServer;
+import java.rmi.server.ServerNotActiveException;
 import java.rmi.server.UnicastRemoteObject;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.rmi.RemoteException;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Classe SharingImpl qui implémente SharingInterface pour gérer les interactions de partage d'écran et les événements de souris/clavier.
  * Extends UnicastRemoteObject et implémente SharingInterface.
  */
 public class SharingImpl extends UnicastRemoteObject implements SharingInterface {
+    private static final Logger LOG = Logger.getLogger(SharingImpl.class.getName()); // Événements détaillés au niveau FINE.
 
     private Robot robot; // Pour automatiser les interactions avec l'interface utilisateur.
     private String serverId; // Identifiant du serveur.
-    BufferedImage screenshot; // Pour stocker les captures d'écran.
-    byte[] imageInByte; // Pour stocker les captures d'écran en format byte array.
-    boolean isConnected = true; // Indique si le client est correctement connecté.
+    private final Set<String> legacyHosts = ConcurrentHashMap.newKeySet(); // Clients enregistrés par registerClient(String).
+    private final SessionRegistry sessions = new SessionRegistry(); // Sessions des spectateurs.
+    private final ParallelTileCodec tileCodec = new ParallelTileCodec(ParallelTileCodec.configuredThreads()); // Encodage parallèle des tuiles.
+    private final TileDiffer tileDiffer = new TileDiffer(FrameCodecs.create(FrameCodecs.PNG),
+            TileDiffer.DEFAULT_TILE_SIZE, tileCodec); // Réglages de l'encodage, repris par le TileDiffer de chaque zone.
+    private final FrameBroadcaster broadcaster; // Capture et encodage partagés par les spectateurs d'une même zone.
+    private final PngCodec legacyCodec = new PngCodec(); // Encodeur PNG réutilisé par captureScreenshot.
+    private final FileTransferService fileTransfers = new FileTransferService(
+            Paths.get(System.getProperty("user.dir")),
+            Integer.getInteger("rdp.transfer.chunkSize", FileTransferService.DEFAULT_CHUNK_SIZE)); // Transferts par morceaux.
+    private final CaptureSource captureSource; // Origine des images (écran réel ou contenu synthétique).
+    private final GeometryWatcher geometryWatcher; // Géométrie de l'écran en cache.
+    private final SessionScope serverScope = new SessionScope("server"); // Tâches du serveur non liées à une session.
+    private final CursorTracker cursorTracker = new CursorTracker(Integer.getInteger("rdp.cursor.hz", 60)); // Position du curseur.
+    private final BlockingQueue<InputBatch> inputBatches = new LinkedBlockingQueue<>(); // Lots d'entrées à rejouer, dans l'ordre.
+    private final Metrics metrics = new Metrics("server"); // Mesures partagées par toutes les sessions.
+    private final Histogram inputApply = metrics.histogram(Metrics.INPUT_APPLY, Histogram.NANOS);
+    private final LongAdder inputEvents = metrics.counter(Metrics.INPUT_EVENTS);
+    private final Histogram transferChunks = metrics.histogram(Metrics.TRANSFER_CHUNK, Histogram.NANOS);
+    private final LongAdder transferBytes = metrics.counter(Metrics.TRANSFER_BYTES);
+    private volatile SocketTransportServer socketTransport; // Transport par socket, null s'il n'est pas démarré.
+    private volatile SessionRecorder recorder; // Enregistrement des sessions, null sans -Drdp.record.dir.
+
+    // Lot d'entrées reçu, avec son heure d'arrivée pour mesurer le délai avant application.
+    private static class InputBatch {
+        final int[] events;
+        final long receivedNanos;
+
+        InputBatch(int[] events, long receivedNanos) {
+            this.events = events;
+            this.receivedNanos = receivedNanos;
+        }
+    }
 
     // Constructeur de la classe. Initialise le robot et définit l'identifiant du serveur.
+    // La source des images est choisie avec -Drdp.capture (voir CaptureSources).
     public SharingImpl(String serverId) throws RemoteException, AWTException {
+        this(serverId, CaptureSources.configured());
+    }
+
+    // Constructeur avec une source d'images donnée. Sans écran, les entrées reçues sont mesurées mais pas rejouées.
+    public SharingImpl(String serverId, CaptureSource captureSource) throws RemoteException, AWTException {
         super();
-        robot = new Robot();
+        robot = GraphicsEnvironment.isHeadless() ? null : new Robot();
         this.serverId = serverId;
+        this.captureSource = captureSource;
+        this.geometryWatcher = new GeometryWatcher(captureSource::detectGeometry);
+        broadcaster = new FrameBroadcaster(captureSource::capture, this::captureRegion, tileDiffer, sessions, metrics);
+        FrameBufferPool pool = FrameBufferPool.shared();
+        metrics.gauge("pool.bytes.held", pool::getBytesHeld);
+        metrics.gauge("pool.bytes.inUse", pool::getInUseBytes);
+        metrics.gauge("sessions", sessions::size);
+        metrics.register("Server");
+        broadcaster.setGeometryVersion(geometryWatcher.getGeometry().getVersion());
+        geometryWatcher.addListener(this::onGeometryChanged);
+        broadcaster.start();
+        serverScope.fork("input-replay", this::replayLoop);
+        cursorTracker.addListener(this::onCursorMoved);
+        cursorTracker.start(serverScope);
+        Runtime.getRuntime().addShutdownHook(new Thread(fileTransfers::closeAll, "file-transfer-close"));
+        String recordDir = System.getProperty("rdp.record.dir");
+        if (recordDir != null) {
+            startRecording(Paths.get(recordDir, serverId + "-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+        }
+    }
+
+    // Ajoute un écouteur local des images publiées par le pipeline (mesures de charge, voir LoadGenerator).
+    public void addFrameListener(Consumer<EncodedFrame> listener) {
+        broadcaster.addListener(listener);
+    }
+
+    // Enregistre les images déjà encodées, le curseur et les entrées dans le répertoire donné, jusqu'à l'arrêt du serveur.
+    private void startRecording(Path directory) {
+        try {
+            recorder = new SessionRecorder(directory, metrics);
+        } catch (IOException e) {
+            System.err.println("Session recording disabled: " + e.getMessage());
+            return;
+        }
+        recorder.start(serverScope);
+        broadcaster.addListener(recorder::recordFrame);
+        cursorTracker.addListener(recorder::recordCursor);
+        Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "session-recorder-close"));
+        System.err.println("Recording sessions to " + directory);
     }
 
     // Méthode pour capturer une capture d'écran.
     @Override
     public byte[] captureScreenshot() throws RemoteException {
-        if (isConnected) {
+        if (legacyHosts.contains(callerHost())) {
             try {
                 // Capture l'écran entier.
-                Toolkit toolkit = Toolkit.getDefaultToolkit();
-                Rectangle screenSize = new Rectangle(toolkit.getScreenSize());
-                screenshot = robot.createScreenCapture(screenSize);
+                BufferedImage screenshot = captureScreen();
 
                 // Convertit l'image en un tableau de bytes.
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ImageIO.write(screenshot, "png", baos);
-                baos.flush();
-                byte[] imageInByte = baos.toByteArray();
-                baos.close();
-                return imageInByte;
+                synchronized (legacyCodec) {
+                    return legacyCodec.encode(screenshot, 0, 0, screenshot.getWidth(), screenshot.getHeight());
+                }
             } catch (IOException e) {
                 throw new RemoteException("Failed to capture screenshot", e);
             }
         } else {
             System.out.println("Invalid registration attempt: Client ID does not match Server ID.");
-            return imageInByte;
+            return null;
+        }
+    }
+
+    // Méthode pour retourner seulement les tuiles modifiées depuis l'image acquittée par la session.
+    // Attend au plus une période d'image qu'une image plus récente soit disponible.
+    @Override
+    public FrameDelta captureScreenshotDelta(String sessionId, long lastAckedFrameId) throws RemoteException {
+        ViewerSession session = session(sessionId);
+        session.touchPoll(session.currentFps());
+        try {
+            FrameDelta delta = broadcaster.deltaSince(session, lastAckedFrameId, 1000 / session.currentFps());
+            return delta == null ? null : session.preparePolled(delta, lastAckedFrameId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for a frame", e);
+        }
+    }
+
+    // Capture l'écran entier ; utilisé par captureScreenshot.
+    private BufferedImage captureScreen() {
+        ScreenGeometry geometry = geometryWatcher.getGeometry();
+        return captureSource.capture(new Rectangle(0, 0, geometry.getWidth(), geometry.getHeight()));
+    }
+
+    // Zone capturée pour une session ; les sessions dont la zone résolue est la même partagent capture et encodage.
+    // Une session sans zone demandée reçoit l'écran entier, comme avant l'ajout des zones.
+    private Rectangle captureRegion(ViewerSession session) {
+        RegionOfInterest region = session.getRegion();
+        return (region == null ? RegionOfInterest.SCREEN : region).resolve(geometryWatcher.getGeometry(),
+                cursorTracker.getLatest());
+    }
+
+    // Démarre la diffusion des images vers la session, en remplaçant sa diffusion déjà active.
+    @Override
+    public void startStreaming(String sessionId, FrameCallback callback, int targetFps) throws RemoteException {
+        ViewerSession session = session(sessionId);
+        session.startStreaming(callback, targetFps);
+        session.offerCursor(cursorTracker.getLatest());
+    }
+
+    // Note la zone d'affichage de la session ; la réduction est appliquée dès l'image suivante.
+    @Override
+    public void setViewport(String sessionId, int width, int height) throws RemoteException {
+        session(sessionId).setViewport(width, height);
+    }
+
+    // Note la partie de l'écran que la session veut recevoir (null : écran entier), capturée dès l'image suivante.
+    @Override
+    public void setRegionOfInterest(String sessionId, RegionOfInterest region) throws RemoteException {
+        session(sessionId).setRegion(region);
+    }
+
+    // Ouvre le transport par socket sur le port donné, à l'adresse utilisée par RMI ;
+    // les images et les entrées peuvent alors passer hors RMI.
+    public SocketTransportServer startSocketTransport(int port) throws IOException {
+        return startSocketTransport(SocketTransportServer.configuredAddress(), port);
+    }
+
+    // Ouvre le transport par socket sur l'adresse et le port donnés.
+    public SocketTransportServer startSocketTransport(InetAddress address, int port) throws IOException {
+        socketTransport = new SocketTransportServer(this, address, port);
+        return socketTransport;
+    }
+
+    // Retourne le port du transport par socket, ou -1.
+    @Override
+    public int getStreamPort() throws RemoteException {
+        SocketTransportServer transport = socketTransport;
+        return transport == null ? -1 : transport.getPort();
+    }
+
+    // Arrête la diffusion des images vers la session.
+    @Override
+    public void stopStreaming(String sessionId) throws RemoteException {
+        session(sessionId).stopStreaming();
+    }
+
+    // Retourne les mesures des étages partagés et de l'étage d'envoi de la session.
+    @Override
+    public List<StageTiming> getPipelineTimings(String sessionId) throws RemoteException {
+        List<StageTiming> timings = new ArrayList<>(broadcaster.getStageTimings());
+        timings.add(session(sessionId).getSendTiming());
+        return timings;
+    }
+
+    // Retourne l'état du contrôleur adaptatif de la session.
+    @Override
+    public ControllerState getControllerState(String sessionId) throws RemoteException {
+        ViewerSession session = session(sessionId);
+        return session.isStreaming() ? session.getController().snapshot() : null;
+    }
+
+    // Retourne les mesures de la session complétées par celles du pipeline partagé.
+    @Override
+    public SessionStats getSessionStats(String sessionId) throws RemoteException {
+        return session(sessionId).getMetrics().snapshot(metrics);
+    }
+
+    // Retourne la session correspondant à l'identifiant, ou lève une exception si elle n'existe pas.
+    private ViewerSession session(String sessionId) throws RemoteException {
+        ViewerSession session = sessions.find(sessionId);
+        if (session == null) {
+            throw new RemoteException("Unknown session: " + sessionId);
+        }
+        return session;
+    }
+
+    // Adresse du client appelant, ou "local" hors d'un appel RMI.
+    private static String callerHost() {
+        try {
+            return RemoteServer.getClientHost();
+        } catch (ServerNotActiveException e) {
+            return "local";
         }
     }
 
     // Méthode pour recevoir et traiter les positions et événements de la souris.
     @Override
     public void receiveMousePosition(int x, int y, MouseEvent event) throws RemoteException {
+        if (robot == null) {
+            return; // Serveur sans écran : rien à piloter.
+        }
         robot.mouseMove(x, y); // Déplace la souris aux coordonnées spécifiées.
         int button = event.getButton();
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Mouse event " + event.getID() + " at (" + x + ", " + y + ")");
+        }
         switch (event.getID()) {
             case MouseEvent.MOUSE_MOVED:
-                System.out.println("Mouse moved to (" + x + ", " + y + ")");
                 break;
             case MouseEvent.MOUSE_CLICKED:
-                System.out.println("Mouse clicked at (" + x + ", " + y + ")");
                 handleMouseClick(button);
                 break;
             case MouseEvent.MOUSE_PRESSED:
-                System.out.println("Mouse pressed at (" + x + ", " + y + ")");
                 handleMousePress(button);
                 break;
             case MouseEvent.MOUSE_RELEASED:
-                System.out.println("Mouse released at (" + x + ", " + y + ")");
                 handleMouseRelease(button);
                 break;
             case MouseEvent.MOUSE_ENTERED:
-                System.out.println("Mouse entered at (" + x + ", " + y + ")");
-                robot.mouseMove(x, y);
-                break;
             case MouseEvent.MOUSE_EXITED:
-                System.out.println("Mouse exited at (" + x + ", " + y + ")");
                 robot.mouseMove(x, y);
                 break;
             default:
-                System.out.println("Unknown mouse event type: " + event);
+                LOG.warning("Unknown mouse event type: " + event);
                 break;
         }
     }
@@ -121,29 +320,175 @@ public class SharingImpl extends UnicastRemoteObject implements SharingInterface
     }
 
     // Enregistre un client en validant son identifiant.
+    // Un identifiant erroné ne concerne que le client appelant et n'affecte pas les autres spectateurs.
     @Override
     public void registerClient(String serverId) throws RemoteException {
         if (serverId.equals(this.serverId)) {
-            isConnected = true;
+            legacyHosts.add(callerHost());
         } else {
-            isConnected = false;
+            legacyHosts.remove(callerHost());
+        }
+    }
+
+    // Enregistre un client, ouvre sa session et choisit le codec des tuiles parmi ceux qu'il propose.
+    // L'encodage étant partagé, le codec est choisi par la première session et imposé aux suivantes.
+    @Override
+    public synchronized SessionInfo registerClient(String serverId, List<String> supportedCodecs) throws RemoteException {
+        if (!serverId.equals(this.serverId)) {
+            throw new RemoteException("Invalid registration attempt: Client ID does not match Server ID.");
+        }
+        String codec;
+        if (sessions.size() == 0) {
+            codec = FrameCodecs.negotiate(supportedCodecs);
+            broadcaster.setCodec(codec);
+        } else {
+            codec = broadcaster.getCodecName();
+            if (supportedCodecs == null || !supportedCodecs.contains(codec)) {
+                throw new RemoteException("Active sessions use codec " + codec + ", which the client does not support");
+            }
+        }
+        ViewerSession session = sessions.open(callerHost());
+        return new SessionInfo(session.getId(), codec, geometryWatcher.getGeometry());
+    }
+
+    // Ferme la session d'un client.
+    @Override
+    public void unregisterClient(String sessionId) throws RemoteException {
+        sessions.close(sessionId);
+    }
+
+    // Retourne la géométrie de l'écran en cache.
+    @Override
+    public ScreenGeometry getScreenGeometry() throws RemoteException {
+        return geometryWatcher.getGeometry();
+    }
+
+    // Retourne une forme de curseur connue du serveur.
+    @Override
+    public CursorShape getCursorShape(int shapeId) throws RemoteException {
+        return CursorShapes.find(shapeId);
+    }
+
+    // Attend un déplacement du curseur pour un spectateur en polling.
+    @Override
+    public long pollCursor(String sessionId, long lastPosition, int timeoutMillis) throws RemoteException {
+        session(sessionId);
+        try {
+            return cursorTracker.awaitChange(lastPosition, Math.max(0, Math.min(timeoutMillis, 5000)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for the cursor", e);
+        }
+    }
+
+    // Appelée par le CursorTracker : transmet la position aux spectateurs en mode diffusion.
+    private void onCursorMoved(long position) {
+        for (ViewerSession session : sessions.all()) {
+            session.offerCursor(position);
+        }
+    }
+
+    // Appelée par le GeometryWatcher : marque les prochaines images et prévient les spectateurs en mode push.
+    private void onGeometryChanged(ScreenGeometry geometry) {
+        broadcaster.setGeometryVersion(geometry.getVersion());
+        for (ViewerSession session : sessions.all()) {
+            FrameCallback callback = session.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            try {
+                callback.geometryChanged(geometry);
+            } catch (RemoteException e) {
+                System.err.println("Failed to notify viewer " + session.getId() + " of geometry change: " + e.getMessage());
+            }
         }
     }
 
     // Reçoit et traite les événements de touches clavier.
     @Override
     public void receiveKeyPress(int keyCode, int eventType) throws RemoteException {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Key event " + eventType + ": " + KeyEvent.getKeyText(keyCode));
+        }
+        if (robot == null) {
+            return;
+        }
         switch (eventType) {
             case KeyEvent.KEY_PRESSED:
-                System.out.println("Key pressed: " + KeyEvent.getKeyText(keyCode));
                 robot.keyPress(keyCode);
                 break;
             case KeyEvent.KEY_RELEASED:
-                System.out.println("Key released: " + KeyEvent.getKeyText(keyCode));
                 robot.keyRelease(keyCode);
                 break;
             default:
-                System.out.println("Unknown key event type: " + eventType);
+                LOG.warning("Unknown key event type: " + eventType);
+                break;
+        }
+    }
+
+    // Met en file un lot d'événements d'entrée : le thread RMI est libéré sans attendre les appels bloquants du Robot.
+    @Override
+    public void receiveInputBatch(int[] events) throws RemoteException {
+        if (events.length % InputRecords.RECORD_SIZE != 0) {
+            throw new RemoteException("Malformed input batch of length " + events.length);
+        }
+        inputBatches.add(new InputBatch(events, System.nanoTime()));
+        if (recorder != null) {
+            recorder.recordInput(events);
+        }
+    }
+
+    // Tâche qui rejoue les lots reçus, un seul à la fois, dans l'ordre d'arrivée.
+    private void replayLoop() {
+        try {
+            while (true) {
+                replayBatch(inputBatches.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Rejoue un lot d'événements d'entrée dans l'ordre via le Robot.
+    private void replayBatch(InputBatch batch) {
+        int[] events = batch.events;
+        for (int i = 0; robot != null && i < events.length; i += InputRecords.RECORD_SIZE) {
+            try {
+                replayInput(events[i], events[i + 1], events[i + 2], events[i + 3]);
+            } catch (IllegalArgumentException e) {
+                // Bouton ou touche invalide : l'événement est ignoré, le reste du lot est rejoué.
+                LOG.warning("Ignored invalid input record: " + e.getMessage());
+            }
+        }
+        inputApply.recordSince(batch.receivedNanos);
+        inputEvents.add(events.length / InputRecords.RECORD_SIZE);
+    }
+
+    // Rejoue un événement d'entrée ; a et b sont les coordonnées, ou a est le code de touche.
+    private void replayInput(int type, int a, int b, int button) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Input record " + type + " (" + a + ", " + b + ", " + button + ")");
+        }
+        switch (type) {
+            case InputRecords.MOUSE_MOVE:
+                robot.mouseMove(a, b);
+                break;
+            case InputRecords.MOUSE_PRESS:
+                robot.mouseMove(a, b);
+                robot.mousePress(InputEvent.getMaskForButton(button));
+                break;
+            case InputRecords.MOUSE_RELEASE:
+                robot.mouseMove(a, b);
+                robot.mouseRelease(InputEvent.getMaskForButton(button));
+                break;
+            case InputRecords.KEY_PRESS:
+                robot.keyPress(a);
+                break;
+            case InputRecords.KEY_RELEASE:
+                robot.keyRelease(a);
+                break;
+            default:
+                LOG.warning("Unknown input record type: " + type);
                 break;
         }
     }
@@ -151,15 +496,13 @@ public class SharingImpl extends UnicastRemoteObject implements SharingInterface
     // Retourne la largeur de l'écran.
     @Override
     public int getScreenWidth() throws RemoteException {
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-        return screenSize.width;
+        return geometryWatcher.getGeometry().getWidth();
     }
 
     // Retourne la hauteur de l'écran.
     @Override
     public int getScreenHeight() throws RemoteException {
-        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-        return screenSize.height;
+        return geometryWatcher.getGeometry().getHeight();
     }
 
     // Reçoit un fichier du client et le sauvegarde dans le répertoire courant.
@@ -198,8 +541,87 @@ public class SharingImpl extends UnicastRemoteObject implements SharingInterface
         }
         return null; // Retourne null si aucun fichier n'est sélectionné.
     }
-}
 
+    // Commence ou reprend la réception d'un fichier par morceaux dans le répertoire courant.
+    @Override
+    public TransferInfo beginUpload(String fileName, long fileSize, long fileChecksum) throws RemoteException {
+        try {
+            return fileTransfers.beginUpload(fileName, fileSize, fileChecksum);
+        } catch (IOException e) {
+            throw new RemoteException("Error starting upload: " + e.getMessage(), e);
+        }
+    }
 
+    // Écrit un morceau reçu à sa position dans le fichier partiel.
+    @Override
+    public long uploadChunk(String transferId, FileChunk chunk) throws RemoteException {
+        try {
+            long start = System.nanoTime();
+            long confirmed = fileTransfers.writeChunk(transferId, chunk);
+            transferChunks.recordSince(start);
+            transferBytes.add(chunk.getData().length);
+            return confirmed;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RemoteException("Error writing chunk: " + e.getMessage(), e);
+        }
+    }
 
+    // Termine la réception et renomme le fichier partiel.
+    @Override
+    public void finishUpload(String transferId) throws RemoteException {
+        try {
+            fileTransfers.finishUpload(transferId);
+        } catch (IOException e) {
+            throw new RemoteException("Error finishing upload: " + e.getMessage(), e);
+        }
+    }
 
+    // Ouvre un sélecteur de fichiers et prépare l'envoi par morceaux du fichier choisi.
+    @Override
+    public TransferInfo openFileChooserForDownload() throws RemoteException {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Select a file to send");
+        if (fileChooser.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
+            return null; // Aucun fichier sélectionné.
+        }
+        try {
+            return fileTransfers.beginDownload(fileChooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            throw new RemoteException("Error reading file: " + e.getMessage(), e);
+        }
+    }
+
+    // Lit un morceau du fichier en cours d'envoi.
+    @Override
+    public FileChunk downloadChunk(String transferId, long offset) throws RemoteException {
+        try {
+            long start = System.nanoTime();
+            FileChunk chunk = fileTransfers.readChunk(transferId, offset);
+            transferChunks.recordSince(start);
+            transferBytes.add(chunk.getData().length);
+            return chunk;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RemoteException("Error reading chunk: " + e.getMessage(), e);
+        }
+    }
+
+    // Retourne l'état d'un transfert.
+    @Override
+    public TransferInfo getTransfer(String transferId) throws RemoteException {
+        try {
+            return fileTransfers.getTransfer(transferId);
+        } catch (IOException e) {
+            throw new RemoteException(e.getMessage(), e);
+        }
+    }
+
+    // Ferme un transfert et libère le fichier.
+    @Override
+    public void closeTransfer(String transferId) throws RemoteException {
+        try {
+            fileTransfers.close(transferId);
+        } catch (IOException e) {
+            throw new RemoteException("Error closing transfer: " + e.getMessage(), e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ package org.example;
 import java.awt.event.MouseEvent;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 /**
  * Déclaration de l'interface SharingInterface qui étend l'interface Remote.
  * Cette interface définit les méthodes que le serveur doit implémenter pour être accessible à distance via RMI.
@@ -16,6 +17,45 @@ public interface SharingInterface extends Remote {
     // Doit être implémentée par le serveur et peut lancer une RemoteException en cas de problème de communication.
     byte[] captureScreenshot() throws RemoteException;
 
+    // Méthode pour obtenir uniquement les tuiles modifiées depuis la dernière image acquittée par la session.
+    // Prend l'identifiant de la dernière image appliquée par le client (0 pour demander une image complète).
+    // Retourne null si aucune image ne peut être fournie pour l'instant (par exemple en attente d'une image clé).
+    FrameDelta captureScreenshotDelta(String sessionId, long lastAckedFrameId) throws RemoteException;
+
+    // Méthode pour déclarer la taille de la zone d'affichage du client, à l'ouverture et à chaque redimensionnement.
+    // Le serveur réduit les images à cette taille avant de les encoder ; la taille des images reçues donne l'échelle
+    // à utiliser pour convertir les coordonnées de la souris et du curseur.
+    void setViewport(String sessionId, int width, int height) throws RemoteException;
+
+    // Méthode pour choisir la partie de l'écran du serveur à recevoir : un rectangle, un écran, tout le bureau
+    // ou une zone qui suit le curseur (voir RegionOfInterest) ; null revient à l'écran entier.
+    // Seule cette zone est capturée et encodée, puis réduite à la zone d'affichage ; les images reçues indiquent
+    // la zone qu'elles représentent (FrameDelta.getRegion).
+    void setRegionOfInterest(String sessionId, RegionOfInterest region) throws RemoteException;
+
+    // Méthode pour démarrer la diffusion des images vers un objet distant du client.
+    // Le serveur pousse les images à la fréquence cible et saute celles que le client n'a pas le temps de traiter.
+    void startStreaming(String sessionId, FrameCallback callback, int targetFps) throws RemoteException;
+
+    // Méthode pour obtenir le port du transport par socket (images et entrées hors RMI, voir SocketTransportServer).
+    // Retourne -1 si le serveur n'a pas été démarré avec --transport=socket.
+    int getStreamPort() throws RemoteException;
+
+    // Méthode pour arrêter la diffusion des images démarrée par startStreaming.
+    void stopStreaming(String sessionId) throws RemoteException;
+
+    // Méthode pour obtenir le temps passé dans chaque étage du pipeline de diffusion :
+    // capture et encode (partagés par tous les spectateurs) puis send (propre à la session).
+    List<StageTiming> getPipelineTimings(String sessionId) throws RemoteException;
+
+    // Méthode pour obtenir l'état du contrôleur adaptatif (qualité, échelle, fréquence et mesures associées).
+    // Permet de comprendre pourquoi une session est passée en basse qualité ; retourne null sans diffusion active.
+    ControllerState getControllerState(String sessionId) throws RemoteException;
+
+    // Méthode pour obtenir les mesures d'une session et du pipeline partagé : histogrammes de latence
+    // (capture, encodage, appels distants, application des entrées), tailles des images et compteurs.
+    SessionStats getSessionStats(String sessionId) throws RemoteException;
+
     // Méthode pour recevoir la position de la souris et les événements de souris du client.
     // Prend les coordonnées x et y de la souris ainsi que l'événement de souris.
     void receiveMousePosition(int x, int y, MouseEvent z) throws RemoteException;
@@ -24,10 +64,34 @@ public interface SharingInterface extends Remote {
     // Doit être appelée par le client pour s'identifier au serveur.
     void registerClient(String clientId) throws RemoteException;
 
+    // Méthode pour enregistrer un client et négocier le codec des images.
+    // Prend la liste des codecs supportés par le client, par ordre de préférence, et retourne l'identifiant
+    // de la session ouverte, le codec retenu et la géométrie de l'écran, que le client conserve jusqu'à la prochaine invalidation.
+    SessionInfo registerClient(String clientId, List<String> supportedCodecs) throws RemoteException;
+
+    // Méthode pour fermer la session d'un client ; les autres spectateurs ne sont pas affectés.
+    void unregisterClient(String sessionId) throws RemoteException;
+
+    // Méthode pour obtenir la géométrie de l'écran du serveur (taille, écrans, échelle DPI).
+    // À n'appeler que lorsque la version reportée dans les images change.
+    ScreenGeometry getScreenGeometry() throws RemoteException;
+
+    // Méthode pour obtenir l'image d'une forme de curseur ; le client la conserve par identifiant.
+    // Retourne null si la forme est inconnue.
+    CursorShape getCursorShape(int shapeId) throws RemoteException;
+
+    // Méthode pour le mode polling : attend que le curseur bouge, au plus timeoutMillis.
+    // Retourne la position au format CursorPosition (lastPosition si le curseur n'a pas bougé).
+    long pollCursor(String sessionId, long lastPosition, int timeoutMillis) throws RemoteException;
+
     // Méthode pour recevoir les événements de touches de clavier du client.
     // Prend le code de la touche et le type d'événement (appui ou relâchement).
     void receiveKeyPress(int keyCode, int eventType) throws RemoteException;
 
+    // Méthode pour recevoir un lot d'événements d'entrée (souris et clavier) au format InputRecords.
+    // Les événements sont rejoués dans l'ordre ; aucun objet AWT n'est sérialisé.
+    void receiveInputBatch(int[] events) throws RemoteException;
+
     // Méthode pour obtenir la largeur de l'écran du serveur.
     // Retourne la largeur de l'écran en pixels.
     int getScreenWidth() throws RemoteException;
@@ -38,10 +102,37 @@ public interface SharingInterface extends Remote {
 
     // Méthode pour recevoir un fichier du client.
     // Prend les données du fichier sous forme de tableau d'octets et le nom du fichier.
+    // Conservée pour compatibilité : le fichier entier est en mémoire, préférer beginUpload/uploadChunk.
     void receiveFile(byte[] fileData, String fileName) throws RemoteException;
 
     // Méthode pour ouvrir un sélecteur de fichiers sur le serveur et retourner les données du fichier sélectionné.
     // Retourne un objet FileTransfer contenant les données du fichier et son nom.
+    // Conservée pour compatibilité : le fichier entier est en mémoire, préférer openFileChooserForDownload.
     FileTransfer openFileChooser() throws RemoteException;
+
+    // Méthode pour commencer, ou reprendre, l'envoi d'un fichier du client vers le serveur par morceaux.
+    // fileChecksum est la somme de contrôle CRC32C du fichier entier : seul un envoi du même contenu est repris.
+    // Retourne l'identifiant du transfert et la position confirmée à partir de laquelle reprendre.
+    TransferInfo beginUpload(String fileName, long fileSize, long fileChecksum) throws RemoteException;
+
+    // Méthode pour envoyer un morceau de fichier ; le serveur vérifie sa somme de contrôle avant de l'écrire.
+    // Retourne la nouvelle position confirmée du transfert.
+    long uploadChunk(String transferId, FileChunk chunk) throws RemoteException;
+
+    // Méthode pour terminer un envoi une fois tous les morceaux confirmés.
+    void finishUpload(String transferId) throws RemoteException;
+
+    // Méthode pour ouvrir un sélecteur de fichiers sur le serveur et préparer l'envoi du fichier choisi par morceaux.
+    // Retourne null si aucun fichier n'est sélectionné.
+    TransferInfo openFileChooserForDownload() throws RemoteException;
+
+    // Méthode pour lire un morceau d'un fichier du serveur à la position donnée.
+    FileChunk downloadChunk(String transferId, long offset) throws RemoteException;
+
+    // Méthode pour obtenir l'état d'un transfert, notamment sa dernière position confirmée.
+    TransferInfo getTransfer(String transferId) throws RemoteException;
+
+    // Méthode pour fermer un transfert terminé ou abandonné et libérer ses ressources sur le serveur.
+    void closeTransfer(String transferId) throws RemoteException;
 }
 
@@ -0,0 +1,159 @@
+package org.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Classe SocketTransportClient : côté client du transport par socket (voir SocketTransportServer et WireProtocol).
+ * Une seule connexion porte les images et le curseur (serveur vers client) ainsi que les acquittements et les lots
+ * d'entrée (client vers serveur). Les messages sont lus par une tâche de la session dans des tampons directs
+ * réutilisés ; les écritures, courtes, sont faites par l'appelant sous un verrou. Une image que le consommateur
+ * ne peut pas appliquer est refusée (NACK) au lieu d'être acquittée, et la lecture continue.
+ * Les changements de géométrie ne transportent que la version : la géométrie est redemandée par RMI.
+ */
+public class SocketTransportClient implements InputSink, AutoCloseable {
+    private final SocketChannel channel; // Connexion bloquante vers le serveur.
+    private final SharingInterface server; // Interface RMI, pour les opérations de contrôle.
+    private final Consumer<FrameDelta> consumer; // Traitement appliqué à chaque image reçue.
+    private final Consumer<ScreenGeometry> geometryListener; // Traitement d'un changement de géométrie.
+    private final LongConsumer cursorListener; // Traitement d'une position du curseur.
+    private final FrameBufferPool pool = FrameBufferPool.shared(); // Tampons directs de lecture et d'écriture.
+    private final Object writeLock = new Object(); // Sérialise les écritures des acquittements et des entrées.
+    private volatile boolean closed;
+
+    public SocketTransportClient(String host, int port, SharingInterface server, Consumer<FrameDelta> consumer,
+                                 Consumer<ScreenGeometry> geometryListener, LongConsumer cursorListener) throws IOException {
+        this.server = server;
+        this.consumer = consumer;
+        this.geometryListener = geometryListener;
+        this.cursorListener = cursorListener;
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    // Démarre la tâche de lecture dans la portée de la session.
+    public void start(SessionScope scope) {
+        scope.fork("socket-read", this::readLoop);
+    }
+
+    // Demande au serveur de pousser les images de la session sur cette connexion.
+    public void startStreaming(String sessionId, int targetFps) throws IOException {
+        ByteBuffer buffer = pool.acquireBuffer(WireProtocol.HEADER_BYTES + 2 + sessionId.length() * 3 + 4);
+        WireProtocol.writeHello(buffer, sessionId, targetFps);
+        write(buffer);
+    }
+
+    // Arrête la diffusion ; la connexion reste utilisable pour les entrées.
+    public void stopStreaming() throws IOException {
+        ByteBuffer buffer = pool.acquireBuffer(WireProtocol.HEADER_BYTES);
+        WireProtocol.writeEmpty(buffer, WireProtocol.BYE);
+        write(buffer);
+    }
+
+    // Envoie un lot d'événements d'entrée (InputBatcher).
+    @Override
+    public void sendBatch(int[] events) throws IOException {
+        ByteBuffer buffer = pool.acquireBuffer(WireProtocol.inputSize(events));
+        WireProtocol.writeInput(buffer, events);
+        write(buffer);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Écrit un message complet puis rend son tampon au pool.
+    private void write(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        try {
+            synchronized (writeLock) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    // Tâche qui lit les messages du serveur jusqu'à la fermeture de la connexion.
+    private void readLoop() {
+        ByteBuffer header = ByteBuffer.allocateDirect(WireProtocol.HEADER_BYTES);
+        try {
+            while (!closed) {
+                header.clear();
+                readFully(header);
+                header.flip();
+                int length = WireProtocol.checkLength(header.getInt());
+                byte type = header.get();
+                ByteBuffer message = pool.acquireBuffer(Math.max(1, length - 1));
+                try {
+                    message.limit(length - 1);
+                    readFully(message);
+                    message.flip();
+                    dispatch(type, message);
+                } catch (BufferUnderflowException e) {
+                    throw new IOException("Truncated message of type " + type, e);
+                } finally {
+                    pool.release(message);
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Socket transport closed: " + e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            // Erreur d'un écouteur : la lecture s'arrête, la connexion est fermée pour que le serveur le voie.
+            System.err.println("Socket transport failed: " + e);
+            close();
+        }
+    }
+
+    private void dispatch(byte type, ByteBuffer message) throws IOException {
+        switch (type) {
+            case WireProtocol.FRAME:
+                FrameDelta delta = WireProtocol.readFrame(message);
+                long start = System.nanoTime();
+                ByteBuffer reply = pool.acquireBuffer(WireProtocol.HEADER_BYTES + 16);
+                try {
+                    consumer.accept(delta);
+                    WireProtocol.writeAck(reply, delta.getFrameId(), System.nanoTime() - start);
+                } catch (RuntimeException e) {
+                    // Image inapplicable : le serveur repart d'une image clé, la lecture continue.
+                    System.err.println("Failed to apply frame " + delta.getFrameId() + ": " + e);
+                    WireProtocol.writeNack(reply, delta.getFrameId());
+                }
+                write(reply);
+                break;
+            case WireProtocol.CURSOR:
+                WireProtocol.checkPayload(message, 8);
+                cursorListener.accept(message.getLong());
+                break;
+            case WireProtocol.GEOMETRY:
+                geometryListener.accept(server.getScreenGeometry());
+                break;
+            default:
+                throw new IOException("Unknown message type " + type);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+    }
+}
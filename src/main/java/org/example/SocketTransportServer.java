@@ -0,0 +1,446 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classe SocketTransportServer qui transporte les images, le curseur et les entrées sur une connexion
+ * TCP persistante par session, avec le format binaire de WireProtocol, à la place des appels RMI.
+ * Un seul thread gère toutes les connexions avec un Selector et des SocketChannel non bloquants :
+ * il lit les messages des clients et écrit les messages en attente par écritures groupées (gathering writes).
+ * Côté serveur, une connexion se présente comme un FrameCallback : la session et son thread d'envoi sont
+ * les mêmes qu'avec RMI, seul le transport change. RMI reste utilisé pour les opérations de contrôle.
+ * Seule la dernière position du curseur et la dernière géométrie en attente sont écrites : un client lent
+ * ne fait pas grossir la file de la connexion. Le serveur écoute sur l'adresse annoncée par RMI.
+ * Un message invalide ne ferme que la connexion qui l'a envoyé ; avant HELLO, seuls de petits messages sont
+ * acceptés, et seul un lot d'entrées d'une connexion saluée peut agrandir le tampon de lecture.
+ */
+public class SocketTransportServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 5901; // Port par défaut, réglable avec -Drdp.transport.port.
+    private static final int READ_BUFFER_BYTES = 64 * 1024; // Tampon de lecture initial d'une connexion.
+    private static final int PRE_HELLO_MAX_BYTES = 1024; // Taille maximale d'un message reçu avant HELLO.
+    private static final long ACK_TIMEOUT_MILLIS = 10_000; // Au-delà, le client est considéré injoignable.
+
+    private final SharingInterface server; // Serveur local auquel les messages sont transmis.
+    private final ServerSocketChannel acceptor;
+    private final Selector selector;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>(); // Connexions avec des messages à écrire.
+    private final FrameBufferPool pool = FrameBufferPool.shared(); // Tampons directs des en-têtes.
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    public SocketTransportServer(SharingInterface server, int port) throws IOException {
+        this(server, configuredAddress(), port);
+    }
+
+    public SocketTransportServer(SharingInterface server, InetAddress address, int port) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.acceptor = ServerSocketChannel.open();
+        acceptor.bind(new InetSocketAddress(address, port));
+        acceptor.configureBlocking(false);
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        this.loop = new Thread(this::selectLoop, "socket-transport"); // Thread de plateforme : il reste bloqué dans select().
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    // Port configuré avec -Drdp.transport.port.
+    public static int configuredPort() {
+        return Integer.getInteger("rdp.transport.port", DEFAULT_PORT);
+    }
+
+    // Adresse utilisée par RMI pour les objets exportés : -Djava.rmi.server.hostname, sinon l'adresse de l'hôte.
+    public static InetAddress configuredAddress() throws UnknownHostException {
+        String hostname = System.getProperty("java.rmi.server.hostname");
+        return hostname != null ? InetAddress.getByName(hostname) : InetAddress.getLocalHost();
+    }
+
+    // Adresse d'écoute.
+    public InetAddress getAddress() {
+        return acceptor.socket().getInetAddress();
+    }
+
+    // Port effectivement ouvert (utile avec le port 0).
+    public int getPort() {
+        return acceptor.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Boucle du Selector : acceptations, lectures et écritures en attente.
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Connection pending;
+                while ((pending = writable.poll()) != null) {
+                    if (pending.key.isValid()) {
+                        pending.key.interestOps(pending.key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.write();
+                            }
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() != null) {
+                            ((Connection) key.attachment()).close(e);
+                        }
+                    } catch (RuntimeException e) {
+                        // Message mal formé ou erreur du serveur : seule cette connexion est fermée.
+                        if (key.attachment() != null) {
+                            ((Connection) key.attachment()).close(new IOException("Invalid message: " + e, e));
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("Socket transport stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() != null) {
+                    ((Connection) key.attachment()).close(null);
+                }
+            }
+            try {
+                acceptor.close();
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = acceptor.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    // Message en attente d'écriture : en-tête dans un tampon direct du pool, puis données éventuelles.
+    private static class Outbound {
+        final ByteBuffer[] buffers;
+        final ByteBuffer pooled;
+
+        Outbound(ByteBuffer[] buffers, ByteBuffer pooled) {
+            this.buffers = buffers;
+            this.pooled = pooled;
+        }
+
+        boolean hasRemaining() {
+            return buffers[buffers.length - 1].hasRemaining();
+        }
+    }
+
+    /**
+     * Connexion d'un client : état de lecture, messages à écrire, et FrameCallback de sa session.
+     * Les images attendent leur acquittement, il y en a donc au plus une en file ; le curseur et la géométrie
+     * n'occupent qu'un emplacement chacun, remplacé par la valeur la plus récente.
+     */
+    private class Connection implements FrameCallback {
+        final SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        final ArrayDeque<Outbound> frames = new ArrayDeque<>(); // Images à écrire, protégée par this.
+        Outbound current; // Message en cours d'écriture, protégé par this.
+        boolean cursorPending; // Position du curseur à écrire, protégée par this.
+        long cursorPosition;
+        boolean geometryPending; // Version de géométrie à écrire, protégée par this.
+        long geometryVersion;
+        boolean greeted; // HELLO reçu : les entrées sont acceptées (thread du Selector).
+        volatile CompletableFuture<Long> pendingAck; // Acquittement attendu par le thread d'envoi de la session.
+        volatile long pendingFrameId; // Image dont l'acquittement est attendu.
+        volatile String sessionId;
+        volatile boolean closed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        // Lit les messages complets disponibles (thread du Selector).
+        void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                throw new IOException("Connection closed by the client");
+            }
+            readBuffer.flip();
+            while (readBuffer.remaining() >= WireProtocol.HEADER_BYTES) {
+                int length = WireProtocol.checkLength(readBuffer.getInt(readBuffer.position()));
+                byte type = readBuffer.get(readBuffer.position() + 4);
+                if (!greeted && length > PRE_HELLO_MAX_BYTES) {
+                    throw new IOException("Message of " + length + " bytes received before HELLO");
+                }
+                if (readBuffer.remaining() < 4 + length) {
+                    if (4 + length > readBuffer.capacity()) {
+                        if (type != WireProtocol.INPUT) {
+                            throw new IOException("Message of type " + type + " too large: " + length + " bytes");
+                        }
+                        ByteBuffer larger = ByteBuffer.allocateDirect(4 + length);
+                        larger.put(readBuffer);
+                        readBuffer = larger;
+                        return;
+                    }
+                    break;
+                }
+                int end = readBuffer.position() + 4 + length;
+                readBuffer.position(readBuffer.position() + 4);
+                ByteBuffer message = readBuffer.slice();
+                message.limit(length);
+                dispatch(message.get(), message);
+                readBuffer.position(end);
+            }
+            readBuffer.compact();
+        }
+
+        private void dispatch(byte type, ByteBuffer message) throws IOException {
+            switch (type) {
+                case WireProtocol.HELLO:
+                    sessionId = WireProtocol.readSessionId(message);
+                    server.startStreaming(sessionId, this, message.getInt());
+                    greeted = true; // La session existe : ses entrées sont acceptées, y compris après BYE.
+                    break;
+                case WireProtocol.ACK:
+                    WireProtocol.checkPayload(message, 16);
+                    long frameId = message.getLong();
+                    long decodeNanos = message.getLong();
+                    CompletableFuture<Long> ack = pendingAck;
+                    if (ack != null && frameId == pendingFrameId) {
+                        ack.complete(decodeNanos);
+                    }
+                    break;
+                case WireProtocol.NACK:
+                    WireProtocol.checkPayload(message, 8);
+                    long refused = message.getLong();
+                    CompletableFuture<Long> nack = pendingAck;
+                    if (nack != null && refused == pendingFrameId) {
+                        nack.completeExceptionally(new UncheckedIOException(
+                                new IOException("Frame " + refused + " refused by the client")));
+                    }
+                    break;
+                case WireProtocol.INPUT:
+                    if (!greeted) {
+                        throw new IOException("Input received before HELLO");
+                    }
+                    server.receiveInputBatch(WireProtocol.readInput(message));
+                    break;
+                case WireProtocol.BYE:
+                    stopStreaming(); // La connexion reste ouverte pour les entrées jusqu'à sa fermeture.
+                    break;
+                default:
+                    throw new IOException("Unknown message type " + type);
+            }
+        }
+
+        // Écrit autant que possible des messages en attente (thread du Selector).
+        void write() throws IOException {
+            synchronized (this) {
+                while (current != null || (current = nextOutbound()) != null) {
+                    channel.write(current.buffers);
+                    if (current.hasRemaining()) {
+                        return; // Le tampon d'envoi du socket est plein : OP_WRITE reste actif.
+                    }
+                    pool.release(current.pooled);
+                    current = null;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        // Prochain message à écrire : géométrie, curseur, puis image (appelée sous le verrou).
+        private Outbound nextOutbound() {
+            if (geometryPending) {
+                geometryPending = false;
+                ByteBuffer buffer = pool.acquireBuffer(WireProtocol.HEADER_BYTES + 8);
+                WireProtocol.writeGeometry(buffer, geometryVersion);
+                return single(buffer);
+            }
+            if (cursorPending) {
+                cursorPending = false;
+                ByteBuffer buffer = pool.acquireBuffer(WireProtocol.HEADER_BYTES + 8);
+                WireProtocol.writeCursor(buffer, cursorPosition);
+                return single(buffer);
+            }
+            return frames.poll();
+        }
+
+        private Outbound single(ByteBuffer buffer) {
+            buffer.flip();
+            return new Outbound(new ByteBuffer[]{buffer}, buffer);
+        }
+
+        private RemoteException closedException() {
+            return new RemoteException("Socket transport closed for session " + sessionId);
+        }
+
+        // Réveille le Selector pour qu'il écrive les messages en attente (n'importe quel thread).
+        private void wakeWriter() {
+            writable.add(this);
+            selector.wakeup();
+        }
+
+        // Envoie l'image et attend l'acquittement du client, comme le retour d'un appel RMI.
+        @Override
+        public long onFrame(FrameDelta delta) throws RemoteException {
+            ByteBuffer header = pool.acquireBuffer(WireProtocol.frameHeaderSize(delta));
+            WireProtocol.writeFrameHeader(header, delta);
+            header.flip();
+            ByteBuffer[] buffers = new ByteBuffer[1 + delta.getTiles().size()];
+            int n = 0;
+            buffers[n++] = header;
+            for (TileUpdate tile : delta.getTiles()) {
+                if (!tile.isReference()) {
+                    buffers[n++] = ByteBuffer.wrap(tile.getData());
+                }
+            }
+            CompletableFuture<Long> ack = new CompletableFuture<>();
+            pendingFrameId = delta.getFrameId();
+            pendingAck = ack;
+            synchronized (this) {
+                if (closed) {
+                    pool.release(header);
+                    throw closedException();
+                }
+                frames.add(new Outbound(n == buffers.length ? buffers : Arrays.copyOf(buffers, n), header));
+            }
+            wakeWriter();
+            try {
+                return ack.get(ACK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemoteException("Interrupted while waiting for frame acknowledgement", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    // Refus du client : même effet qu'une exception levée par FrameReceiver.onFrame avec RMI.
+                    throw (UncheckedIOException) e.getCause();
+                }
+                throw new RemoteException("Frame " + delta.getFrameId() + " not acknowledged", e);
+            } catch (TimeoutException e) {
+                throw new RemoteException("Frame " + delta.getFrameId() + " not acknowledged", e);
+            } finally {
+                pendingAck = null;
+            }
+        }
+
+        @Override
+        public void geometryChanged(ScreenGeometry geometry) throws RemoteException {
+            boolean wake;
+            synchronized (this) {
+                if (closed) {
+                    throw closedException();
+                }
+                geometryVersion = geometry.getVersion();
+                wake = !geometryPending;
+                geometryPending = true;
+            }
+            if (wake) {
+                wakeWriter();
+            }
+        }
+
+        // Remplace la position en attente : seule la plus récente est écrite.
+        @Override
+        public void cursorMoved(int x, int y, int shapeId) throws RemoteException {
+            boolean wake;
+            synchronized (this) {
+                if (closed) {
+                    throw closedException();
+                }
+                cursorPosition = CursorPosition.pack(x, y, shapeId);
+                wake = !cursorPending;
+                cursorPending = true;
+            }
+            if (wake) {
+                wakeWriter();
+            }
+        }
+
+        // Ferme la connexion et arrête la diffusion de la session (thread du Selector).
+        void close(IOException cause) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (current != null) {
+                    pool.release(current.pooled);
+                    current = null;
+                }
+                for (Outbound message : frames) {
+                    pool.release(message.pooled);
+                }
+                frames.clear();
+            }
+            if (cause != null && sessionId != null) {
+                System.err.println("Socket transport for session " + sessionId + " closed: " + cause.getMessage());
+            }
+            CompletableFuture<Long> ack = pendingAck;
+            if (ack != null) {
+                ack.completeExceptionally(cause != null ? cause : new IOException("Connection closed"));
+            }
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            stopStreaming();
+        }
+
+        // Arrête la diffusion démarrée par HELLO sur cette connexion.
+        private void stopStreaming() {
+            String id = sessionId;
+            sessionId = null;
+            if (id != null) {
+                try {
+                    server.stopStreaming(id);
+                } catch (RemoteException e) {
+                    // La session a déjà été fermée par unregisterClient.
+                }
+            }
+        }
+    }
+}
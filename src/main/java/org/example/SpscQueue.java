@@ -0,0 +1,82 @@
+package org.example;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Classe SpscQueue : file bornée sans verrou pour un seul producteur et un seul consommateur.
+ * Sert à relier deux étages du pipeline d'images ; offer échoue au lieu de bloquer lorsque la file est pleine.
+ */
+public class SpscQueue<T> {
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100); // Attente entre deux essais.
+
+    private final AtomicReferenceArray<T> slots; // Emplacements de la file circulaire.
+    private final int mask; // Masque d'index (capacité arrondie à une puissance de deux).
+    private final AtomicLong head = new AtomicLong(); // Prochain index lu par le consommateur.
+    private final AtomicLong tail = new AtomicLong(); // Prochain index écrit par le producteur.
+
+    public SpscQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    // Ajoute un élément ; retourne false si la file est pleine (appelé par le producteur uniquement).
+    public boolean offer(T item) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        slots.lazySet((int) (t & mask), item);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Retire un élément ; retourne null si la file est vide (appelé par le consommateur uniquement).
+    public T poll() {
+        long h = head.get();
+        if (h >= tail.get()) {
+            return null;
+        }
+        int index = (int) (h & mask);
+        T item = slots.get(index);
+        slots.lazySet(index, null);
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    // Attend qu'un élément soit disponible.
+    public T take() throws InterruptedException {
+        T item;
+        while ((item = poll()) == null) {
+            park();
+        }
+        return item;
+    }
+
+    // Attend qu'une place se libère puis ajoute l'élément.
+    public void put(T item) throws InterruptedException {
+        while (!offer(item)) {
+            park();
+        }
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    private static void park() throws InterruptedException {
+        LockSupport.parkNanos(PARK_NANOS);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe StageTimer qui mesure le temps passé dans un étage du pipeline d'images.
+ * Les durées peuvent aussi alimenter un Histogram, pour les centiles exposés par Metrics.
+ */
+public class StageTimer {
+    private final String name; // Nom de l'étage (capture, encode, send).
+    private final LongAdder count = new LongAdder(); // Nombre d'images traitées.
+    private final LongAdder totalNanos = new LongAdder(); // Temps cumulé.
+    private final AtomicLong maxNanos = new AtomicLong(); // Temps maximal observé.
+    private final LongAdder dropped = new LongAdder(); // Images abandonnées à la sortie de l'étage.
+    private final Histogram histogram; // Distribution des durées, ou null.
+    private final LongAdder droppedCounter; // Compteur partagé des images abandonnées, ou null.
+
+    public StageTimer(String name) {
+        this(name, null, null);
+    }
+
+    public StageTimer(String name, Histogram histogram, LongAdder droppedCounter) {
+        this.name = name;
+        this.histogram = histogram;
+        this.droppedCounter = droppedCounter;
+    }
+
+    // Enregistre la durée d'un traitement commencé à startNanos.
+    public void record(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        count.increment();
+        totalNanos.add(elapsed);
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+        if (histogram != null) {
+            histogram.record(elapsed);
+        }
+    }
+
+    public void drop() {
+        dropped.increment();
+        if (droppedCounter != null) {
+            droppedCounter.increment();
+        }
+    }
+
+    // Retourne un instantané sérialisable des mesures.
+    public StageTiming snapshot() {
+        return new StageTiming(name, count.sum(), totalNanos.sum(), maxNanos.get(), dropped.sum());
+    }
+}
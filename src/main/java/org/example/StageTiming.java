@@ -0,0 +1,53 @@
+package org.example;
+
+import java.io.Serializable;
+
+/**
+ * Classe StageTiming : instantané des mesures d'un étage du pipeline, envoyé au client via RMI.
+ */
+public class StageTiming implements Serializable {
+    private final String stage; // Nom de l'étage.
+    private final long count; // Nombre d'images traitées.
+    private final long totalNanos; // Temps cumulé en nanosecondes.
+    private final long maxNanos; // Temps maximal en nanosecondes.
+    private final long dropped; // Images abandonnées à la sortie de l'étage.
+
+    public StageTiming(String stage, long count, long totalNanos, long maxNanos, long dropped) {
+        this.stage = stage;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.dropped = dropped;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    // Temps moyen par image en microsecondes.
+    public double getAverageMicros() {
+        return count == 0 ? 0 : totalNanos / 1000.0 / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d frames, avg %.1f us, max %d us, dropped %d",
+                stage, count, getAverageMicros(), maxNanos / 1000, dropped);
+    }
+}
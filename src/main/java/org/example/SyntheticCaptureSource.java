@@ -0,0 +1,312 @@
+package org.example;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Classe SyntheticCaptureSource qui génère un écran sans affichage réel, en rejouant un script de scènes
+ * représentatives : frappe dans un terminal, défilement d'un document, lecture d'une vidéo, bureau immobile.
+ * Le script est une liste "scène:secondes" répétée en boucle, par exemple "terminal:10,scroll:10,video:10".
+ * Le contenu dépend du temps écoulé et non du nombre de captures : la charge suit la fréquence demandée
+ * par les spectateurs, comme avec un écran réel. Chaque capture ne redessine que ce qui change ;
+ * le reste de l'écran est conservé d'une capture à l'autre.
+ * L'écran simulé peut être déclaré comme plusieurs écrans côte à côte (-Drdp.capture.monitors),
+ * pour essayer les zones d'intérêt par écran (RegionOfInterest) sans affichage.
+ */
+public class SyntheticCaptureSource implements CaptureSource {
+    public static final String DEFAULT_SCRIPT = "terminal:10,scroll:10,video:10,static:10";
+    private static final int CHARS_PER_SECOND = 40; // Vitesse de frappe dans le terminal.
+    private static final int SCROLL_PIXELS_PER_SECOND = 400; // Vitesse de défilement du document.
+    private static final int VIDEO_FPS = 30; // Fréquence d'images de la vidéo.
+    private static final int MAX_CHARS_PER_CAPTURE = 500; // Limite le rattrapage après une longue pause.
+    private static final Color TERMINAL_BACKGROUND = new Color(30, 30, 30);
+    private static final Color DESKTOP_BACKGROUND = new Color(0, 90, 140);
+
+    // Scènes disponibles dans un script.
+    public enum Scene {
+        TERMINAL, // Texte tapé ligne par ligne ; l'écran remonte d'une ligne en bas du terminal.
+        SCROLL, // Document de texte qui défile verticalement (copies détectées par MotionDetector).
+        VIDEO, // Fenêtre vidéo au milieu d'un bureau immobile : presque tous ses pixels changent.
+        STATIC // Bureau immobile : seule l'horloge change, une fois par seconde.
+    }
+
+    private final int width; // Taille de l'écran simulé.
+    private final int height;
+    private final int monitors; // Nombre d'écrans côte à côte déclarés dans la géométrie.
+    private final List<Scene> scenes = new ArrayList<>(); // Script : scènes et durées, en boucle.
+    private final List<Long> durations = new ArrayList<>();
+    private final long cycleNanos; // Durée d'un tour du script.
+    private final long startNanos = System.nanoTime();
+    private final BufferedImage canvas; // Écran simulé, modifié en place.
+    private final int[] pixels;
+    private final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 14);
+    private final int lineHeight;
+    private final int charWidth;
+    private Scene current; // Scène affichée sur canvas.
+    private long sceneStartNanos;
+    private final Random text = new Random(42); // Texte tapé : la même graine donne le même contenu.
+    private long typed; // Caractères tapés depuis le début de la scène.
+    private int column; // Position de frappe dans le terminal.
+    private int row;
+    private int lineLength; // Longueur de la ligne en cours de frappe.
+    private BufferedImage document; // Document de la scène SCROLL, plus haut que l'écran.
+    private long videoFrame = -1; // Dernière image de la vidéo dessinée.
+    private long clockSecond = -1; // Dernière seconde affichée par l'horloge.
+
+    public SyntheticCaptureSource(int width, int height, String script) {
+        this(width, height, script, 1);
+    }
+
+    public SyntheticCaptureSource(int width, int height, String script, int monitors) {
+        if (monitors <= 0 || monitors > width) {
+            throw new IllegalArgumentException("Invalid monitor count: " + monitors);
+        }
+        this.width = width;
+        this.height = height;
+        this.monitors = monitors;
+        long total = 0;
+        for (String step : script.split(",")) {
+            String[] parts = step.trim().split(":");
+            scenes.add(Scene.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)));
+            long nanos = (long) (Double.parseDouble(parts.length > 1 ? parts[1] : "10") * 1e9);
+            durations.add(nanos);
+            total += nanos;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Empty capture script: " + script);
+        }
+        this.cycleNanos = total;
+        this.canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+        Graphics2D g = canvas.createGraphics();
+        try {
+            FontMetrics metrics = g.getFontMetrics(font);
+            lineHeight = metrics.getHeight();
+            charWidth = metrics.charWidth('m');
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Override
+    public synchronized BufferedImage capture(Rectangle bounds) {
+        update(System.nanoTime() - startNanos);
+        Rectangle area = bounds.intersection(new Rectangle(0, 0, width, height));
+        BufferedImage image = new BufferedImage(Math.max(1, area.width), Math.max(1, area.height), BufferedImage.TYPE_INT_RGB);
+        int[] target = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < area.height; y++) {
+            System.arraycopy(pixels, (area.y + y) * width + area.x, target, y * area.width, area.width);
+        }
+        return image;
+    }
+
+    // Durée d'un tour du script : une mesure sur un multiple de cette durée voit toutes les scènes dans les mêmes proportions.
+    public long getCycleNanos() {
+        return cycleNanos;
+    }
+
+    @Override
+    public ScreenGeometry detectGeometry(long version) {
+        if (monitors == 1) {
+            return new ScreenGeometry(version, width, height, 1.0,
+                    List.of(new MonitorInfo("synthetic", 0, 0, width, height, 1.0)));
+        }
+        List<MonitorInfo> list = new ArrayList<>();
+        for (int i = 0; i < monitors; i++) {
+            int left = width * i / monitors;
+            list.add(new MonitorInfo("synthetic" + i, left, 0, width * (i + 1) / monitors - left, height, 1.0));
+        }
+        return new ScreenGeometry(version, width, height, 1.0, List.copyOf(list));
+    }
+
+    // Avance le script jusqu'au temps donné et met à jour l'écran simulé.
+    private void update(long elapsed) {
+        long inCycle = elapsed % cycleNanos;
+        int index = 0;
+        long sceneStart = elapsed - inCycle;
+        while (inCycle >= durations.get(index)) {
+            inCycle -= durations.get(index);
+            sceneStart += durations.get(index);
+            index++;
+        }
+        Scene scene = scenes.get(index);
+        if (scene != current || sceneStart != sceneStartNanos) {
+            current = scene;
+            sceneStartNanos = sceneStart;
+            begin(scene);
+        }
+        switch (scene) {
+            case TERMINAL:
+                type(Math.min(inCycle * CHARS_PER_SECOND / 1_000_000_000L, typed + MAX_CHARS_PER_CAPTURE));
+                break;
+            case SCROLL:
+                scroll(inCycle * SCROLL_PIXELS_PER_SECOND / 1_000_000_000L);
+                break;
+            case VIDEO:
+                video(inCycle * VIDEO_FPS / 1_000_000_000L);
+                break;
+            default:
+                clock(inCycle / 1_000_000_000L);
+                break;
+        }
+    }
+
+    // Dessine le fond d'une scène qui commence.
+    private void begin(Scene scene) {
+        Graphics2D g = canvas.createGraphics();
+        try {
+            if (scene == Scene.TERMINAL) {
+                g.setColor(TERMINAL_BACKGROUND);
+                g.fillRect(0, 0, width, height);
+                typed = 0;
+                column = 0;
+                row = -1; // La première ligne est ouverte par le premier caractère.
+                lineLength = 0;
+            } else if (scene == Scene.SCROLL) {
+                if (document == null) {
+                    document = renderDocument();
+                }
+            } else {
+                drawDesktop(g);
+                videoFrame = -1;
+                clockSecond = -1;
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Tape les caractères jusqu'au total demandé ; passe à la ligne et fait remonter l'écran si nécessaire.
+    private void type(long total) {
+        if (total <= typed) {
+            return;
+        }
+        Graphics2D g = canvas.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(font);
+            int rows = Math.max(1, height / lineHeight);
+            int columns = Math.max(1, width / charWidth - 1);
+            for (; typed < total; typed++) {
+                if (column >= lineLength) {
+                    column = 0;
+                    lineLength = Math.min(columns, 8 + text.nextInt(90));
+                    if (++row >= rows) {
+                        row = rows - 1;
+                        // Le terminal remonte d'une ligne : même effet qu'un défilement.
+                        System.arraycopy(pixels, lineHeight * width, pixels, 0, (rows - 1) * lineHeight * width);
+                        g.setColor(TERMINAL_BACKGROUND);
+                        g.fillRect(0, row * lineHeight, width, height - row * lineHeight);
+                    }
+                    g.setColor(new Color(120, 200, 120));
+                    g.drawString("$", 0, row * lineHeight + lineHeight - 4);
+                    column = 2;
+                }
+                char c = text.nextInt(6) == 0 ? ' ' : (char) ('a' + text.nextInt(26));
+                g.setColor(new Color(210, 210, 210));
+                g.drawString(String.valueOf(c), column * charWidth, row * lineHeight + lineHeight - 4);
+                column++;
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Affiche le document à partir de la ligne de pixels offset (modulo sa hauteur utile).
+    private void scroll(long offset) {
+        int top = (int) (offset % (document.getHeight() - height));
+        int[] source = ((DataBufferInt) document.getRaster().getDataBuffer()).getData();
+        System.arraycopy(source, top * width, pixels, 0, width * height);
+    }
+
+    // Dessine l'image numéro frame de la vidéo (dégradés en mouvement et bruit) au centre de l'écran.
+    private void video(long frame) {
+        if (frame == videoFrame) {
+            return;
+        }
+        videoFrame = frame;
+        int videoWidth = width / 2;
+        int videoHeight = height / 2;
+        int left = (width - videoWidth) / 2;
+        int top = (height - videoHeight) / 2;
+        int seed = (int) frame * 0x9E3779B9 | 1;
+        for (int y = 0; y < videoHeight; y++) {
+            int offset = (top + y) * width + left;
+            for (int x = 0; x < videoWidth; x++) {
+                seed ^= seed << 13; // Xorshift : bruit bon marché, comme le grain d'une vidéo.
+                seed ^= seed >>> 17;
+                seed ^= seed << 5;
+                int noise = seed & 0x1F;
+                int r = Math.min(255, ((x + (int) frame * 3) & 0xFF) + noise);
+                int g = Math.min(255, ((y + (int) frame * 2) & 0xFF) + noise);
+                int b = Math.min(255, (((x ^ y) + (int) frame) & 0xFF) + noise);
+                pixels[offset + x] = r << 16 | g << 8 | b;
+            }
+        }
+    }
+
+    // Met à jour l'horloge de la barre des tâches.
+    private void clock(long second) {
+        if (second == clockSecond) {
+            return;
+        }
+        clockSecond = second;
+        Graphics2D g = canvas.createGraphics();
+        try {
+            g.setColor(new Color(40, 40, 40));
+            g.fillRect(width - 100, height - 40, 100, 40);
+            g.setColor(Color.WHITE);
+            g.setFont(font);
+            g.drawString(String.format("12:%02d:%02d", second / 60 % 60, second % 60), width - 90, height - 15);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void drawDesktop(Graphics2D g) {
+        g.setColor(DESKTOP_BACKGROUND);
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(40, 40, 40));
+        g.fillRect(0, height - 40, width, 40);
+        for (int i = 0; i < 8; i++) {
+            g.setColor(new Color(200, 200, 60 + i * 20));
+            g.fillRoundRect(20, 20 + i * 80, 48, 48, 8, 8);
+        }
+    }
+
+    // Dessine un document de texte de quatre écrans de haut, sur fond clair.
+    private BufferedImage renderDocument() {
+        BufferedImage image = new BufferedImage(width, height * 4, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(250, 250, 245));
+            g.fillRect(0, 0, width, image.getHeight());
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(font);
+            Random random = new Random(7);
+            int columns = Math.max(1, width / charWidth - 8);
+            for (int y = lineHeight, line = 1; y < image.getHeight(); y += lineHeight, line++) {
+                g.setColor(line % 9 == 0 ? new Color(30, 60, 160) : new Color(40, 40, 40));
+                StringBuilder builder = new StringBuilder();
+                int length = random.nextInt(columns);
+                for (int i = 0; i < length; i++) {
+                    builder.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+                }
+                g.drawString(String.format("%5d  %s", line, builder), 4, y);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
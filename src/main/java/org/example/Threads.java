@@ -0,0 +1,54 @@
+package org.example;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Classe Threads qui crée les threads de l'application : threads virtuels lorsque la JVM les fournit (Java 21+),
+ * sinon threads de plateforme en mode démon. Le code reste compilable en Java 18 : les threads virtuels
+ * sont obtenus par réflexion. -Drdp.virtualThreads=false force les threads de plateforme.
+ */
+public final class Threads {
+    private static final ThreadFactory VIRTUAL = virtualFactory(); // Fabrique de threads virtuels, ou null.
+
+    private Threads() {
+    }
+
+    // Indique si les nouveaux threads sont virtuels.
+    public static boolean isVirtual() {
+        return VIRTUAL != null;
+    }
+
+    // Crée un thread (non démarré) portant le nom donné.
+    public static Thread newThread(String name, Runnable task) {
+        Thread thread;
+        if (VIRTUAL != null) {
+            thread = VIRTUAL.newThread(task);
+            thread.setName(name);
+        } else {
+            thread = new Thread(task, name);
+            thread.setDaemon(true);
+        }
+        return thread;
+    }
+
+    // Crée et démarre un thread portant le nom donné.
+    public static Thread start(String name, Runnable task) {
+        Thread thread = newThread(name, task);
+        thread.start();
+        return thread;
+    }
+
+    // Retourne Thread.ofVirtual().factory() si la JVM le permet.
+    private static ThreadFactory virtualFactory() {
+        if (!Boolean.parseBoolean(System.getProperty("rdp.virtualThreads", "true"))) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 18 à 20 : pas de threads virtuels (ou seulement en preview).
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe TileCache : cache LRU de tuiles indexées par le hachage de leurs pixels (contenu adressable).
+ * Le serveur garde pour chaque session une copie des clés du cache du client, et remplace une tuile déjà
+ * présente par une simple référence ; le client garde les pixels décodés.
+ * Les deux côtés restent synchronisés sans message supplémentaire tant qu'ils effectuent les mêmes opérations
+ * dans le même ordre : get pour une référence, put pour une tuile complète, avec la même capacité.
+ * En cas de désynchronisation, le serveur change d'époque et le client vide son cache.
+ * Non thread-safe : chaque côté l'utilise depuis un seul thread à la fois.
+ */
+public class TileCache<V> {
+    public static final int DEFAULT_ENTRIES = 2048; // Capacité par défaut (8 Mio de pixels pour des tuiles 64x64).
+    public static final long NO_HASH = 0; // Hachage réservé : tuile non adressable.
+
+    private final int capacity; // Nombre maximal de tuiles.
+    private final LinkedHashMap<Long, V> entries; // Ordre d'accès : la tuile la plus ancienne est évincée.
+    private long hits; // Références trouvées.
+    private long misses; // Tuiles absentes.
+
+    public TileCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > TileCache.this.capacity;
+            }
+        };
+    }
+
+    // Capacité configurée avec -Drdp.tileCache.entries (0 désactive le cache).
+    public static int configuredEntries() {
+        return Math.max(0, Integer.getInteger("rdp.tileCache.entries", DEFAULT_ENTRIES));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Retourne la tuile et la marque comme la plus récente, ou null ; compte un succès ou un échec.
+    public V get(long hash) {
+        V value = entries.get(hash);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    // Ajoute (ou remplace) une tuile, en évinçant la moins récemment utilisée si le cache est plein.
+    public void put(long hash, V value) {
+        if (capacity > 0 && hash != NO_HASH) {
+            entries.put(hash, value);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // Proportion de tuiles trouvées dans le cache, entre 0 et 1.
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TileCache[%d/%d tiles, hit rate %.1f%%]", entries.size(), capacity, getHitRate() * 100);
+    }
+
+    // Hachage 64 bits des pixels d'une tuile et de sa taille ; jamais égal à NO_HASH.
+    public static long hash(int[] pixels, int stride, int x, int y, int width, int height) {
+        long h = 0x9E3779B97F4A7C15L ^ ((long) width << 32 | height);
+        for (int row = y; row < y + height; row++) {
+            int from = row * stride + x;
+            for (int i = from; i < from + width; i++) {
+                h = Long.rotateLeft(h ^ ((pixels[i] & 0xFFFFFFFFL) * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B97F4A7C15L;
+            }
+        }
+        // Mélange final (splitmix64), pour que tous les bits dépendent de tous les pixels.
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return h == NO_HASH ? 1 : h;
+    }
+}
@@ -0,0 +1,190 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe TileDiffer qui compare chaque nouvelle capture à l'image précédente par tuiles de taille fixe.
+ * L'image précédente est conservée dans un tampon réutilisé d'une capture à l'autre.
+ * Les régions défilées sont d'abord détectées (MotionDetector) et envoyées comme copies : elles sont appliquées
+ * à l'image précédente, et seules les tuiles encore différentes sont encodées (désactivable avec -Drdp.motion=false).
+ * Les tuiles modifiées sont encodées avec le codec négocié avec le client, en parallèle lorsqu'un
+ * ParallelTileCodec est fourni. Chaque tuile porte le hachage de ses pixels, utilisé par le cache de tuiles.
+ * Les TileDiffer créés par sibling (une zone capturée chacun) partagent la suite des identifiants d'image.
+ */
+public class TileDiffer {
+    public static final int DEFAULT_TILE_SIZE = 64; // Taille par défaut d'une tuile en pixels.
+
+    private final int tileSize; // Taille d'une tuile en pixels.
+    private FrameCodec codec; // Codec utilisé pour encoder les tuiles modifiées.
+    private final ParallelTileCodec tileCodec; // Encodage parallèle des tuiles, ou null pour encoder dans le thread appelant.
+    private final List<Rectangle> changed = new ArrayList<>(); // Régions modifiées de l'image en cours, réutilisée.
+    private long[] hashes = new long[0]; // Hachage des pixels de chaque région modifiée, pour le cache de tuiles.
+    private final MotionDetector motion; // Détection des défilements, ou null si désactivée.
+    private volatile boolean keyFrameRequested; // La prochaine image sera une image clé.
+    private volatile long geometryVersion; // Version de la géométrie de l'écran, reportée dans chaque image.
+    private int[] previous; // Pixels de la dernière image envoyée.
+    private int[] scratch; // Tampon de lecture pour les images qui ne sont pas en TYPE_INT_RGB.
+    private int width; // Largeur de la dernière image.
+    private int height; // Hauteur de la dernière image.
+    private long frameId; // Identifiant de la dernière image envoyée (0 = aucune).
+    private final AtomicLong frameIds; // Suite des identifiants, partagée avec les TileDiffer créés par sibling.
+
+    public TileDiffer(FrameCodec codec) {
+        this(codec, DEFAULT_TILE_SIZE);
+    }
+
+    public TileDiffer(FrameCodec codec, int tileSize) {
+        this(codec, tileSize, null);
+    }
+
+    public TileDiffer(FrameCodec codec, int tileSize, ParallelTileCodec tileCodec) {
+        this(codec, tileSize, tileCodec, new AtomicLong());
+    }
+
+    private TileDiffer(FrameCodec codec, int tileSize, ParallelTileCodec tileCodec, AtomicLong frameIds) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.codec = codec;
+        this.tileCodec = tileCodec;
+        this.frameIds = frameIds;
+        this.motion = "false".equals(System.getProperty("rdp.motion")) ? null : new MotionDetector(tileSize);
+    }
+
+    // Change le codec des prochaines tuiles ; les tuiles déjà présentes chez le client restent valides.
+    public synchronized void setCodec(FrameCodec codec) {
+        this.codec = codec;
+    }
+
+    public synchronized FrameCodec getCodec() {
+        return codec;
+    }
+
+    // Crée un TileDiffer pour une autre suite d'images (une autre zone) : mêmes réglages, codec du même nom,
+    // et identifiants d'image uniques parmi tous les TileDiffer de la famille.
+    public synchronized TileDiffer sibling() {
+        TileDiffer sibling = new TileDiffer(FrameCodecs.create(codec.getName()), tileSize, tileCodec, frameIds);
+        sibling.geometryVersion = geometryVersion;
+        return sibling;
+    }
+
+    // Change la version de géométrie reportée dans les prochaines images.
+    public void setGeometryVersion(long geometryVersion) {
+        this.geometryVersion = geometryVersion;
+    }
+
+    // Demande une image clé complète au prochain appel de diff (spectateur qui ne peut plus suivre les copies).
+    public void requestKeyFrame() {
+        keyFrameRequested = true;
+    }
+
+    // Calcule les tuiles modifiées entre la capture et l'image acquittée par le client.
+    // Si l'acquittement ne correspond pas à la dernière image envoyée, une image clé complète est produite.
+    public synchronized FrameDelta diff(BufferedImage frame, long ackedFrameId) throws IOException {
+        int w = frame.getWidth();
+        int h = frame.getHeight();
+        int[] current = pixelsOf(frame);
+        boolean keyFrame = previous == null || w != width || h != height || ackedFrameId != frameId || keyFrameRequested;
+        keyFrameRequested = false;
+        if (previous == null || previous.length != w * h) {
+            previous = new int[w * h];
+        }
+        width = w;
+        height = h;
+
+        // Les copies sont appliquées à l'image précédente, comme le fera le client, avant la comparaison par tuiles.
+        List<CopyRect> copies = List.of();
+        if (motion != null) {
+            if (keyFrame) {
+                motion.update(current, w, h);
+            } else {
+                copies = motion.detect(previous, current, w, h);
+                for (CopyRect copy : copies) {
+                    copy.apply(previous, w);
+                }
+            }
+        }
+
+        // La comparaison est séquentielle ; seul l'encodage, le plus coûteux, est réparti sur les threads.
+        changed.clear();
+        int count = 0;
+        for (int ty = 0; ty < h; ty += tileSize) {
+            int th = Math.min(tileSize, h - ty);
+            for (int tx = 0; tx < w; tx += tileSize) {
+                int tw = Math.min(tileSize, w - tx);
+                if (keyFrame || tileChanged(current, tx, ty, tw, th)) {
+                    keepTile(current, tx, ty, tw, th);
+                    changed.add(new Rectangle(tx, ty, tw, th));
+                    if (count == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, Math.max(64, count * 2));
+                    }
+                    hashes[count++] = TileCache.hash(current, w, tx, ty, tw, th);
+                }
+            }
+        }
+        List<TileUpdate> tiles = new ArrayList<>(changed.size());
+        if (tileCodec != null) {
+            TileUpdate[] encoded = tileCodec.encode(frame, changed, codec);
+            for (int i = 0; i < encoded.length; i++) {
+                TileUpdate t = encoded[i];
+                tiles.add(new TileUpdate(t.getX(), t.getY(), t.getWidth(), t.getHeight(), t.getData(), hashes[i]));
+            }
+        } else {
+            for (int i = 0; i < changed.size(); i++) {
+                Rectangle r = changed.get(i);
+                tiles.add(new TileUpdate(r.x, r.y, r.width, r.height, codec.encode(frame, r.x, r.y, r.width, r.height),
+                        hashes[i]));
+            }
+        }
+        frameId = frameIds.incrementAndGet();
+        return new FrameDelta(frameId, w, h, keyFrame, codec.getName(), geometryVersion, copies, tiles);
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    // Retourne l'identifiant de la dernière image produite.
+    public synchronized long getFrameId() {
+        return frameId;
+    }
+
+    // Compare une tuile ligne par ligne avec l'image précédente.
+    private boolean tileChanged(int[] current, int tx, int ty, int tw, int th) {
+        for (int row = ty; row < ty + th; row++) {
+            int from = row * width + tx;
+            if (Arrays.mismatch(current, from, from + tw, previous, from, from + tw) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Met à jour l'image précédente pour une tuile modifiée.
+    private void keepTile(int[] current, int tx, int ty, int tw, int th) {
+        for (int row = 0; row < th; row++) {
+            int from = (ty + row) * width + tx;
+            System.arraycopy(current, from, previous, from, tw);
+        }
+    }
+
+    // Retourne les pixels RGB de l'image, sans copie lorsque l'image est en TYPE_INT_RGB.
+    private int[] pixelsOf(BufferedImage frame) {
+        if (frame.getType() == BufferedImage.TYPE_INT_RGB && frame.getRaster().getDataBuffer() instanceof DataBufferInt) {
+            return ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        }
+        int size = frame.getWidth() * frame.getHeight();
+        if (scratch == null || scratch.length != size) {
+            scratch = new int[size];
+        }
+        return frame.getRGB(0, 0, frame.getWidth(), frame.getHeight(), scratch, 0, frame.getWidth());
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import java.io.Serializable;
+
+/**
+ * Classe TileUpdate qui représente une tuile modifiée de l'écran du serveur.
+ * Contient les coordonnées de la tuile et ses pixels encodés par le codec négocié, ainsi que le hachage
+ * de ses pixels (TileCache). Une référence ne contient que le hachage : le client possède déjà ces pixels.
+ */
+public class TileUpdate implements Serializable {
+    public static final int REFERENCE_BYTES = 8; // Taille transportée par une référence (le hachage).
+
+    private final int x; // Position horizontale de la tuile dans l'écran.
+    private final int y; // Position verticale de la tuile dans l'écran.
+    private final int width; // Largeur de la tuile en pixels.
+    private final int height; // Hauteur de la tuile en pixels.
+    private final byte[] data; // Pixels de la tuile encodés par le codec de l'image, null pour une référence.
+    private final long hash; // Hachage des pixels, ou TileCache.NO_HASH.
+
+    public TileUpdate(int x, int y, int width, int height, byte[] data) {
+        this(x, y, width, height, data, TileCache.NO_HASH);
+    }
+
+    public TileUpdate(int x, int y, int width, int height, byte[] data, long hash) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.data = data;
+        this.hash = hash;
+    }
+
+    // Retourne une référence vers cette tuile, à résoudre dans le cache du client.
+    public TileUpdate toReference() {
+        return new TileUpdate(x, y, width, height, null, hash);
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public boolean isReference() {
+        return data == null;
+    }
+
+    // Nombre d'octets transportés pour cette tuile.
+    public int getByteSize() {
+        return data == null ? REFERENCE_BYTES : data.length;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example;
+
+import java.io.Serializable;
+
+/**
+ * Classe TransferInfo qui décrit un transfert de fichier par morceaux : identifiant, nom, taille,
+ * taille des morceaux et position jusqu'à laquelle tous les morceaux ont été confirmés.
+ */
+public class TransferInfo implements Serializable {
+    private final String transferId; // Identifiant du transfert, à rappeler pour chaque morceau.
+    private final String fileName; // Nom du fichier.
+    private final long fileSize; // Taille du fichier en octets.
+    private final int chunkSize; // Taille d'un morceau en octets (le dernier peut être plus petit).
+    private final long confirmedOffset; // Tous les octets avant cette position ont été reçus et vérifiés.
+
+    public TransferInfo(String transferId, String fileName, long fileSize, int chunkSize, long confirmedOffset) {
+        this.transferId = transferId;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.chunkSize = chunkSize;
+        this.confirmedOffset = confirmedOffset;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getConfirmedOffset() {
+        return confirmedOffset;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Énumération Transport : transport des images et des entrées entre le serveur et le client.
+ * RMI reste utilisé pour les opérations de contrôle (session, géométrie, fichiers) dans les deux cas.
+ */
+public enum Transport {
+    RMI, // Appels distants FrameCallback et receiveInputBatch.
+    SOCKET; // Connexion TCP binaire (SocketTransportServer / SocketTransportClient).
+
+    // Lit --transport=rmi|socket parmi les arguments, sinon -Drdp.transport (rmi par défaut).
+    public static Transport fromArgs(String[] args) {
+        String value = System.getProperty("rdp.transport", "rmi");
+        for (String arg : args) {
+            if (arg.startsWith("--transport=")) {
+                value = arg.substring("--transport=".length());
+            }
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
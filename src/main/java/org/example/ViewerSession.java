@@ -0,0 +1,365 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.io.UncheckedIOException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Classe ViewerSession qui contient l'état d'un spectateur connecté : identifiant, curseur (dernière image reçue),
+ * file d'envoi, contrôleur adaptatif et mesures. En mode diffusion, chaque session a son propre thread d'envoi :
+ * un spectateur lent ne saute que ses propres images, sans ralentir les autres.
+ * La position du curseur a son propre thread d'envoi, pour ne pas attendre les images.
+ * Les tâches de la session appartiennent à son SessionScope, fermé avec la session.
+ * La session garde une copie des clés du cache de tuiles du client : les tuiles qu'il possède déjà
+ * sont envoyées comme références.
+ */
+public class ViewerSession {
+    private static final long POLL_ACTIVITY_MILLIS = 2000; // Un spectateur en polling est actif s'il a demandé une image récemment.
+    private static final long NO_CURSOR = Long.MIN_VALUE; // Aucune position de curseur en attente (jamais produite par CursorPosition).
+
+    private final String id; // Identifiant de la session.
+    private final String clientHost; // Adresse du client.
+    private final boolean adaptive; // Active l'ajustement automatique.
+    private final SessionScope scope; // Tâches de la session (envoi des images).
+    private final AtomicReference<EncodedFrame> pending = new AtomicReference<>(); // File d'envoi : dernière image non envoyée.
+    private final AtomicLong pendingCursor = new AtomicLong(NO_CURSOR); // Dernière position du curseur non envoyée.
+    private final Metrics metrics; // Mesures propres à la session, publiées via JMX.
+    private final StageTimer sendTimer; // Mesures de l'étage de livraison.
+    private final Histogram frameBytes; // Taille des images livrées.
+    private final Histogram clientDecode; // Durée de décodage reportée par le client.
+    private final Histogram cursorCalls; // Durée des appels qui livrent le curseur.
+    private final LongAdder framesSent; // Images livrées.
+    private final LongAdder cacheHits; // Tuiles envoyées comme références.
+    private final LongAdder cacheMisses; // Tuiles envoyées en entier.
+    private final LongAdder cacheSaved; // Octets évités par les références.
+    private final TileCache<Integer> clientCache = new TileCache<>(TileCache.configuredEntries()); // Clés du cache du client, avec la taille encodée.
+    private long cacheEpoch = 1; // Époque du cache du client ; change à chaque réinitialisation.
+    private long lastPolledFrameId; // Dernière image retournée en mode polling.
+    private long polledStreamId; // Flux (zone) de la dernière image retournée en mode polling.
+    private final LongAdder skippedFrames = new LongAdder(); // Images remplacées avant d'avoir été envoyées.
+    private volatile AdaptiveController controller; // Contrôleur de la diffusion en cours.
+    private volatile FrameCallback callback; // Objet distant du client en mode diffusion.
+    private volatile int requestedFps = 30; // Fréquence demandée par le client.
+    private volatile long lastPollMillis; // Dernière demande d'image en mode polling.
+    private volatile Thread sender; // Thread d'envoi en mode diffusion.
+    private volatile Thread cursorSender; // Thread d'envoi des positions du curseur en mode diffusion.
+    private volatile int viewportWidth; // Zone d'affichage déclarée par le client (0 = résolution native).
+    private volatile int viewportHeight;
+    private volatile RegionOfInterest region; // Partie de l'écran demandée par le client (null = écran entier).
+
+    public ViewerSession(String id, String clientHost) {
+        this.id = id;
+        this.clientHost = clientHost;
+        this.adaptive = !"false".equals(System.getProperty("rdp.adaptive"));
+        this.controller = new AdaptiveController(requestedFps);
+        this.scope = new SessionScope("session-" + id);
+        this.metrics = new Metrics(id);
+        this.sendTimer = new StageTimer("send", metrics.histogram(Metrics.RMI_FRAME, Histogram.NANOS),
+                metrics.counter(Metrics.FRAMES_DROPPED));
+        this.frameBytes = metrics.histogram(Metrics.FRAME_BYTES, Histogram.BYTES);
+        this.clientDecode = metrics.histogram(Metrics.CLIENT_DECODE, Histogram.NANOS);
+        this.cursorCalls = metrics.histogram(Metrics.RMI_CURSOR, Histogram.NANOS);
+        this.framesSent = metrics.counter(Metrics.FRAMES_SENT);
+        this.cacheHits = metrics.counter(Metrics.TILE_CACHE_HITS);
+        this.cacheMisses = metrics.counter(Metrics.TILE_CACHE_MISSES);
+        this.cacheSaved = metrics.counter(Metrics.TILE_CACHE_SAVED);
+        metrics.register("Session");
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getClientHost() {
+        return clientHost;
+    }
+
+    // Démarre la diffusion vers l'objet distant du client ; la première image envoyée est une image clé.
+    public synchronized void startStreaming(FrameCallback callback, int targetFps) {
+        stopStreaming();
+        this.callback = callback;
+        this.requestedFps = Math.max(1, targetFps);
+        this.controller = new AdaptiveController(requestedFps);
+        pending.set(null);
+        pendingCursor.set(NO_CURSOR);
+        resetTileCache();
+        // Les threads sont publiés avant d'être démarrés : chaque boucle s'arrête dès que son champ ne la désigne plus.
+        sender = scope.newTask("frame-send", this::sendLoop);
+        cursorSender = scope.newTask("cursor-send", this::cursorLoop);
+        sender.start();
+        cursorSender.start();
+    }
+
+    public synchronized void stopStreaming() {
+        Thread thread = sender;
+        Thread cursorThread = cursorSender;
+        sender = null;
+        cursorSender = null;
+        callback = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        if (cursorThread != null) {
+            LockSupport.unpark(cursorThread);
+        }
+    }
+
+    // Ferme la session : arrête la diffusion et attend la fin de ses tâches.
+    public void close() {
+        stopStreaming();
+        scope.close();
+        metrics.unregister();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public SessionScope getScope() {
+        return scope;
+    }
+
+    public boolean isStreaming() {
+        return sender != null;
+    }
+
+    // Indique si la session demande actuellement des images (diffusion ou polling récent).
+    public boolean isActive() {
+        return isStreaming() || System.currentTimeMillis() - lastPollMillis < POLL_ACTIVITY_MILLIS;
+    }
+
+    // Fréquence souhaitée par cette session.
+    public int currentFps() {
+        return adaptive && isStreaming() ? controller.getTargetFps() : requestedFps;
+    }
+
+    public AdaptiveController getController() {
+        return controller;
+    }
+
+    public FrameCallback getCallback() {
+        return callback;
+    }
+
+    // Appelée par l'étage d'encodage : remplace l'image en attente, qui est alors sautée pour ce spectateur seulement.
+    public void offer(EncodedFrame frame) {
+        if (!isStreaming()) {
+            return;
+        }
+        if (pending.getAndSet(frame) != null) {
+            skippedFrames.increment();
+            sendTimer.drop();
+            controller.onFrameDropped();
+        }
+        Thread thread = sender;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    // Remplace la position du curseur en attente ; seule la plus récente est envoyée.
+    public void offerCursor(long packed) {
+        Thread thread = cursorSender;
+        if (thread == null) {
+            return;
+        }
+        pendingCursor.set(packed);
+        LockSupport.unpark(thread);
+    }
+
+    // Déclare la taille de la zone d'affichage du client ; les images n'ont pas besoin d'être plus grandes.
+    public void setViewport(int width, int height) {
+        viewportWidth = Math.max(0, width);
+        viewportHeight = Math.max(0, height);
+    }
+
+    public int getViewportWidth() {
+        return viewportWidth;
+    }
+
+    public int getViewportHeight() {
+        return viewportHeight;
+    }
+
+    // Déclare la partie de l'écran à recevoir ; elle est capturée dès l'image suivante.
+    public void setRegion(RegionOfInterest region) {
+        this.region = region;
+    }
+
+    public RegionOfInterest getRegion() {
+        return region;
+    }
+
+    // Mode polling : tuiles de l'image modifiées depuis l'image acquittée. Si le client n'a pas acquitté la dernière
+    // image retournée, ou si l'image vient d'un autre flux (changement de zone), une image clé est retournée.
+    public synchronized FrameDelta pollDelta(EncodedFrame frame, long ackedFrameId) {
+        boolean sameStream = frame.getStreamId() == polledStreamId && ackedFrameId == lastPolledFrameId;
+        FrameDelta delta = frame.deltaSince(sameStream ? ackedFrameId : 0);
+        polledStreamId = frame.getStreamId();
+        return delta;
+    }
+
+    // Mode polling : remplace les tuiles déjà présentes chez le client par des références et note l'image retournée.
+    // Un acquittement inattendu signifie qu'une réponse a été perdue : le cache du client est réinitialisé.
+    public synchronized FrameDelta preparePolled(FrameDelta delta, long ackedFrameId) {
+        if (ackedFrameId != lastPolledFrameId) {
+            resetTileCache();
+        }
+        FrameDelta cached = useTileCache(delta);
+        lastPolledFrameId = delta.getFrameId();
+        frameBytes.record(cached.getByteSize());
+        framesSent.increment();
+        return cached;
+    }
+
+    // Remplace les tuiles que le client possède déjà par des références, en suivant son cache LRU.
+    private synchronized FrameDelta useTileCache(FrameDelta delta) {
+        if (clientCache.getCapacity() == 0) {
+            return delta;
+        }
+        List<TileUpdate> tiles = new ArrayList<>(delta.getTiles().size());
+        for (TileUpdate tile : delta.getTiles()) {
+            if (tile.getHash() == TileCache.NO_HASH) {
+                tiles.add(tile);
+                continue;
+            }
+            Integer size = clientCache.get(tile.getHash());
+            if (size != null) {
+                tiles.add(tile.toReference());
+                cacheHits.increment();
+                cacheSaved.add(size - TileUpdate.REFERENCE_BYTES);
+            } else {
+                clientCache.put(tile.getHash(), tile.getByteSize());
+                tiles.add(tile);
+                cacheMisses.increment();
+            }
+        }
+        return delta.withCachedTiles(tiles, cacheEpoch, clientCache.getCapacity());
+    }
+
+    // Oublie le contenu du cache du client ; la prochaine image lui demande de vider le sien.
+    private synchronized void resetTileCache() {
+        clientCache.clear();
+        cacheEpoch++;
+    }
+
+    // Mode polling : note l'activité du spectateur.
+    public void touchPoll(int fps) {
+        lastPollMillis = System.currentTimeMillis();
+        requestedFps = Math.max(1, fps);
+    }
+
+    public long getSkippedFrames() {
+        return skippedFrames.sum();
+    }
+
+    public StageTiming getSendTiming() {
+        return sendTimer.snapshot();
+    }
+
+    // Thread d'envoi du curseur : quelques octets par appel, sans attendre l'envoi des images.
+    private void cursorLoop() {
+        Thread self = Thread.currentThread();
+        while (cursorSender == self) {
+            long packed = pendingCursor.getAndSet(NO_CURSOR);
+            FrameCallback target = callback;
+            if (packed == NO_CURSOR || target == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                long start = System.nanoTime();
+                target.cursorMoved(CursorPosition.x(packed), CursorPosition.y(packed), CursorPosition.shapeId(packed));
+                cursorCalls.recordSince(start);
+            } catch (RemoteException e) {
+                System.err.println("Viewer " + id + " unreachable, stopping cursor updates: " + e.getMessage());
+                synchronized (this) {
+                    if (cursorSender == self) {
+                        cursorSender = null;
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    // Thread d'envoi : livre la dernière image disponible à la fréquence de la session.
+    // Le curseur (dernière image livrée au client), son flux et sa zone sont propres à chaque thread d'envoi :
+    // un thread remplacé par startStreaming ne peut pas calculer un delta sur la base du nouveau,
+    // qui commence par une image clé. Une image d'un autre flux (changement de zone) repart aussi d'une image clé.
+    private void sendLoop() {
+        Thread self = Thread.currentThread();
+        long cursor = 0;
+        long streamId = 0;
+        Rectangle sentRegion = null;
+        long next = System.nanoTime();
+        while (sender == self) {
+            EncodedFrame frame = pending.getAndSet(null);
+            if (frame == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            FrameCallback target = callback;
+            if (frame.getStreamId() != streamId) {
+                cursor = 0;
+                streamId = frame.getStreamId();
+            }
+            FrameDelta delta;
+            try {
+                delta = frame.deltaSince(cursor);
+            } catch (UncheckedIOException e) {
+                System.err.println("Viewer " + id + ": " + e.getMessage());
+                continue;
+            }
+            // Une image vide n'est envoyée que si la zone capturée a changé : le client doit convertir autrement.
+            if (target != null && (!delta.isEmpty() || !Objects.equals(delta.getRegion(), sentRegion))) {
+                delta = useTileCache(delta);
+                long start = System.nanoTime();
+                try {
+                    long decodeNanos = target.onFrame(delta);
+                    sendTimer.record(start);
+                    frameBytes.record(delta.getByteSize());
+                    clientDecode.record(decodeNanos);
+                    framesSent.increment();
+                    controller.onFrameDelivered(System.nanoTime() - start, decodeNanos, delta.getByteSize());
+                    cursor = frame.getFrameId();
+                    sentRegion = delta.getRegion();
+                } catch (RemoteException e) {
+                    System.err.println("Viewer " + id + " unreachable, stopping frame streaming: " + e.getMessage());
+                    sendTimer.drop();
+                    synchronized (this) {
+                        if (sender == self) {
+                            sender = null;
+                            callback = null;
+                        }
+                    }
+                    return;
+                } catch (RuntimeException e) {
+                    // Le client n'a pas pu appliquer l'image : la suivante sera une image clé.
+                    System.err.println("Viewer " + id + " failed to apply frame: " + e.getMessage());
+                    sendTimer.drop();
+                    cursor = 0;
+                    resetTileCache();
+                }
+            } else {
+                cursor = frame.getFrameId();
+            }
+            // Cadence propre à ce spectateur : les images arrivées entre-temps sont fusionnées dans la suivante.
+            next += 1_000_000_000L / currentFps();
+            if (next < System.nanoTime()) {
+                next = System.nanoTime();
+            }
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0 && sender == self) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+}
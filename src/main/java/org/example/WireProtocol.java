@@ -0,0 +1,250 @@
+package org.example;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe WireProtocol qui définit le format binaire du transport par socket (SocketTransportServer/Client).
+ * Chaque message est précédé de sa longueur (int, type compris) puis de son type (octet) ; les entiers sont
+ * en big-endian. Une image est écrite en deux parties : l'en-tête (géométrie, copies, métadonnées des tuiles)
+ * dans un tampon direct, suivi des données encodées des tuiles, envoyées telles quelles par écriture groupée.
+ * Une connexion commence par HELLO : le serveur refuse les entrées reçues avant.
+ * Aucune sérialisation Java n'est utilisée. Le même format sert aux enregistrements de sessions (SessionRecorder).
+ */
+public final class WireProtocol {
+    public static final int HEADER_BYTES = 5; // Longueur (int) et type (octet) d'un message.
+    public static final int MAX_MESSAGE_BYTES = 64 * 1024 * 1024; // Au-delà, la connexion est considérée corrompue.
+
+    // Client -> serveur.
+    public static final byte HELLO = 1; // Identifiant de session et fréquence demandée : démarre la diffusion.
+    public static final byte ACK = 2; // Acquittement d'une image, avec le temps de décodage du client.
+    public static final byte INPUT = 3; // Lot d'événements d'entrée au format InputRecords.
+    public static final byte BYE = 4; // Fin de la diffusion.
+    public static final byte NACK = 5; // L'image n'a pas pu être appliquée : le serveur repart d'une image clé.
+    // Serveur -> client.
+    public static final byte FRAME = 10; // Image (FrameDelta).
+    public static final byte CURSOR = 11; // Position du curseur (CursorPosition).
+    public static final byte GEOMETRY = 12; // La géométrie de l'écran a changé : le client la redemande par RMI.
+
+    private static final int COPY_BYTES = 6 * 4; // srcX, srcY, x, y, largeur, hauteur.
+    private static final int TILE_BYTES = 4 * 4 + 8 + 4; // x, y, largeur, hauteur, hachage, longueur des données.
+    private static final int REGION_BYTES = 4 * 4; // x, y, largeur, hauteur de la zone capturée (largeur 0 : inconnue).
+    private static final int REFERENCE = -1; // Longueur des données d'une référence au cache de tuiles.
+
+    private WireProtocol() {
+    }
+
+    // Taille de l'en-tête d'une image, données des tuiles exclues.
+    public static int frameHeaderSize(FrameDelta delta) {
+        byte[] codec = delta.getCodec().getBytes(StandardCharsets.UTF_8);
+        return HEADER_BYTES + 8 + 4 + 4 + 1 + 2 + codec.length + 8 + REGION_BYTES + 8 + 4
+                + 4 + delta.getCopies().size() * COPY_BYTES + 4 + delta.getTiles().size() * TILE_BYTES;
+    }
+
+    // Taille d'un message FRAME complet, en-tête et données des tuiles compris.
+    public static int frameSize(FrameDelta delta) {
+        long size = frameHeaderSize(delta);
+        for (TileUpdate tile : delta.getTiles()) {
+            if (!tile.isReference()) {
+                size += tile.getData().length;
+            }
+        }
+        return Math.toIntExact(size);
+    }
+
+    // Écrit un message FRAME complet (en-tête puis données des tuiles) dans buffer.
+    public static void writeFrame(ByteBuffer buffer, FrameDelta delta) {
+        writeFrameHeader(buffer, delta);
+        for (TileUpdate tile : delta.getTiles()) {
+            if (!tile.isReference()) {
+                buffer.put(tile.getData());
+            }
+        }
+    }
+
+    // Écrit l'en-tête d'une image dans buffer ; les données des tuiles non nulles doivent suivre dans l'ordre.
+    public static void writeFrameHeader(ByteBuffer buffer, FrameDelta delta) {
+        byte[] codec = delta.getCodec().getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(frameSize(delta) - 4);
+        buffer.put(FRAME);
+        buffer.putLong(delta.getFrameId());
+        buffer.putInt(delta.getScreenWidth());
+        buffer.putInt(delta.getScreenHeight());
+        buffer.put((byte) (delta.isKeyFrame() ? 1 : 0));
+        buffer.putShort((short) codec.length);
+        buffer.put(codec);
+        buffer.putLong(delta.getGeometryVersion());
+        Rectangle region = delta.getRegion();
+        buffer.putInt(region == null ? 0 : region.x);
+        buffer.putInt(region == null ? 0 : region.y);
+        buffer.putInt(region == null ? 0 : region.width);
+        buffer.putInt(region == null ? 0 : region.height);
+        buffer.putLong(delta.getCacheEpoch());
+        buffer.putInt(delta.getCacheCapacity());
+        buffer.putInt(delta.getCopies().size());
+        for (CopyRect copy : delta.getCopies()) {
+            buffer.putInt(copy.getSrcX());
+            buffer.putInt(copy.getSrcY());
+            buffer.putInt(copy.getX());
+            buffer.putInt(copy.getY());
+            buffer.putInt(copy.getWidth());
+            buffer.putInt(copy.getHeight());
+        }
+        buffer.putInt(delta.getTiles().size());
+        for (TileUpdate tile : delta.getTiles()) {
+            buffer.putInt(tile.getX());
+            buffer.putInt(tile.getY());
+            buffer.putInt(tile.getWidth());
+            buffer.putInt(tile.getHeight());
+            buffer.putLong(tile.getHash());
+            buffer.putInt(tile.isReference() ? REFERENCE : tile.getData().length);
+        }
+    }
+
+    // Lit une image à partir de la charge utile d'un message FRAME (après le type).
+    public static FrameDelta readFrame(ByteBuffer buffer) throws IOException {
+        long frameId = buffer.getLong();
+        int screenWidth = buffer.getInt();
+        int screenHeight = buffer.getInt();
+        boolean keyFrame = buffer.get() != 0;
+        byte[] codec = new byte[checkCount(buffer.getShort(), buffer.remaining())];
+        buffer.get(codec);
+        long geometryVersion = buffer.getLong();
+        Rectangle region = new Rectangle(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        long cacheEpoch = buffer.getLong();
+        int cacheCapacity = buffer.getInt();
+        int copyCount = checkCount(buffer.getInt(), buffer.remaining() / COPY_BYTES);
+        List<CopyRect> copies = new ArrayList<>(copyCount);
+        for (int i = 0; i < copyCount; i++) {
+            copies.add(new CopyRect(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    buffer.getInt(), buffer.getInt()));
+        }
+        int tileCount = checkCount(buffer.getInt(), buffer.remaining() / TILE_BYTES);
+        int[] bounds = new int[tileCount * 4];
+        long[] hashes = new long[tileCount];
+        int[] lengths = new int[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            for (int k = 0; k < 4; k++) {
+                bounds[i * 4 + k] = buffer.getInt();
+            }
+            hashes[i] = buffer.getLong();
+            lengths[i] = buffer.getInt();
+        }
+        List<TileUpdate> tiles = new ArrayList<>(tileCount);
+        for (int i = 0; i < tileCount; i++) {
+            byte[] data = null;
+            if (lengths[i] != REFERENCE) {
+                data = new byte[checkCount(lengths[i], buffer.remaining())];
+                buffer.get(data);
+            }
+            tiles.add(new TileUpdate(bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3], data, hashes[i]));
+        }
+        FrameDelta delta = new FrameDelta(frameId, screenWidth, screenHeight, keyFrame,
+                new String(codec, StandardCharsets.UTF_8), geometryVersion, copies, tiles)
+                .withRegion(region.width == 0 ? null : region);
+        return cacheEpoch == 0 ? delta : delta.withCachedTiles(tiles, cacheEpoch, cacheCapacity);
+    }
+
+    // Écrit un message HELLO.
+    public static void writeHello(ByteBuffer buffer, String sessionId, int targetFps) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(1 + 2 + id.length + 4);
+        buffer.put(HELLO);
+        buffer.putShort((short) id.length);
+        buffer.put(id);
+        buffer.putInt(targetFps);
+    }
+
+    // Lit l'identifiant de session d'un message HELLO ; la fréquence suit (getInt).
+    public static String readSessionId(ByteBuffer buffer) throws IOException {
+        checkPayload(buffer, 2 + 4);
+        byte[] id = new byte[checkCount(buffer.getShort(), buffer.remaining() - 4)];
+        buffer.get(id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    // Écrit un acquittement d'image.
+    public static void writeAck(ByteBuffer buffer, long frameId, long decodeNanos) {
+        buffer.putInt(1 + 8 + 8);
+        buffer.put(ACK);
+        buffer.putLong(frameId);
+        buffer.putLong(decodeNanos);
+    }
+
+    // Écrit un refus d'image : le client n'a pas pu l'appliquer.
+    public static void writeNack(ByteBuffer buffer, long frameId) {
+        buffer.putInt(1 + 8);
+        buffer.put(NACK);
+        buffer.putLong(frameId);
+    }
+
+    // Écrit un lot d'événements d'entrée.
+    public static void writeInput(ByteBuffer buffer, int[] events) {
+        buffer.putInt(1 + 4 + events.length * 4);
+        buffer.put(INPUT);
+        buffer.putInt(events.length);
+        for (int value : events) {
+            buffer.putInt(value);
+        }
+    }
+
+    public static int inputSize(int[] events) {
+        return HEADER_BYTES + 4 + events.length * 4;
+    }
+
+    // Lit un lot d'événements d'entrée.
+    public static int[] readInput(ByteBuffer buffer) throws IOException {
+        checkPayload(buffer, 4);
+        int[] events = new int[checkCount(buffer.getInt(), buffer.remaining() / 4)];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = buffer.getInt();
+        }
+        return events;
+    }
+
+    // Écrit une position du curseur.
+    public static void writeCursor(ByteBuffer buffer, long position) {
+        buffer.putInt(1 + 8);
+        buffer.put(CURSOR);
+        buffer.putLong(position);
+    }
+
+    // Écrit une notification de changement de géométrie.
+    public static void writeGeometry(ByteBuffer buffer, long version) {
+        buffer.putInt(1 + 8);
+        buffer.put(GEOMETRY);
+        buffer.putLong(version);
+    }
+
+    // Écrit un message sans contenu (BYE).
+    public static void writeEmpty(ByteBuffer buffer, byte type) {
+        buffer.putInt(1);
+        buffer.put(type);
+    }
+
+    // Vérifie la longueur annoncée d'un message avant d'allouer son tampon.
+    public static int checkLength(int length) throws IOException {
+        if (length < 1 || length > MAX_MESSAGE_BYTES) {
+            throw new IOException("Invalid message length " + length);
+        }
+        return length;
+    }
+
+    // Vérifie qu'il reste au moins bytes octets de charge utile avant de les lire.
+    public static void checkPayload(ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            throw new IOException("Truncated message: " + buffer.remaining() + " bytes, expected " + bytes);
+        }
+    }
+
+    private static int checkCount(int count, int max) throws IOException {
+        if (count < 0 || count > max) {
+            throw new IOException("Invalid count " + count + " (at most " + max + ")");
+        }
+        return count;
+    }
+}
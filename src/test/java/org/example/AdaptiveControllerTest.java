@@ -0,0 +1,49 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveControllerTest {
+
+    // Images livrées en 10 s, bien au-delà du budget : le contrôleur descend d'un niveau toutes les 5 images.
+    private static void overload(AdaptiveController controller, int levels) {
+        int target = controller.getLevel() + levels;
+        while (controller.getLevel() < target) {
+            controller.onFrameDelivered(10_000_000_000L, 0, 10_000);
+        }
+    }
+
+    @Test
+    void topLevelsFollowRequestedFps() {
+        AdaptiveController controller = new AdaptiveController(60);
+        assertEquals(60, controller.getTargetFps());
+        overload(controller, 1);
+        assertEquals(60, controller.getTargetFps());
+        overload(controller, 1);
+        assertEquals(40, controller.getTargetFps());
+        overload(controller, 3);
+        assertEquals(10, controller.getTargetFps());
+    }
+
+    @Test
+    void ladderAtThirtyFpsIsUnchanged() {
+        AdaptiveController controller = new AdaptiveController(30);
+        int[] expected = {30, 30, 20, 15, 10, 5};
+        for (int level = 0; level < expected.length; level++) {
+            assertEquals(level, controller.getLevel());
+            assertEquals(expected[level], controller.getTargetFps());
+            if (level < expected.length - 1) {
+                overload(controller, 1);
+            }
+        }
+    }
+
+    @Test
+    void requestedFpsIsBounded() {
+        assertEquals(AdaptiveController.MAX_FPS, new AdaptiveController(10_000).getTargetFps());
+        AdaptiveController slow = new AdaptiveController(2);
+        overload(slow, 5);
+        assertEquals(1, slow.getTargetFps());
+    }
+}
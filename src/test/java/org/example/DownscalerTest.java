@@ -0,0 +1,116 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DownscalerTest {
+
+    // Filtre de référence : moyenne exacte des pixels source recouverts, pondérés par la surface recouverte.
+    private static int[] reference(BufferedImage source, int dw, int dh) {
+        int sw = source.getWidth();
+        int sh = source.getHeight();
+        double sx = (double) sw / dw;
+        double sy = (double) sh / dh;
+        int[] out = new int[dw * dh];
+        for (int dy = 0; dy < dh; dy++) {
+            for (int dx = 0; dx < dw; dx++) {
+                double[] sum = new double[3];
+                double total = 0;
+                for (int y = (int) (dy * sy); y < Math.min(sh, Math.ceil((dy + 1) * sy)); y++) {
+                    double wy = Math.min(y + 1, (dy + 1) * sy) - Math.max(y, dy * sy);
+                    for (int x = (int) (dx * sx); x < Math.min(sw, Math.ceil((dx + 1) * sx)); x++) {
+                        double w = wy * (Math.min(x + 1, (dx + 1) * sx) - Math.max(x, dx * sx));
+                        int pixel = source.getRGB(x, y);
+                        sum[0] += w * (pixel >> 16 & 0xFF);
+                        sum[1] += w * (pixel >> 8 & 0xFF);
+                        sum[2] += w * (pixel & 0xFF);
+                        total += w;
+                    }
+                }
+                out[dy * dw + dx] = (int) Math.round(sum[0] / total) << 16
+                        | (int) Math.round(sum[1] / total) << 8 | (int) Math.round(sum[2] / total);
+            }
+        }
+        return out;
+    }
+
+    private static BufferedImage noise(int width, int height, int type) {
+        Random random = new Random(width * 31L + height);
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    // Compare au filtre de référence ; les poids sont arrondis au 1/256 de pixel, d'où une tolérance de 2 par canal.
+    private static void assertMatchesReference(BufferedImage source, int dw, int dh) {
+        BufferedImage target = new BufferedImage(dw, dh, BufferedImage.TYPE_INT_RGB);
+        new Downscaler().scale(source, target);
+        assertMatchesReference(source, target);
+    }
+
+    private static void assertMatchesReference(BufferedImage source, BufferedImage target) {
+        int dw = target.getWidth();
+        int dh = target.getHeight();
+        int[] expected = reference(source, dw, dh);
+        for (int i = 0; i < expected.length; i++) {
+            int actual = target.getRGB(i % dw, i / dw);
+            for (int shift = 0; shift <= 16; shift += 8) {
+                assertEquals(expected[i] >> shift & 0xFF, actual >> shift & 0xFF, 2,
+                        "pixel " + i + " of " + source.getWidth() + "x" + source.getHeight() + " -> " + dw + "x" + dh);
+            }
+        }
+    }
+
+    @Test
+    void integerRatioAveragesBlocks() {
+        BufferedImage source = noise(64, 48, BufferedImage.TYPE_INT_RGB);
+        assertMatchesReference(source, 32, 24);
+        assertMatchesReference(source, 16, 12);
+    }
+
+    @Test
+    void fractionalRatioWeighsPartialPixels() {
+        assertMatchesReference(noise(100, 75, BufferedImage.TYPE_INT_RGB), 67, 31);
+        assertMatchesReference(noise(97, 61, BufferedImage.TYPE_INT_RGB), 96, 60);
+    }
+
+    @Test
+    void sameSizeCopiesImage() {
+        assertMatchesReference(noise(40, 30, BufferedImage.TYPE_INT_RGB), 40, 30);
+    }
+
+    @Test
+    void readsImagesOfOtherTypes() {
+        assertMatchesReference(noise(50, 40, BufferedImage.TYPE_3BYTE_BGR), 23, 17);
+    }
+
+    @Test
+    void reusesTablesAcrossSizes() {
+        Downscaler downscaler = new Downscaler();
+        BufferedImage large = noise(80, 60, BufferedImage.TYPE_INT_RGB);
+        BufferedImage small = noise(30, 20, BufferedImage.TYPE_INT_RGB);
+        BufferedImage target = new BufferedImage(15, 10, BufferedImage.TYPE_INT_RGB);
+        downscaler.scale(large, new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB));
+        downscaler.scale(small, target);
+        assertMatchesReference(small, target);
+    }
+
+    @Test
+    void rejectsUpscalingAndExtremeRatios() {
+        Downscaler downscaler = new Downscaler();
+        BufferedImage source = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        assertThrows(IllegalArgumentException.class,
+                () -> downscaler.scale(source, new BufferedImage(65, 64, BufferedImage.TYPE_INT_RGB)));
+        assertThrows(IllegalArgumentException.class,
+                () -> downscaler.scale(source, new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB)));
+    }
+}
@@ -0,0 +1,147 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Trois images 64x64 en tuiles de 32 : A (image clé), B (A défilée d'une demi-hauteur vers le haut,
+ * moitié basse nouvelle) et C (B avec la tuile en haut à droite modifiée).
+ */
+class EncodedFrameTest {
+    private static final int SIZE = 64;
+    private static final int TILE = 32;
+
+    private final RleCodec codec = new RleCodec();
+    private BufferedImage a;
+    private BufferedImage b;
+    private BufferedImage c;
+    private EncodedFrame f1;
+    private EncodedFrame f2;
+    private EncodedFrame f3;
+
+    @BeforeEach
+    void publishFrames() {
+        Random random = new Random(42);
+        a = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        b = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                a.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                b.setRGB(x, y, y < TILE ? a.getRGB(x, y + TILE) : random.nextInt(0x1000000));
+            }
+        }
+        c = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        c.setData(b.getData());
+        for (int y = 0; y < TILE; y++) {
+            for (int x = TILE; x < SIZE; x++) {
+                c.setRGB(x, y, 0x808080);
+            }
+        }
+        FrameDelta d1 = new FrameDelta(1, SIZE, SIZE, true, FrameCodecs.RLE, 0, tiles(a, 0, 0, TILE, 0, 0, TILE, TILE, TILE));
+        FrameDelta d2 = new FrameDelta(2, SIZE, SIZE, false, FrameCodecs.RLE, 0,
+                List.of(new CopyRect(0, TILE, 0, 0, SIZE, TILE)), tiles(b, 0, TILE, TILE, TILE));
+        FrameDelta d3 = new FrameDelta(3, SIZE, SIZE, false, FrameCodecs.RLE, 0, tiles(c, TILE, 0));
+        f1 = EncodedFrame.apply(null, d1, TILE, a);
+        f2 = EncodedFrame.apply(f1, d2, TILE, b);
+        f3 = EncodedFrame.apply(f2, d3, TILE, c);
+    }
+
+    // Tuiles encodées aux positions (x, y) données.
+    private List<TileUpdate> tiles(BufferedImage image, int... positions) {
+        List<TileUpdate> tiles = new ArrayList<>();
+        for (int i = 0; i < positions.length; i += 2) {
+            int x = positions[i];
+            int y = positions[i + 1];
+            tiles.add(new TileUpdate(x, y, TILE, TILE, codec.encode(image, x, y, TILE, TILE)));
+        }
+        return tiles;
+    }
+
+    // Applique le delta à une copie de base (une image noire si base est null), comme le client.
+    private static BufferedImage decode(BufferedImage base, FrameDelta delta) throws IOException {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        if (base != null) {
+            image.setData(base.getData());
+        }
+        try (DeltaDecoder decoder = new DeltaDecoder(new ParallelTileCodec(1))) {
+            decoder.apply(delta, image);
+        }
+        return image;
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        assertArrayEquals(expected.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE), actual.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE));
+    }
+
+    @Test
+    void upToDateViewerReceivesCopyAndNewTiles() throws IOException {
+        FrameDelta delta = f2.deltaSince(1);
+        assertFalse(delta.isKeyFrame());
+        assertEquals(1, delta.getCopies().size());
+        assertEquals(2, delta.getTiles().size());
+        assertSameImage(b, decode(a, delta));
+    }
+
+    @Test
+    void newViewerReceivesKeyFrameWithCopiedTilesEncoded() throws IOException {
+        FrameDelta delta = f2.deltaSince(0);
+        assertTrue(delta.isKeyFrame());
+        assertTrue(delta.getCopies().isEmpty());
+        assertEquals(4, delta.getTiles().size());
+        assertSameImage(b, decode(null, delta));
+        assertSameImage(c, decode(null, f3.deltaSince(0)));
+    }
+
+    @Test
+    void laggingViewerReceivesCopiedTilesInsteadOfKeyFrame() throws IOException {
+        FrameDelta delta = f3.deltaSince(1);
+        assertFalse(delta.isKeyFrame());
+        assertTrue(delta.getCopies().isEmpty());
+        assertEquals(4, delta.getTiles().size());
+        assertSameImage(c, decode(a, delta));
+        // La tuile copiée n'est encodée qu'une fois, puis partagée par les spectateurs suivants.
+        assertSame(delta.getTiles().get(0), f3.deltaSince(0).getTiles().get(0));
+    }
+
+    @Test
+    void viewerOneFrameBehindReceivesOnlyChangedTiles() throws IOException {
+        FrameDelta delta = f3.deltaSince(2);
+        assertFalse(delta.isKeyFrame());
+        assertEquals(1, delta.getTiles().size());
+        assertEquals(TILE, delta.getTiles().get(0).getX());
+        assertSameImage(c, decode(b, delta));
+        assertTrue(f3.deltaSince(3).isEmpty());
+    }
+
+    @Test
+    void previousFrameIsUnchangedByLaterFrames() throws IOException {
+        assertSameImage(b, decode(a, f2.deltaSince(1)));
+        assertSameImage(a, decode(null, f1.deltaSince(0)));
+    }
+
+    @Test
+    void sizeChangeStartsNewKeyFrame() {
+        BufferedImage small = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_RGB);
+        FrameDelta d4 = new FrameDelta(4, TILE, TILE, true, FrameCodecs.RLE, 0, tiles(small, 0, 0));
+        EncodedFrame f4 = EncodedFrame.apply(f3, d4, TILE, small);
+        FrameDelta delta = f4.deltaSince(3);
+        assertTrue(delta.isKeyFrame());
+        assertEquals(1, delta.getTiles().size());
+    }
+}
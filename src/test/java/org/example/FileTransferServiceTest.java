@@ -0,0 +1,169 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTransferServiceTest {
+    private static final int CHUNK = 1000;
+
+    @TempDir
+    Path directory;
+
+    private static byte[] content(int size) {
+        byte[] data = new byte[size];
+        new Random(7).nextBytes(data);
+        return data;
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static FileChunk chunk(byte[] content, long offset) {
+        int end = (int) Math.min(content.length, offset + CHUNK);
+        return new FileChunk(offset, Arrays.copyOfRange(content, (int) offset, end));
+    }
+
+    @Test
+    void checksumDetectsCorruptedChunk() throws IOException {
+        FileChunk chunk = chunk(content(CHUNK), 0);
+        assertTrue(chunk.isValid());
+        chunk.getData()[10] ^= 1; // Corruption après le calcul de la somme de contrôle, comme en transit.
+        assertFalse(chunk.isValid());
+
+        FileTransferService service = new FileTransferService(directory, CHUNK);
+        TransferInfo info = service.beginUpload("corrupt.bin", CHUNK, 0);
+        IOException e = assertThrows(IOException.class, () -> service.writeChunk(info.getTransferId(), chunk));
+        assertTrue(e.getMessage().contains("Checksum"));
+        assertEquals(0, service.getTransfer(info.getTransferId()).getConfirmedOffset());
+    }
+
+    @Test
+    void rejectsChunkOfWrongLength() throws IOException {
+        FileTransferService service = new FileTransferService(directory, CHUNK);
+        TransferInfo info = service.beginUpload("short.bin", 2 * CHUNK, 0);
+        FileChunk shortChunk = new FileChunk(0, new byte[CHUNK - 1]);
+        assertThrows(IOException.class, () -> service.writeChunk(info.getTransferId(), shortChunk));
+    }
+
+    @Test
+    void interruptedUploadResumesFromConfirmedOffset() throws IOException {
+        byte[] content = content(3 * CHUNK + 123);
+        FileTransferService service = new FileTransferService(directory, CHUNK);
+        TransferInfo info = service.beginUpload("../data.bin", content.length, checksum(content));
+        assertEquals("data.bin", info.getFileName());
+        String id = info.getTransferId();
+
+        // Morceaux en vol reçus dans le désordre : le troisième n'avance pas la position confirmée.
+        assertEquals(CHUNK, service.writeChunk(id, chunk(content, 0)));
+        assertEquals(CHUNK, service.writeChunk(id, chunk(content, 2 * CHUNK)));
+        assertThrows(IOException.class, () -> service.finishUpload(id));
+
+        // Reconnexion : le même fichier reprend le même transfert, à la position confirmée.
+        TransferInfo resumed = service.beginUpload("data.bin", content.length, checksum(content));
+        assertEquals(id, resumed.getTransferId());
+        assertEquals(CHUNK, resumed.getConfirmedOffset());
+        assertEquals(3 * CHUNK, service.writeChunk(id, chunk(content, CHUNK)));
+        assertEquals(content.length, service.writeChunk(id, chunk(content, 3 * CHUNK)));
+        service.finishUpload(id);
+
+        assertArrayEquals(content, Files.readAllBytes(directory.resolve("data.bin")));
+        assertFalse(Files.exists(directory.resolve("data.bin.part")));
+    }
+
+    @Test
+    void uploadOfOtherContentToSamePartFileIsRejected() throws IOException {
+        byte[] content = content(2 * CHUNK);
+        FileTransferService service = new FileTransferService(directory, CHUNK);
+        TransferInfo info = service.beginUpload("data.bin", content.length, checksum(content));
+        service.writeChunk(info.getTransferId(), chunk(content, 0));
+
+        // Même nom et même taille, autre contenu : pas de reprise, et pas de second envoi concurrent.
+        assertThrows(IOException.class, () -> service.beginUpload("data.bin", content.length, checksum(content) + 1));
+        assertThrows(IOException.class, () -> service.beginUpload("data.bin", content.length + 1, checksum(content)));
+        assertEquals(CHUNK, service.getTransfer(info.getTransferId()).getConfirmedOffset());
+    }
+
+    @Test
+    void idleTransfersExpire() throws IOException, InterruptedException {
+        byte[] content = content(2 * CHUNK);
+        FileTransferService service = new FileTransferService(directory, CHUNK, 20);
+        TransferInfo abandoned = service.beginUpload("data.bin", content.length, checksum(content));
+        Thread.sleep(50);
+
+        // Le client du premier envoi a disparu : un nouvel envoi ferme le transfert abandonné.
+        TransferInfo info = service.beginUpload("data.bin", content.length, checksum(content) + 1);
+        assertThrows(IOException.class, () -> service.getTransfer(abandoned.getTransferId()));
+        assertEquals(0, info.getConfirmedOffset());
+        service.closeAll();
+        assertThrows(IOException.class, () -> service.getTransfer(info.getTransferId()));
+    }
+
+    @Test
+    void downloadResumesFromPartFile() throws IOException {
+        byte[] content = content(3 * CHUNK + 10);
+        Path file = directory.resolve("source.bin");
+        Files.write(file, content);
+        Path target = directory.resolve("copy.bin");
+        // Téléchargement interrompu au milieu du deuxième morceau.
+        Files.write(directory.resolve("copy.bin.part"), Arrays.copyOf(content, CHUNK + CHUNK / 2));
+
+        FileTransferService service = new FileTransferService(directory, CHUNK);
+        List<Long> requested = new ArrayList<>();
+        SharingInterface server = (SharingInterface) Proxy.newProxyInstance(SharingInterface.class.getClassLoader(),
+                new Class<?>[]{SharingInterface.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "downloadChunk":
+                            requested.add((Long) args[1]);
+                            return service.readChunk((String) args[0], (Long) args[1]);
+                        case "closeTransfer":
+                            service.close((String) args[0]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        new ChunkedTransferClient(server, 2).download(service.beginDownload(file), target);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        requested.sort(null);
+        assertEquals(List.of((long) CHUNK, 2L * CHUNK, 3L * CHUNK), requested);
+    }
+
+    @Test
+    void downloadReadsVerifiableChunks() throws IOException {
+        byte[] content = content(2 * CHUNK + 1);
+        Path file = directory.resolve("source.bin");
+        Files.write(file, content);
+        FileTransferService service = new FileTransferService(directory, CHUNK);
+        TransferInfo info = service.beginDownload(file);
+        assertEquals(content.length, info.getFileSize());
+        byte[] received = new byte[content.length];
+        for (long offset = 0; offset < content.length; offset += CHUNK) {
+            FileChunk chunk = service.readChunk(info.getTransferId(), offset);
+            assertTrue(chunk.isValid());
+            System.arraycopy(chunk.getData(), 0, received, (int) offset, chunk.getData().length);
+        }
+        assertArrayEquals(content, received);
+        assertThrows(IllegalArgumentException.class, () -> service.readChunk(info.getTransferId(), 17));
+        service.close(info.getTransferId());
+    }
+}
@@ -0,0 +1,134 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameBroadcasterTest {
+    private static final int TILE = 32;
+    private static final Rectangle TOP = new Rectangle(0, 0, 128, 64);
+    private static final Rectangle CORNER = new Rectangle(64, 64, 64, 64);
+
+    private final SessionRegistry sessions = new SessionRegistry();
+    private final Map<ViewerSession, Rectangle> regions = new ConcurrentHashMap<>();
+    private final AtomicInteger captures = new AtomicInteger();
+    private FrameBroadcaster broadcaster;
+
+    @BeforeEach
+    void open() {
+        broadcaster = new FrameBroadcaster(this::capture, regions::get, new TileDiffer(new RleCodec(), TILE),
+                sessions, new Metrics("broadcaster-test"));
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void close() {
+        broadcaster.stop();
+        for (ViewerSession session : sessions.all()) {
+            sessions.close(session.getId());
+        }
+    }
+
+    // Contenu nouveau à chaque capture, de la taille de la zone demandée.
+    private BufferedImage capture(Rectangle bounds) {
+        Random random = new Random(captures.incrementAndGet());
+        BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < bounds.height; y++) {
+            for (int x = 0; x < bounds.width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    // Session en diffusion sur la zone donnée ; retourne la file des images qu'elle reçoit.
+    private BlockingQueue<FrameDelta> stream(ViewerSession session, Rectangle region) {
+        BlockingQueue<FrameDelta> received = new LinkedBlockingQueue<>();
+        regions.put(session, region);
+        session.startStreaming(new FrameCallback() {
+            @Override
+            public long onFrame(FrameDelta delta) {
+                received.add(delta);
+                return 0;
+            }
+
+            @Override
+            public void geometryChanged(ScreenGeometry geometry) {
+            }
+
+            @Override
+            public void cursorMoved(int x, int y, int shapeId) {
+            }
+        }, 60);
+        return received;
+    }
+
+    private static FrameDelta poll(BlockingQueue<FrameDelta> queue) throws InterruptedException {
+        FrameDelta delta = queue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(delta, "no frame received in time");
+        return delta;
+    }
+
+    // Reçoit quelques images et vérifie qu'elles couvrent toutes la zone attendue ; retourne leurs identifiants.
+    private static Set<Long> receive(BlockingQueue<FrameDelta> queue, Rectangle region) throws InterruptedException {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            FrameDelta delta = poll(queue);
+            assertEquals(region, delta.getRegion());
+            assertEquals(region.width, delta.getScreenWidth());
+            assertEquals(region.height, delta.getScreenHeight());
+            ids.add(delta.getFrameId());
+        }
+        return ids;
+    }
+
+    @Test
+    void encodesEachRegionOnlyForItsViewers() throws InterruptedException {
+        BlockingQueue<FrameDelta> first = stream(sessions.open("a"), TOP);
+        BlockingQueue<FrameDelta> second = stream(sessions.open("b"), TOP);
+        BlockingQueue<FrameDelta> corner = stream(sessions.open("c"), CORNER);
+
+        Set<Long> firstIds = receive(first, TOP);
+        Set<Long> cornerIds = receive(corner, CORNER);
+        firstIds.addAll(receive(first, TOP));
+        Set<Long> secondIds = receive(second, TOP);
+        // Même zone : mêmes images encodées une fois ; autre zone : un autre flux, aux identifiants distincts.
+        secondIds.retainAll(firstIds);
+        assertFalse(secondIds.isEmpty());
+        cornerIds.retainAll(firstIds);
+        assertTrue(cornerIds.isEmpty());
+    }
+
+    @Test
+    void changingRegionRestartsFromKeyFrame() throws InterruptedException {
+        ViewerSession session = sessions.open("a");
+        stream(sessions.open("b"), TOP);
+        BlockingQueue<FrameDelta> received = stream(session, CORNER);
+        receive(received, CORNER);
+
+        regions.put(session, TOP);
+        FrameDelta delta = poll(received);
+        while (!TOP.equals(delta.getRegion())) {
+            delta = poll(received);
+        }
+        assertTrue(delta.isKeyFrame());
+        receive(received, TOP);
+    }
+}
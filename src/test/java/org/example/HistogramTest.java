@@ -0,0 +1,65 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long v = 0; v < 2 * Histogram.SUB_BUCKETS; v++) {
+            int bucket = Histogram.bucketOf(v);
+            assertEquals(v, Histogram.lowerBound(bucket));
+            assertEquals(1, Histogram.width(bucket));
+        }
+    }
+
+    @Test
+    void bucketsContainTheirValuesWithinRelativePrecision() {
+        long[] values = {64, 65, 100, 1_000, 4_095, 4_096, 123_456_789L, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long v : values) {
+            int bucket = Histogram.bucketOf(v);
+            long low = Histogram.lowerBound(bucket);
+            long width = Histogram.width(bucket);
+            assertTrue(bucket < Histogram.BUCKETS, "bucket of " + v);
+            assertTrue(low <= v && v - low < width, v + " outside [" + low + ", " + low + "+" + width + ")");
+            assertTrue(width <= low / Histogram.SUB_BUCKETS, "bucket of " + v + " too wide");
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        for (int bucket = 0; bucket < Histogram.bucketOf(Long.MAX_VALUE); bucket++) {
+            assertEquals(Histogram.lowerBound(bucket) + Histogram.width(bucket), Histogram.lowerBound(bucket + 1));
+        }
+    }
+
+    @Test
+    void snapshotPercentilesMatchRecordedValues() {
+        Histogram histogram = new Histogram("latency", Histogram.NANOS);
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000_000, snapshot.getMax());
+        assertEquals(5_000_500, snapshot.getMean(), 1e-6);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            double expected = percentile * 100_000;
+            assertEquals(expected, snapshot.getPercentile(percentile), expected * 0.03, "p" + percentile);
+        }
+        assertEquals(snapshot.getMax(), snapshot.getPercentile(100));
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram("clock", Histogram.NANOS);
+        histogram.record(-5);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentile(50));
+        assertEquals(0, snapshot.getMax());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Défilement vers le bas de 80 lignes, interrompu par un bandeau modifié : chaque bande donne deux blocs
+ * copiés, et la destination du premier recouvre la source du second.
+ */
+class MotionDetectorTest {
+    private static final int TILE = 32;
+    private static final int WIDTH = 2 * TILE;
+    private static final int HEIGHT = 256;
+    private static final int SHIFT = 80;
+    private static final int BANNER_Y = 120; // Lignes [BANNER_Y, BANNER_END) nouvelles dans l'image courante.
+    private static final int BANNER_END = 130;
+
+    private final Random random = new Random(11);
+
+    private int[] randomRows(int rows) {
+        int[] pixels = new int[rows * WIDTH];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt(0x1000000);
+        }
+        return pixels;
+    }
+
+    private int[] scrolled(int[] previous) {
+        int[] current = randomRows(HEIGHT);
+        for (int y = SHIFT; y < HEIGHT; y++) {
+            if (y < BANNER_Y || y >= BANNER_END) {
+                System.arraycopy(previous, (y - SHIFT) * WIDTH, current, y * WIDTH, WIDTH);
+            }
+        }
+        return current;
+    }
+
+    private static BufferedImage image(int[] pixels) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, WIDTH, HEIGHT, pixels, 0, WIDTH);
+        return image;
+    }
+
+    @Test
+    void overlappingRunsAreReturnedInApplicationOrder() {
+        int[] previous = randomRows(HEIGHT);
+        int[] current = scrolled(previous);
+        MotionDetector detector = new MotionDetector(TILE);
+        detector.update(previous, WIDTH, HEIGHT);
+        List<CopyRect> copies = detector.detect(previous, current, WIDTH, HEIGHT);
+        assertEquals(2, copies.size());
+
+        int[] applied = Arrays.copyOf(previous, previous.length);
+        for (CopyRect copy : copies) {
+            copy.apply(applied, WIDTH);
+        }
+        for (CopyRect copy : copies) {
+            for (int y = copy.getY(); y < copy.getY() + copy.getHeight(); y++) {
+                assertArrayEquals(Arrays.copyOfRange(current, y * WIDTH, (y + 1) * WIDTH),
+                        Arrays.copyOfRange(applied, y * WIDTH, (y + 1) * WIDTH), "row " + y);
+            }
+        }
+    }
+
+    @Test
+    void multiRunScrollSendsNoExtraTiles() throws IOException {
+        int[] previous = randomRows(HEIGHT);
+        TileDiffer differ = new TileDiffer(new RleCodec(), TILE);
+        FrameDelta key = differ.diff(image(previous), -1);
+        assertTrue(key.isKeyFrame());
+
+        FrameDelta delta = differ.diff(image(scrolled(previous)), key.getFrameId());
+        assertEquals(2, delta.getCopies().size());
+        // Seules les lignes nouvelles sont envoyées : le haut découvert et les tuiles du bandeau.
+        for (TileUpdate tile : delta.getTiles()) {
+            boolean top = tile.getY() < SHIFT;
+            boolean banner = tile.getY() < BANNER_END && tile.getY() + tile.getHeight() > BANNER_Y;
+            assertTrue(top || banner, "unexpected tile at " + tile.getX() + "," + tile.getY());
+        }
+        assertEquals(5 * (WIDTH / TILE), delta.getTiles().size()); // Lignes de tuiles 0 à 4.
+    }
+}
@@ -0,0 +1,40 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RegionOfInterestTest {
+    private static final int STEP = RegionOfInterest.FOLLOW_STEP;
+    private static final ScreenGeometry GEOMETRY = new ScreenGeometry(1, 1920, 1080, 1.0, List.of());
+
+    private static Rectangle follow(int x, int y) {
+        return RegionOfInterest.followCursor(640, 480).resolve(GEOMETRY, CursorPosition.pack(x, y, 0));
+    }
+
+    @Test
+    void followCursorMovesByWholeSteps() {
+        Rectangle bounds = follow(960, 496);
+        assertEquals(new Rectangle(10 * STEP, 4 * STEP, 640, 480), bounds);
+        // Petits mouvements du curseur : la zone ne bouge pas.
+        assertEquals(bounds, follow(960 + STEP / 2 - 1, 496 - STEP / 2));
+        // Au-delà d'un demi-pas, elle se déplace d'un pas entier.
+        assertEquals(new Rectangle(11 * STEP, 4 * STEP, 640, 480), follow(960 + STEP / 2, 496));
+    }
+
+    @Test
+    void followCursorStaysInsideDesktop() {
+        assertEquals(new Rectangle(0, 0, 640, 480), follow(10, 10));
+        assertEquals(new Rectangle(1920 - 640, 1080 - 480, 640, 480), follow(1915, 1075));
+    }
+
+    @Test
+    void fixedRegionsAreClippedToDesktop() {
+        assertEquals(new Rectangle(1800, 0, 120, 100), RegionOfInterest.rectangle(1800, 0, 400, 100).resolve(GEOMETRY, 0));
+        assertEquals(new Rectangle(0, 0, 1920, 1080), RegionOfInterest.rectangle(5000, 0, 10, 10).resolve(GEOMETRY, 0));
+        assertEquals(new Rectangle(0, 0, 1920, 1080), RegionOfInterest.parse("screen").resolve(GEOMETRY, 0));
+    }
+}
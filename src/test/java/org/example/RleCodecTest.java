@@ -0,0 +1,110 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RleCodecTest {
+
+    // Image avec des aplats (longues plages) et du bruit (plages d'un pixel).
+    private static BufferedImage screen(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, x < width / 2 ? 0x3366CC : random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    private static int[] pixels(BufferedImage image, int x, int y, int width, int height) {
+        return image.getRGB(x, y, width, height, null, 0, width);
+    }
+
+    @Test
+    void roundTripsRegion() throws IOException {
+        BufferedImage source = screen(100, 70, 1);
+        RleCodec codec = new RleCodec();
+        byte[] data = codec.encode(source, 13, 7, 64, 50);
+        BufferedImage target = new BufferedImage(100, 70, BufferedImage.TYPE_INT_RGB);
+        codec.decode(data, target, 13, 7, 64, 50);
+        assertArrayEquals(pixels(source, 13, 7, 64, 50), pixels(target, 13, 7, 64, 50));
+    }
+
+    @Test
+    void compressesFlatRegions() {
+        BufferedImage flat = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        // Une seule plage de 4096 pixels : varint sur deux octets et trois octets de couleur.
+        assertEquals(5, new RleCodec().encode(flat, 0, 0, 64, 64).length);
+    }
+
+    @Test
+    void rejectsTruncatedTile() {
+        RleCodec codec = new RleCodec();
+        byte[] data = codec.encode(screen(32, 32, 2), 0, 0, 32, 32);
+        byte[] truncated = Arrays.copyOf(data, data.length / 2);
+        BufferedImage target = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        assertThrows(IOException.class, () -> codec.decode(truncated, target, 0, 0, 32, 32));
+    }
+
+    @Test
+    void rejectsInvalidRunLengths() {
+        RleCodec codec = new RleCodec();
+        BufferedImage target = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        // Plage vide, plage négative (varint de 5 octets qui déborde), plage plus longue que la tuile, varint trop long.
+        byte[][] corrupt = {
+                {0, 1, 2, 3},
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1, 2, 3},
+                {(byte) 0x81, 0x08, 1, 2, 3},
+                {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 1, 2, 3},
+        };
+        for (byte[] data : corrupt) {
+            assertThrows(IOException.class, () -> codec.decode(data, target, 0, 0, 32, 32));
+        }
+    }
+
+    @Test
+    void createsEverySupportedCodecByName() {
+        for (String name : FrameCodecs.SUPPORTED) {
+            assertEquals(name, FrameCodecs.create(name).getName());
+        }
+        assertThrows(IllegalArgumentException.class, () -> FrameCodecs.create("bmp"));
+    }
+
+    @Test
+    void negotiatesFirstSupportedOfferedCodec() {
+        assertEquals(FrameCodecs.JPEG, FrameCodecs.negotiate(List.of("h264", FrameCodecs.JPEG, FrameCodecs.RLE)));
+        assertEquals(FrameCodecs.PNG, FrameCodecs.negotiate(List.of("h264")));
+        assertEquals(FrameCodecs.PNG, FrameCodecs.negotiate(null));
+    }
+
+    @Test
+    void losslessCodecsRoundTripThroughFactory() throws IOException {
+        BufferedImage source = screen(48, 40, 3);
+        for (String name : List.of(FrameCodecs.RLE, FrameCodecs.PNG)) {
+            FrameCodec codec = FrameCodecs.create(name);
+            BufferedImage target = new BufferedImage(48, 40, BufferedImage.TYPE_INT_RGB);
+            codec.decode(codec.encode(source, 0, 0, 48, 40), target, 0, 0, 48, 40);
+            assertArrayEquals(pixels(source, 0, 0, 48, 40), pixels(target, 0, 0, 48, 40), name);
+        }
+    }
+
+    @Test
+    void jpegDecodesToSameSize() throws IOException {
+        FrameCodec codec = FrameCodecs.create(FrameCodecs.JPEG);
+        BufferedImage target = new BufferedImage(48, 40, BufferedImage.TYPE_INT_RGB);
+        byte[] data = codec.encode(screen(48, 40, 4), 0, 0, 48, 40);
+        assertTrue(data.length > 0);
+        codec.decode(data, target, 0, 0, 48, 40);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRecorderTest {
+    private static final int SIZE = 64;
+    private static final int TILE = 32;
+    private static final long KEY_FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @TempDir
+    Path directory;
+
+    private final RleCodec codec = new RleCodec();
+
+    private static BufferedImage noise(Random random) {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    private TileUpdate tile(BufferedImage image, int x, int y) {
+        return new TileUpdate(x, y, TILE, TILE, codec.encode(image, x, y, TILE, TILE));
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+    }
+
+    // Rejoue les images lues à partir de la position courante du lecteur, comme un lecteur d'enregistrement.
+    private static BufferedImage replay(RecordingReader reader, List<RecordedEvent> others) throws IOException {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        try (DeltaDecoder decoder = new DeltaDecoder(new ParallelTileCodec(1))) {
+            boolean first = true;
+            for (RecordedEvent event = reader.next(); event != null; event = reader.next()) {
+                if (event.getType() != WireProtocol.FRAME) {
+                    others.add(event);
+                    continue;
+                }
+                if (first) {
+                    assertTrue(event.getFrame().isKeyFrame(), "replay must start on a key frame");
+                    first = false;
+                }
+                decoder.apply(event.getFrame(), image);
+            }
+        }
+        return image;
+    }
+
+    @Test
+    void recordsSeeksToKeyFrameAndReplays() throws IOException, InterruptedException {
+        Random random = new Random(3);
+        BufferedImage a = noise(random);
+        // B : A défilée d'une tuile vers le haut, nouvelle rangée en bas. C : B avec une tuile modifiée.
+        BufferedImage b = noise(random);
+        b.getRaster().setDataElements(0, 0, a.getRaster().createChild(0, TILE, SIZE, TILE, 0, 0, null));
+        BufferedImage c = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        c.setData(b.getData());
+        c.getRaster().setDataElements(TILE, TILE, noise(random).getRaster().createChild(0, 0, TILE, TILE, 0, 0, null));
+
+        EncodedFrame f1 = EncodedFrame.apply(null, new FrameDelta(1, SIZE, SIZE, true, FrameCodecs.RLE, 0,
+                List.of(tile(a, 0, 0), tile(a, TILE, 0), tile(a, 0, TILE), tile(a, TILE, TILE))), TILE, a);
+        EncodedFrame f2 = EncodedFrame.apply(f1, new FrameDelta(2, SIZE, SIZE, false, FrameCodecs.RLE, 0,
+                List.of(new CopyRect(0, TILE, 0, 0, SIZE, TILE)), List.of(tile(b, 0, TILE), tile(b, TILE, TILE))), TILE, b);
+        EncodedFrame f3 = EncodedFrame.apply(f2, new FrameDelta(3, SIZE, SIZE, false, FrameCodecs.RLE, 0,
+                List.of(tile(c, TILE, TILE))), TILE, c);
+
+        SessionScope scope = new SessionScope("recorder-test");
+        SessionRecorder recorder = new SessionRecorder(directory, new Metrics("recorder-test"), KEY_FRAME_NANOS);
+        recorder.start(scope);
+        recorder.recordFrame(f1);
+        recorder.recordInput(new int[] {InputRecords.MOUSE_MOVE, 5, 6, 0});
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(KEY_FRAME_NANOS) + 100);
+        // Image clé reconstituée par l'enregistreur sur une image dont les tuiles du haut viennent d'une copie.
+        recorder.recordFrame(f2);
+        recorder.recordCursor(CursorPosition.pack(7, 8, 1));
+        recorder.recordFrame(f3);
+        recorder.close();
+        scope.close();
+
+        try (RecordingReader reader = new RecordingReader(directory)) {
+            assertEquals(2, reader.getKeyFrameCount());
+
+            List<RecordedEvent> others = new ArrayList<>();
+            long firstKeyFrame = reader.seek(0);
+            assertTrue(firstKeyFrame >= 0);
+            assertArrayEquals(pixels(c), pixels(replay(reader, others)));
+            assertEquals(2, others.size());
+            assertArrayEquals(new int[] {InputRecords.MOUSE_MOVE, 5, 6, 0}, others.get(0).getInputEvents());
+            assertEquals(8, CursorPosition.y(others.get(1).getCursor()));
+
+            // Position au milieu de l'enregistrement : la lecture reprend sur la seconde image clé (f2).
+            others.clear();
+            long keyFrame = reader.seek(Long.MAX_VALUE);
+            assertTrue(keyFrame - firstKeyFrame >= KEY_FRAME_NANOS);
+            RecordedEvent first = reader.next();
+            assertEquals(WireProtocol.FRAME, first.getType());
+            assertEquals(2, first.getFrame().getFrameId());
+            assertTrue(first.getFrame().getCopies().isEmpty());
+            reader.seek(keyFrame);
+            assertArrayEquals(pixels(c), pixels(replay(reader, others)));
+            assertEquals(1, others.size());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void closeWithoutWriterFinishesEmptyRecording() throws IOException {
+        SessionRecorder recorder = new SessionRecorder(directory, new Metrics("recorder-test"));
+        recorder.close();
+        recorder.recordCursor(CursorPosition.pack(1, 2, 1)); // Ignoré après la fermeture.
+        assertFalse(directory.resolve(SessionRecorder.segmentName(0)).toFile().exists());
+        assertTrue(directory.resolve(SessionRecorder.INDEX_FILE).toFile().exists());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpscQueueTest {
+
+    @Test
+    void offerFailsWhenFull() {
+        SpscQueue<Integer> queue = new SpscQueue<>(3); // Arrondie à 4.
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(4));
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    void pollReturnsNullWhenEmpty() {
+        SpscQueue<String> queue = new SpscQueue<>(1);
+        assertNull(queue.poll());
+        queue.offer("a");
+        assertEquals("a", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpscQueue<>(0));
+    }
+
+    @Test
+    void deliversEveryItemInOrderAcrossThreads() throws InterruptedException {
+        int count = 20_000;
+        SpscQueue<Integer> queue = new SpscQueue<>(8);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    queue.put(i);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "producer");
+        producer.start();
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, queue.take());
+        }
+        producer.join();
+        assertNull(failure.get());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void takeIsInterruptible() throws InterruptedException {
+        SpscQueue<Integer> queue = new SpscQueue<>(1);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        }, "consumer");
+        consumer.start();
+        consumer.interrupt();
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        assertTrue(thrown.get() instanceof InterruptedException);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TileCacheTest {
+    private static final int TILE = 32;
+
+    private final int[] p = pattern(1); // Contenus de tuile.
+    private final int[] q = pattern(2);
+    private TileDiffer differ;
+    private ViewerSession session;
+    private DeltaDecoder decoder;
+    private BufferedImage client;
+
+    @BeforeEach
+    void open() {
+        differ = new TileDiffer(new RleCodec(), TILE);
+        session = new ViewerSession("tile-cache-test", "localhost");
+        decoder = new DeltaDecoder(new ParallelTileCodec(1));
+        client = new BufferedImage(2 * TILE, TILE, BufferedImage.TYPE_INT_RGB);
+    }
+
+    @AfterEach
+    void close() {
+        session.close();
+        decoder.close();
+    }
+
+    private static int[] pattern(long seed) {
+        Random random = new Random(seed);
+        int[] pixels = new int[TILE * TILE];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt(0x1000000);
+        }
+        return pixels;
+    }
+
+    // Écran de deux tuiles côte à côte.
+    private static BufferedImage screen(int[] left, int[] right) {
+        BufferedImage image = new BufferedImage(2 * TILE, TILE, BufferedImage.TYPE_INT_RGB);
+        image.getRaster().setDataElements(0, 0, TILE, TILE, left);
+        image.getRaster().setDataElements(TILE, 0, TILE, TILE, right);
+        return image;
+    }
+
+    // Une requête de polling : encodage, remplacement par des références côté serveur, application côté client.
+    private FrameDelta poll(BufferedImage screen, long acked) throws IOException {
+        FrameDelta delta = session.preparePolled(differ.diff(screen, acked), acked);
+        decoder.apply(delta, client);
+        assertArrayEquals(screen.getRGB(0, 0, 2 * TILE, TILE, null, 0, 2 * TILE),
+                client.getRGB(0, 0, 2 * TILE, TILE, null, 0, 2 * TILE));
+        return delta;
+    }
+
+    private static boolean hasReference(FrameDelta delta) {
+        return delta.getTiles().stream().anyMatch(TileUpdate::isReference);
+    }
+
+    @Test
+    void hashDependsOnContentNotPosition() {
+        BufferedImage image = screen(p, p);
+        int[] pixels = image.getRGB(0, 0, 2 * TILE, TILE, null, 0, 2 * TILE);
+        long left = TileCache.hash(pixels, 2 * TILE, 0, 0, TILE, TILE);
+        assertEquals(left, TileCache.hash(pixels, 2 * TILE, TILE, 0, TILE, TILE));
+        assertEquals(left, TileCache.hash(image.getRGB(0, 0, TILE, TILE, null, 0, TILE), TILE, 0, 0, TILE, TILE));
+        assertNotEquals(left, TileCache.hash(pixels, 2 * TILE, 0, 0, TILE, TILE - 1));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        TileCache<String> cache = new TileCache<>(2);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        assertEquals("a", cache.get(1));
+        cache.put(3, "c");
+        assertNull(cache.get(2));
+        assertEquals("a", cache.get(1));
+        assertEquals("c", cache.get(3));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        cache.put(TileCache.NO_HASH, "never");
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void serverAndClientCachesStayInStep() throws IOException {
+        // Deux tuiles identiques dans la même image : la seconde est déjà une référence.
+        FrameDelta first = poll(screen(p, p), 0);
+        assertTrue(first.isKeyFrame());
+        assertFalse(first.getTiles().get(0).isReference());
+        assertTrue(first.getTiles().get(1).isReference());
+
+        FrameDelta second = poll(screen(q, p), first.getFrameId());
+        assertEquals(1, second.getTiles().size());
+        assertFalse(hasReference(second));
+
+        // Retour d'un contenu déjà vu : seule la référence est envoyée.
+        FrameDelta third = poll(screen(p, p), second.getFrameId());
+        assertEquals(1, third.getTiles().size());
+        assertTrue(third.getTiles().get(0).isReference());
+        assertEquals(first.getCacheEpoch(), third.getCacheEpoch());
+    }
+
+    @Test
+    void lostResponseStartsNewEpoch() throws IOException {
+        FrameDelta first = poll(screen(p, q), 0);
+        // Réponse perdue : le serveur a noté ces tuiles, pas le client.
+        FrameDelta lost = session.preparePolled(differ.diff(screen(q, q), first.getFrameId()), first.getFrameId());
+        assertEquals(first.getCacheEpoch(), lost.getCacheEpoch());
+
+        // Le client acquitte toujours la première image : nouvelle époque, aucune référence au cache précédent.
+        FrameDelta recovered = poll(screen(p, q), first.getFrameId());
+        assertTrue(recovered.isKeyFrame());
+        assertNotEquals(first.getCacheEpoch(), recovered.getCacheEpoch());
+        assertFalse(hasReference(recovered));
+
+        FrameDelta next = poll(screen(q, q), recovered.getFrameId());
+        assertTrue(next.getTiles().get(0).isReference());
+    }
+}
@@ -0,0 +1,273 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+// Mêmes scénarios sur les deux transports, en local : images, curseur, géométrie, entrées, BYE et déconnexion.
+class TransportLoopbackTest {
+    private static final String SESSION = "loopback-session";
+    private static final ScreenGeometry GEOMETRY = new ScreenGeometry(3, 640, 480, 1.0, List.of());
+
+    // Serveur minimal : note les appels faits par le transport, les autres opérations ne servent pas ici.
+    private final BlockingQueue<FrameCallback> callbacks = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> stopped = new LinkedBlockingQueue<>();
+    private final BlockingQueue<int[]> inputs = new LinkedBlockingQueue<>();
+    // Ce que reçoit le client.
+    private final BlockingQueue<FrameDelta> frames = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Long> cursors = new LinkedBlockingQueue<>();
+    private final BlockingQueue<ScreenGeometry> geometries = new LinkedBlockingQueue<>();
+    private volatile boolean refuseFrames;
+
+    private SharingInterface server;
+    private SharingInterface stub;
+    private SocketTransportServer transport;
+    private SessionScope scope;
+    private FrameReceiver receiver;
+    private SocketTransportClient socket;
+
+    @BeforeEach
+    void open() throws IOException {
+        server = (SharingInterface) Proxy.newProxyInstance(SharingInterface.class.getClassLoader(),
+                new Class<?>[]{SharingInterface.class}, (proxy, method, args) -> serve(method, args));
+        stub = (SharingInterface) UnicastRemoteObject.exportObject(server, 0);
+        transport = new SocketTransportServer(server, InetAddress.getLoopbackAddress(), 0);
+        scope = new SessionScope("loopback-test");
+    }
+
+    @AfterEach
+    void close() throws RemoteException {
+        if (socket != null) {
+            socket.close();
+        }
+        if (receiver != null) {
+            receiver.close();
+        }
+        scope.close();
+        transport.close();
+        UnicastRemoteObject.unexportObject(server, true);
+    }
+
+    private Object serve(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "startStreaming":
+                callbacks.add((FrameCallback) args[1]);
+                return null;
+            case "stopStreaming":
+                stopped.add((String) args[0]);
+                return null;
+            case "receiveInputBatch":
+                inputs.add((int[]) args[0]);
+                return null;
+            case "getScreenGeometry":
+                return GEOMETRY;
+            case "hashCode":
+                return System.identityHashCode(server);
+            case "equals":
+                return server == args[0];
+            case "toString":
+                return "loopback-server";
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private void accept(FrameDelta delta) {
+        if (refuseFrames) {
+            throw new UncheckedIOException(new IOException("Refused frame " + delta.getFrameId()));
+        }
+        frames.add(delta);
+    }
+
+    // Démarre la diffusion comme Client, et retourne le FrameCallback reçu par le serveur.
+    private FrameCallback connect(Transport kind) throws IOException, InterruptedException {
+        if (kind == Transport.SOCKET) {
+            socket = new SocketTransportClient(InetAddress.getLoopbackAddress().getHostAddress(), transport.getPort(),
+                    stub, this::accept, geometries::add, cursors::add);
+            socket.start(scope);
+            socket.startStreaming(SESSION, 30);
+        } else {
+            receiver = new FrameReceiver(this::accept, geometries::add, cursors::add);
+            stub.startStreaming(SESSION, receiver, 30);
+        }
+        return poll(callbacks);
+    }
+
+    private void sendInput(Transport kind, int[] events) throws IOException {
+        if (kind == Transport.SOCKET) {
+            socket.sendBatch(events);
+        } else {
+            stub.receiveInputBatch(events);
+        }
+    }
+
+    private static <T> T poll(BlockingQueue<T> queue) throws InterruptedException {
+        T value = queue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(value, "nothing received in time");
+        return value;
+    }
+
+    private static FrameDelta frame(long frameId) {
+        return new FrameDelta(frameId, 64, 32, frameId == 1, FrameCodecs.RLE, GEOMETRY.getVersion(),
+                List.of(new TileUpdate(0, 0, 32, 32, new byte[]{1, 2, 3}), new TileUpdate(32, 0, 32, 32, new byte[]{4})));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Transport.class)
+    void deliversFramesCursorAndGeometry(Transport kind) throws Exception {
+        FrameCallback callback = connect(kind);
+        for (long id = 1; id <= 3; id++) {
+            callback.onFrame(frame(id)); // Retourne une fois l'image appliquée par le client.
+            FrameDelta received = frames.poll();
+            assertNotNull(received);
+            assertEquals(id, received.getFrameId());
+            assertEquals(2, received.getTiles().size());
+            assertArrayEquals(new byte[]{1, 2, 3}, received.getTiles().get(0).getData());
+        }
+
+        for (int x = 0; x < 100; x++) {
+            callback.cursorMoved(x, 7, 1);
+        }
+        long last;
+        do {
+            last = poll(cursors);
+        } while (CursorPosition.x(last) != 99);
+        assertEquals(7, CursorPosition.y(last));
+
+        callback.geometryChanged(GEOMETRY);
+        assertEquals(GEOMETRY.getVersion(), poll(geometries).getVersion());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Transport.class)
+    void refusedFrameIsReportedAndStreamingContinues(Transport kind) throws Exception {
+        FrameCallback callback = connect(kind);
+        refuseFrames = true;
+        assertThrows(UncheckedIOException.class, () -> callback.onFrame(frame(1)));
+        refuseFrames = false;
+        callback.onFrame(frame(2));
+        assertEquals(2, poll(frames).getFrameId());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Transport.class)
+    void forwardsInputAfterBye(Transport kind) throws Exception {
+        connect(kind);
+        int[] events = {InputRecords.MOUSE_MOVE, 10, 20, 0};
+        sendInput(kind, events);
+        assertArrayEquals(events, poll(inputs));
+
+        if (kind == Transport.SOCKET) {
+            socket.stopStreaming();
+        } else {
+            stub.stopStreaming(SESSION);
+        }
+        assertEquals(SESSION, poll(stopped));
+        sendInput(kind, events); // La connexion reste utilisable pour les entrées.
+        assertArrayEquals(events, poll(inputs));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Transport.class)
+    void disconnectedViewerFailsNextFrame(Transport kind) throws Exception {
+        FrameCallback callback = connect(kind);
+        callback.onFrame(frame(1));
+        if (kind == Transport.SOCKET) {
+            socket.close();
+            assertEquals(SESSION, poll(stopped)); // Le serveur arrête la diffusion à la fermeture de la connexion.
+        } else {
+            receiver.close();
+        }
+        assertThrows(RemoteException.class, () -> callback.onFrame(frame(2)));
+    }
+
+    // Envoie des octets bruts sur une nouvelle connexion et vérifie que le serveur la ferme.
+    private void assertClosedAfter(ByteBuffer buffer) throws Exception {
+        buffer.flip();
+        try (SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), transport.getPort()))) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                ByteBuffer ignored = ByteBuffer.allocate(256);
+                int read;
+                do {
+                    ignored.clear();
+                    read = channel.read(ignored);
+                } while (read >= 0);
+            });
+        }
+    }
+
+    @Test
+    void socketRejectsInputBeforeHello() throws Exception {
+        int[] events = {InputRecords.MOUSE_MOVE, 1, 2, 0};
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.inputSize(events));
+        WireProtocol.writeInput(buffer, events);
+        assertClosedAfter(buffer); // Le serveur ferme la connexion sans transmettre les entrées.
+        assertNull(inputs.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void socketRejectsLargeMessageBeforeHello() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.HEADER_BYTES);
+        buffer.putInt(WireProtocol.MAX_MESSAGE_BYTES).put(WireProtocol.INPUT); // Annonce 64 Mio sans les envoyer.
+        assertClosedAfter(buffer);
+    }
+
+    @Test
+    void malformedMessageClosesOnlyItsConnection() throws Exception {
+        FrameCallback callback = connect(Transport.SOCKET);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireProtocol.writeHello(buffer, "other-session", 30);
+        buffer.putInt(1 + 4).put(WireProtocol.ACK).putInt(0); // Acquittement tronqué.
+        assertClosedAfter(buffer);
+        // La connexion du client n'est pas touchée.
+        callback.onFrame(frame(1));
+        assertEquals(1, poll(frames).getFrameId());
+    }
+
+    @Test
+    void socketListensOnConfiguredAddress() throws Exception {
+        assertEquals(InetAddress.getLoopbackAddress(), transport.getAddress());
+        assertFalse(transport.getAddress().isAnyLocalAddress());
+        String previous = System.getProperty("java.rmi.server.hostname");
+        System.setProperty("java.rmi.server.hostname", "127.0.0.1");
+        try {
+            assertEquals(InetAddress.getByName("127.0.0.1"), SocketTransportServer.configuredAddress());
+        } finally {
+            if (previous == null) {
+                System.clearProperty("java.rmi.server.hostname");
+            } else {
+                System.setProperty("java.rmi.server.hostname", previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WireProtocolTest {
+
+    // Lit l'en-tête d'un message écrit dans buffer et vérifie sa longueur et son type ; buffer est positionné sur la charge utile.
+    private static ByteBuffer payload(ByteBuffer buffer, byte type) throws IOException {
+        buffer.flip();
+        assertEquals(buffer.remaining() - 4, WireProtocol.checkLength(buffer.getInt()));
+        assertEquals(type, buffer.get());
+        return buffer;
+    }
+
+    @Test
+    void frameRoundTrip() throws IOException {
+        TileUpdate full = new TileUpdate(64, 0, 64, 32, new byte[] {1, 2, 3, 4, 5}, 0x1234L);
+        TileUpdate reference = new TileUpdate(0, 64, 64, 64, new byte[] {9}, 0x5678L).toReference();
+        FrameDelta delta = new FrameDelta(42, 1920, 1080, false, FrameCodecs.RLE, 7,
+                List.of(new CopyRect(0, 10, 0, 0, 640, 300)), List.of(full, reference))
+                .withCachedTiles(List.of(full, reference), 3, 2048)
+                .withRegion(new Rectangle(100, 50, 1920, 1080));
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.frameSize(delta));
+        WireProtocol.writeFrame(buffer, delta);
+        assertFalse(buffer.hasRemaining());
+
+        FrameDelta read = WireProtocol.readFrame(payload(buffer, WireProtocol.FRAME));
+        assertFalse(buffer.hasRemaining());
+        assertEquals(42, read.getFrameId());
+        assertEquals(1920, read.getScreenWidth());
+        assertEquals(1080, read.getScreenHeight());
+        assertFalse(read.isKeyFrame());
+        assertEquals(FrameCodecs.RLE, read.getCodec());
+        assertEquals(7, read.getGeometryVersion());
+        assertEquals(new Rectangle(100, 50, 1920, 1080), read.getRegion());
+        assertEquals(3, read.getCacheEpoch());
+        assertEquals(2048, read.getCacheCapacity());
+        CopyRect copy = read.getCopies().get(0);
+        assertEquals(List.of(0, 10, 0, 0, 640, 300), List.of(copy.getSrcX(), copy.getSrcY(), copy.getX(), copy.getY(),
+                copy.getWidth(), copy.getHeight()));
+        assertEquals(2, read.getTiles().size());
+        TileUpdate tile = read.getTiles().get(0);
+        assertEquals(List.of(64, 0, 64, 32), List.of(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight()));
+        assertEquals(0x1234L, tile.getHash());
+        assertArrayEquals(full.getData(), tile.getData());
+        assertTrue(read.getTiles().get(1).isReference());
+        assertEquals(0x5678L, read.getTiles().get(1).getHash());
+        assertEquals(delta.getByteSize(), read.getByteSize());
+    }
+
+    @Test
+    void keyFrameWithoutRegionOrCache() throws IOException {
+        FrameDelta delta = new FrameDelta(1, 8, 8, true, FrameCodecs.PNG, 0,
+                List.of(new TileUpdate(0, 0, 8, 8, new byte[] {7})));
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.frameSize(delta));
+        WireProtocol.writeFrame(buffer, delta);
+        FrameDelta read = WireProtocol.readFrame(payload(buffer, WireProtocol.FRAME));
+        assertTrue(read.isKeyFrame());
+        assertEquals(FrameCodecs.PNG, read.getCodec());
+        assertNull(read.getRegion());
+        assertEquals(0, read.getCacheEpoch());
+        assertTrue(read.getCopies().isEmpty());
+    }
+
+    @Test
+    void rejectsCorruptTileCount() {
+        FrameDelta delta = new FrameDelta(1, 8, 8, true, FrameCodecs.RLE, 0, List.of());
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.frameSize(delta));
+        WireProtocol.writeFrame(buffer, delta);
+        buffer.putInt(buffer.position() - 4, 1_000_000); // Nombre de tuiles annoncé, sans les tuiles.
+        assertThrows(IOException.class, () -> WireProtocol.readFrame(payload(buffer, WireProtocol.FRAME)));
+    }
+
+    @Test
+    void rejectsCorruptCodecLength() {
+        FrameDelta delta = new FrameDelta(1, 8, 8, true, FrameCodecs.RLE, 0, List.of());
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.frameSize(delta));
+        WireProtocol.writeFrame(buffer, delta);
+        buffer.putShort(WireProtocol.HEADER_BYTES + 8 + 4 + 4 + 1, (short) -1); // Longueur du nom du codec.
+        assertThrows(IOException.class, () -> WireProtocol.readFrame(payload(buffer, WireProtocol.FRAME)));
+    }
+
+    @Test
+    void rejectsTruncatedControlMessages() {
+        ByteBuffer hello = ByteBuffer.allocate(16);
+        hello.putShort((short) 4).put(new byte[4]).flip(); // Identifiant sans la fréquence qui le suit.
+        assertThrows(IOException.class, () -> WireProtocol.readSessionId(hello));
+        assertThrows(IOException.class, () -> WireProtocol.readInput(ByteBuffer.allocate(2)));
+        assertThrows(IOException.class, () -> WireProtocol.checkPayload(ByteBuffer.allocate(8), 16));
+    }
+
+    @Test
+    void controlMessagesRoundTrip() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        WireProtocol.writeHello(buffer, "session-1", 30);
+        ByteBuffer hello = payload(buffer, WireProtocol.HELLO);
+        assertEquals("session-1", WireProtocol.readSessionId(hello));
+        assertEquals(30, hello.getInt());
+
+        buffer.clear();
+        WireProtocol.writeAck(buffer, 99, 1234);
+        ByteBuffer ack = payload(buffer, WireProtocol.ACK);
+        assertEquals(99, ack.getLong());
+        assertEquals(1234, ack.getLong());
+
+        buffer.clear();
+        int[] events = {InputRecords.MOUSE_PRESS, 10, 20, 1};
+        WireProtocol.writeInput(buffer, events);
+        assertEquals(WireProtocol.inputSize(events), buffer.position());
+        assertArrayEquals(events, WireProtocol.readInput(payload(buffer, WireProtocol.INPUT)));
+
+        buffer.clear();
+        WireProtocol.writeCursor(buffer, CursorPosition.pack(5, 6, 2));
+        long position = payload(buffer, WireProtocol.CURSOR).getLong();
+        assertEquals(5, CursorPosition.x(position));
+        assertEquals(6, CursorPosition.y(position));
+
+        buffer.clear();
+        WireProtocol.writeEmpty(buffer, WireProtocol.BYE);
+        assertFalse(payload(buffer, WireProtocol.BYE).hasRemaining());
+    }
+
+    @Test
+    void rejectsInvalidLengths() {
+        assertThrows(IOException.class, () -> WireProtocol.checkLength(0));
+        assertThrows(IOException.class, () -> WireProtocol.checkLength(WireProtocol.MAX_MESSAGE_BYTES + 1));
+    }
+}